@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.benchmark;
+
+import static java.lang.String.format;
+
+import edu.harvard.drs.remediation.task.KeyTransformer;
+import java.util.Random;
+
+/**
+ * Generator of realistic DRS object keys and dump lines for benchmarks. Keys are rooted
+ * at an 8 or 9 digit URN NSS, with a version folder and a content file, descriptor or
+ * metadata file named by its 9 digit file id.
+ */
+public final class DrsKeys {
+
+    private static final String[] VERSIONS = { "v1", "v2", "v3", "v00001", "v00002" };
+
+    private static final String[] EXTENSIONS = { "jp2", "tif", "png", "pdf", "xml", "txt", "wav" };
+
+    private DrsKeys() { }
+
+    /**
+     * Generate keys, a fraction of them already remediated.
+     *
+     * @param count      number of keys
+     * @param remediated fraction of keys already remediated
+     * @param seed       random seed
+     * @return keys
+     */
+    public static String[] keys(int count, double remediated, long seed) {
+        Random random = new Random(seed);
+        KeyTransformer transformer = new KeyTransformer();
+
+        String[] keys = new String[count];
+        for (int i = 0; i < count; i++) {
+            long nss = 10000000L + (long) (random.nextDouble() * 120000000L);
+            long id = 400000000L + random.nextInt(100000000);
+            String version = VERSIONS[random.nextInt(VERSIONS.length)];
+            String key;
+            switch (random.nextInt(4)) {
+                case 0:
+                    key = format("%d/%s/content/descriptor/%d_mets.xml", nss, version, id);
+                    break;
+                case 1:
+                    key = format("%d/%s/content/metadata/%d_mods.xml", nss, version, id);
+                    break;
+                default:
+                    key = format("%d/%s/content/data/%d.%s", nss, version, id,
+                        EXTENSIONS[random.nextInt(EXTENSIONS.length)]);
+                    break;
+            }
+            keys[i] = random.nextDouble() < remediated
+                ? transformer.mapKey(key)
+                : key;
+        }
+
+        return keys;
+    }
+
+    /**
+     * Line of dump file of file id and URN NSS.
+     *
+     * @param index line index
+     * @param id    file id
+     * @param nss   URN NSS
+     * @return dump line
+     */
+    public static String dumpLine(int index, long id, long nss) {
+        return format("%d : %d | urn-3:HUL.DRS.OBJECT:%d", index, id, nss);
+    }
+
+}
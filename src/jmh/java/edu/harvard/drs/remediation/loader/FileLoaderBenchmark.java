@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.loader;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import edu.harvard.drs.remediation.benchmark.DrsKeys;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of parsing each line of a dump file of file ids and URN NSS.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class FileLoaderBenchmark {
+
+    private static final int LINES = 1000000;
+
+    private Path path;
+
+    private FileLoader loader;
+
+    /**
+     * Write dump file.
+     *
+     * @throws IOException failed to write dump file
+     */
+    @Setup
+    public void setup() throws IOException {
+        path = Files.createTempFile("dump", ".txt");
+        Random random = new Random(42);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, UTF_8)) {
+            writer.write("  :        ID |                           URN\n");
+            writer.write("--:-----------|------------------------------\n");
+            for (int i = 0; i < LINES; i++) {
+                writer.write(DrsKeys.dumpLine(i, 400000000L + i, 10000000L + random.nextInt(120000000)));
+                writer.newLine();
+            }
+        }
+        loader = new FileLoader(path.toString(), getInputPattern(), getInputSkip());
+    }
+
+    /**
+     * Delete dump file.
+     *
+     * @throws IOException failed to delete dump file
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(path);
+    }
+
+    /**
+     * Load every line of dump file.
+     *
+     * @return number of entries loaded
+     */
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public long load() {
+        return loader.load().count();
+    }
+
+}
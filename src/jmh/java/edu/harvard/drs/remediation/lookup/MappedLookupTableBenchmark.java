@@ -0,0 +1,109 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of concurrent gets of the memory mapped lookup table, by long and by string.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class MappedLookupTableBenchmark {
+
+    private static final int ENTRIES = 1000000;
+
+    private String[] ids;
+
+    private Path index;
+
+    private MappedLookupTable table;
+
+    /**
+     * Build lookup index and map lookup table.
+     *
+     * @throws IOException failed to create lookup index file
+     */
+    @Setup
+    public void setup() throws IOException {
+        ids = new String[ENTRIES];
+        for (int i = 0; i < ENTRIES; i++) {
+            ids[i] = String.valueOf(400000000L + i);
+        }
+        index = Files.createTempFile("dump", ".idx");
+        MappedLookupTable.build(() -> IntStream.range(0, ENTRIES)
+            .mapToObj(i -> new SimpleEntry<>(ids[i], String.valueOf(10000000L + i))), index.toString());
+        table = new MappedLookupTable(index.toString());
+        table.load();
+    }
+
+    /**
+     * Unload lookup table and delete lookup index.
+     *
+     * @throws IOException failed to delete lookup index file
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        table.unload();
+        Files.deleteIfExists(index);
+    }
+
+    /**
+     * Get value of random id.
+     *
+     * @return value
+     */
+    @Benchmark
+    public long get() {
+        return table.get(400000000L + ThreadLocalRandom.current().nextInt(ENTRIES));
+    }
+
+    /**
+     * Get value of random id as string.
+     *
+     * @return value
+     */
+    @Benchmark
+    public String getString() {
+        return table.get(ids[ThreadLocalRandom.current().nextInt(ENTRIES)]);
+    }
+
+}
@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+
+import java.util.Iterator;
+import java.util.concurrent.CountDownLatch;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of scheduling overhead of the iterating task processor, processing no-op
+ * tasks through listing, execution and completion. Each invocation includes draining the
+ * stages once tasks are exhausted, amortized over its tasks. Run with LOG_LEVEL=warn so
+ * logging of each task submitted and completed is not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class IteratingTaskProcessorBenchmark {
+
+    private static final int TASKS = 100000;
+
+    @Param({ "1", "12" })
+    private int parallelism;
+
+    /**
+     * Process no-op tasks until processor completes.
+     *
+     * @throws InterruptedException interrupted while awaiting completion
+     */
+    @Benchmark
+    @OperationsPerInvocation(TASKS)
+    public void process() throws InterruptedException {
+        CountDownLatch completed = new CountDownLatch(1);
+
+        new IteratingTaskProcessor<ProcessTask>(parallelism, tasks(), completed::countDown).start();
+
+        completed.await();
+    }
+
+    private static Iterator<ProcessTask> tasks() {
+        return new Iterator<ProcessTask>() {
+
+            private int count = 0;
+
+            @Override
+            public boolean hasNext() {
+                return count < TASKS;
+            }
+
+            @Override
+            public ProcessTask next() {
+                return new NoOpTask(String.valueOf(count++));
+            }
+
+        };
+    }
+
+    private static final class NoOpTask implements ProcessTask {
+
+        private final String id;
+
+        private NoOpTask(String id) {
+            this.id = id;
+        }
+
+        @Override
+        public ProcessTask execute() {
+            return this;
+        }
+
+        @Override
+        public void complete() { }
+
+        @Override
+        public String id() {
+            return id;
+        }
+
+        @Override
+        public int size() {
+            return 1;
+        }
+
+    }
+
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import edu.harvard.drs.remediation.benchmark.DrsKeys;
+import java.time.Instant;
+import java.util.Collections;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of mapping and verifying keys of each listed object.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class KeyBenchmark {
+
+    private static final int KEYS = 1 << 16;
+
+    @Param({ "0.0", "0.5" })
+    private double remediated;
+
+    private String[] keys;
+
+    private AmazonS3RemediationTask task;
+
+    private int index;
+
+    /**
+     * Generate keys.
+     */
+    @Setup
+    public void setup() {
+        keys = DrsKeys.keys(KEYS, remediated, 42);
+        task = AmazonS3RemediationTask.builder(Instant.now(), null, Collections.emptyList()).build();
+        index = 0;
+    }
+
+    /**
+     * Map key of next object.
+     *
+     * @return mapped key
+     */
+    @Benchmark
+    public String mapKey() {
+        return task.mapKey(next());
+    }
+
+    /**
+     * Verify key of next object.
+     *
+     * @return whether remediated
+     */
+    @Benchmark
+    public boolean verifyRename() {
+        return task.verifyRename(next());
+    }
+
+    private String next() {
+        index = (index + 1) & (KEYS - 1);
+
+        return keys[index];
+    }
+
+}
@@ -0,0 +1,84 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import edu.harvard.drs.remediation.benchmark.DrsKeys;
+import org.apache.logging.log4j.message.ParameterizedMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark of formatting a row of the remediation log, as formatted by the logger
+ * before it is appended to the remediation log file.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RemediationLogBenchmark {
+
+    private static final int KEYS = 1 << 12;
+
+    private static final String ROW = "{},{},{},{},{},{}";
+
+    private String[] keys;
+
+    private String[] destinationKeys;
+
+    private int index;
+
+    /**
+     * Generate keys.
+     */
+    @Setup
+    public void setup() {
+        keys = DrsKeys.keys(KEYS, 0, 42);
+        destinationKeys = new String[KEYS];
+        KeyTransformer transformer = new KeyTransformer();
+        for (int i = 0; i < KEYS; i++) {
+            destinationKeys[i] = transformer.mapKey(keys[i]);
+        }
+        index = 0;
+    }
+
+    /**
+     * Format row of next object.
+     *
+     * @return formatted row
+     */
+    @Benchmark
+    public String row() {
+        index = (index + 1) & (KEYS - 1);
+
+        return new ParameterizedMessage(ROW, keys[index], destinationKeys[index],
+            "\"d41d8cd98f00b204e9800998ecf8427e\"", 1048576L + index, 0, 12.345678)
+            .getFormattedMessage();
+    }
+
+}
@@ -16,28 +16,92 @@
 
 package edu.harvard.drs.remediation;
 
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAdaptiveConcurrency;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAdaptiveInterval;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsAsync;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsBucketName;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsEndpointOverride;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListPrefetchMaxBytes;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListPrefetchMaxObjects;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListPrefetchPages;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListShards;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListSkipRemediated;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxInFlight;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxKeys;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartSize;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartsInFlight;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMultipartThreshold;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsPrefixRate;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsSkipMultipart;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getBuildLookupIndex;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getCheckpointInterval;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getCheckpointPath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getCountCachePath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getCountCacheTtl;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInventoryPath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInventorySchema;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getKeyMapper;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLargeLaneLookahead;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLargeLaneParallelism;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLookupCapacity;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLookupIndexPath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLookupOffHeap;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLookupTable;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getParallelism;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getProgressInterval;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getSweepUploads;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getSweepUploadsAge;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getTaskConcurrency;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getUploadJournalPath;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getVerifyOnly;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getWorkUnitMaxBytes;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getWorkUnitMaxObjects;
 import static edu.harvard.drs.remediation.utility.RuntimeUtils.availableProcessors;
 import static edu.harvard.drs.remediation.utility.RuntimeUtils.totalMemory;
 import static edu.harvard.drs.remediation.utility.TimeUtils.elapsed;
 import static java.lang.System.nanoTime;
+import static java.util.concurrent.Executors.newFixedThreadPool;
 import static org.apache.commons.lang3.StringUtils.isNotEmpty;
 
+import edu.harvard.drs.remediation.checkpoint.Checkpoint;
+import edu.harvard.drs.remediation.checkpoint.FileCheckpoint;
+import edu.harvard.drs.remediation.loader.FileLoader;
+import edu.harvard.drs.remediation.lookup.InMemoryLookupTable;
+import edu.harvard.drs.remediation.lookup.MappedLookupTable;
+import edu.harvard.drs.remediation.lookup.PrimitiveLookupTable;
+import edu.harvard.drs.remediation.store.AmazonS3AsyncBucket;
 import edu.harvard.drs.remediation.store.AmazonS3Bucket;
+import edu.harvard.drs.remediation.store.AmazonS3Clients;
+import edu.harvard.drs.remediation.store.AmazonS3Inventory;
+import edu.harvard.drs.remediation.store.CountCache;
+import edu.harvard.drs.remediation.store.InFlightLimiter;
+import edu.harvard.drs.remediation.store.LaneSplitter;
 import edu.harvard.drs.remediation.store.ObjectStore;
+import edu.harvard.drs.remediation.store.PrefetchingIterator;
+import edu.harvard.drs.remediation.store.PrefixRateLimiter;
+import edu.harvard.drs.remediation.store.RateLimitedObjectStore;
+import edu.harvard.drs.remediation.store.WorkUnitIterator;
+import edu.harvard.drs.remediation.task.AdaptiveConcurrency;
 import edu.harvard.drs.remediation.task.AmazonS3RemediationTask;
 import edu.harvard.drs.remediation.task.Callback;
 import edu.harvard.drs.remediation.task.IteratingTaskProcessor;
+import edu.harvard.drs.remediation.task.KeyMapper;
+import edu.harvard.drs.remediation.task.LookupKeyMapper;
+import edu.harvard.drs.remediation.task.NssKeyMapper;
+import edu.harvard.drs.remediation.task.Progress;
 import java.time.Instant;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 /**
@@ -59,11 +123,46 @@ public final class Remediate {
 
         log.info("{} AWS bucket", getAwsBucketName());
         log.info("{} AWS max keys", getAwsMaxKeys());
+        log.info("{} AWS list shards", getAwsListShards());
+        log.info("{} AWS list skip remediated", getAwsListSkipRemediated());
+        log.info("{} AWS list prefetch pages", getAwsListPrefetchPages());
         log.info("{} AWS max part size", getAwsMaxPartSize());
         log.info("{} AWS multipart threshold", getAwsMultipartThreshold());
         log.info("{} AWS skip multipart", getAwsSkipMultipart());
+        log.info("{} AWS max connections", AmazonS3Clients.maxConnections());
+        log.info("{} AWS async", getAwsAsync());
+        log.info("{} AWS max in flight", getAwsMaxInFlight());
+        log.info("{} AWS prefix rate", getAwsPrefixRate());
 
         log.info("{} parallelism", getParallelism());
+        log.info("{} task concurrency", getTaskConcurrency());
+        log.info("{} adaptive concurrency", getAdaptiveConcurrency());
+        log.info("{} work unit max bytes", getWorkUnitMaxBytes());
+        log.info("{} large lane parallelism", getLargeLaneParallelism());
+
+        log.info("{} checkpoint path", getCheckpointPath());
+        log.info("{} upload journal path", getUploadJournalPath());
+        log.info("{} sweep uploads", getSweepUploads());
+
+        log.info("{} inventory path", getInventoryPath());
+
+        log.info("{} key mapper", getKeyMapper());
+        log.info("{} lookup table", getLookupTable());
+        log.info("{} lookup index path", getLookupIndexPath());
+        log.info("{} input path", getInputPath());
+
+        log.info("{} progress interval", getProgressInterval());
+        log.info("{} count cache path", getCountCachePath());
+
+        // only compile dump into lookup index, mapped by subsequent executions
+        if (getBuildLookupIndex()) {
+            MappedLookupTable.build(
+                new FileLoader(getInputPath(), getInputPattern(), getInputSkip()),
+                getLookupIndexPath()
+            );
+
+            return;
+        }
 
         final String endpointOverride = args.length > 0 && isNotEmpty(args[0])
             ? args[0]
@@ -71,56 +170,281 @@ public final class Remediate {
                 ? getAwsEndpointOverride()
                 : null;
 
-        final AmazonS3Bucket s3 = new AmazonS3Bucket(
+        // throttled prefixes reported by clients lower the rate of renames of the prefix
+        final PrefixRateLimiter rateLimiter = getAwsPrefixRate() > 0
+            ? new PrefixRateLimiter(getAwsPrefixRate())
+            : null;
+
+        // long-lived client and connection pool shared by listing and every task
+        final S3Client client = AmazonS3Clients.client(endpointOverride, rateLimiter);
+
+        final AmazonS3Bucket bucket = new AmazonS3Bucket(
+            client,
             getAwsBucketName(),
             getAwsMaxKeys(),
             getAwsMaxPartSize(),
             getAwsMultipartThreshold(),
-            getAwsSkipMultipart(),
-            endpointOverride
+            getAwsSkipMultipart()
         );
 
+        if (getSweepUploads()) {
+            final long startTime = nanoTime();
+
+            long reclaimed = bucket.sweep(Instant.now().minusSeconds(getSweepUploadsAge()));
+
+            log.info("sweep of S3 bucket {} multipart uploads reclaimed {} bytes in {} milliseconds",
+                getAwsBucketName(), reclaimed, elapsed(startTime));
+
+            bucket.close();
+            client.close();
+
+            return;
+        }
+
+        final ObjectStore s3 = isNotEmpty(getInventoryPath())
+            ? new AmazonS3Inventory(getInventoryPath(), getInventorySchema(), getAwsMaxKeys(), bucket)
+            : bucket;
+
+        if (getAwsAsync() && (getAwsMaxPartsInFlight() > 0 || isNotEmpty(getUploadJournalPath()))) {
+            log.warn("part copy threads, part retries and upload journal are not supported with AWS async, "
+                + "ignoring AWS max parts in flight and upload journal path");
+        }
+
+        final S3AsyncClient asyncClient = getAwsAsync()
+            ? AmazonS3Clients.asyncClient(endpointOverride, getAwsMaxInFlight(), rateLimiter)
+            : null;
+
+        // limiter of asynchronous task store bounds requests in flight globally
+        final ObjectStore renameStore = getAwsAsync()
+            ? new AmazonS3AsyncBucket(
+                asyncClient,
+                getAwsBucketName(),
+                getAwsMaxKeys(),
+                getAwsMaxPartSize(),
+                getAwsMultipartThreshold(),
+                getAwsSkipMultipart(),
+                new InFlightLimiter(getAwsMaxInFlight())
+            )
+            : bucket;
+
+        final ObjectStore store = Objects.nonNull(rateLimiter)
+            ? new RateLimitedObjectStore(renameStore, rateLimiter, getAwsAsync())
+            : renameStore;
+
+        // objects of every partition remediated on a shared executor, each task bounded by task concurrency
+        final ExecutorService executor = getTaskConcurrency() > 1
+            ? newFixedThreadPool(getParallelism() * getTaskConcurrency())
+            : null;
+
+        // tasks in progress adapt to latency and errors of renames, up to parallelism
+        final AdaptiveConcurrency concurrency = getAdaptiveConcurrency()
+            ? new AdaptiveConcurrency(1, getParallelism(), getAdaptiveInterval() * 1000)
+            : null;
+
+        // lookup table loaded before remediation starts, only read while mapping keys
+        final KeyMapper keys = "lookup".equals(getKeyMapper())
+            ? lookupKeyMapper()
+            : new NssKeyMapper();
+
         final long startTime = nanoTime();
 
         log.info("remediation of S3 bucket {} started", getAwsBucketName());
 
         final Instant start = Instant.now();
 
-        Iterator<List<S3Object>> iterator = s3.iterator();
+        if (getVerifyOnly() && isNotEmpty(getCheckpointPath())) {
+            // verifying only remediates no object, the low-watermark must not advance
+            log.warn("checkpoint is not supported when verifying only, ignoring checkpoint path");
+        }
 
-        new IteratingTaskProcessor<AmazonS3RemediationTask>(getParallelism(), new Iterator<AmazonS3RemediationTask>() {
+        if (isNotEmpty(getInventoryPath()) && isNotEmpty(getCheckpointPath())) {
+            log.warn("checkpoint is not supported when reading inventory, ignoring checkpoint path");
+        }
 
-            @Override
-            public synchronized boolean hasNext() {
-                return iterator.hasNext();
-            }
+        final Checkpoint checkpoint = isNotEmpty(getCheckpointPath()) && !getVerifyOnly() && s3 == bucket
+            ? new FileCheckpoint(getCheckpointPath(), getCheckpointInterval() * 1000)
+            : null;
+
+        Iterator<List<S3Object>> listing = Objects.nonNull(checkpoint)
+            ? bucket.iterator(checkpoint.resume(bucket.ranges()))
+            : s3.iterator();
+
+        Iterator<List<S3Object>> pages = getAwsListPrefetchPages() > 0
+            ? new PrefetchingIterator(
+                listing,
+                getAwsListPrefetchPages(),
+                getAwsListPrefetchMaxObjects(),
+                getAwsListPrefetchMaxBytes()
+            )
+            : listing;
+
+        // listed keys are pending in checkpoint before partitions are re-chunked or reordered
+        Iterator<List<S3Object>> listed = Objects.nonNull(checkpoint)
+            ? new Iterator<List<S3Object>>() {
+
+                @Override
+                public boolean hasNext() {
+                    return pages.hasNext();
+                }
+
+                @Override
+                public List<S3Object> next() {
+                    List<S3Object> objects = pages.next();
+                    checkpoint.listed(objects);
+
+                    return objects;
+                }
 
-            @Override
-            public synchronized AmazonS3RemediationTask next() {
-                ObjectStore store = new AmazonS3Bucket(
-                    getAwsBucketName(),
-                    getAwsMaxKeys(),
-                    getAwsMaxPartSize(),
-                    getAwsMultipartThreshold(),
-                    getAwsSkipMultipart(),
-                    endpointOverride
-                );
-
-                List<S3Object> objects = iterator.next();
-
-                return new AmazonS3RemediationTask(start, store, objects);
             }
+            : pages;
 
-        }, new Callback() {
+        // objects at or above multipart threshold remediated in a lane of their own
+        final LaneSplitter lanes = getLargeLaneParallelism() > 0
+            ? new LaneSplitter(listed, getAwsMultipartThreshold(), getAwsMaxKeys(), getLargeLaneLookahead())
+            : null;
+
+        Iterator<List<S3Object>> partitions = Objects.nonNull(lanes)
+            ? lanes.small()
+            : listed;
+
+        // partitions balanced by bytes, a large object partitioned on its own
+        Iterator<List<S3Object>> iterator = getWorkUnitMaxBytes() > 0
+            ? new WorkUnitIterator(partitions, getWorkUnitMaxBytes(), getWorkUnitMaxObjects())
+            : partitions;
+
+        final Progress progress = getProgressInterval() > 0
+            ? new Progress(getProgressInterval() * 1000)
+            : null;
+
+        if (Objects.nonNull(progress)) {
+            // count concurrently with remediation, progress reports a lower bound until counted
+            final CountCache cache = isNotEmpty(getCountCachePath())
+                ? new CountCache(getCountCachePath(), getCountCacheTtl() * 1000)
+                : null;
+
+            Thread counter = new Thread(() -> {
+                try {
+                    progress.counted(Objects.nonNull(cache)
+                        ? cache.count(s3, progress::counting)
+                        : s3.count(progress::counting));
+                } catch (RuntimeException e) {
+                    log.error("Error while attempting to count objects", e);
+                }
+            }, "count");
+            counter.setDaemon(true);
+            counter.start();
+        }
+
+        // with lanes, remediation completes once both lanes have completed
+        final AtomicInteger running = new AtomicInteger(Objects.nonNull(lanes) ? 2 : 1);
+
+        final Callback callback = new Callback() {
 
             @Override
             public void complete() {
+                if (running.decrementAndGet() > 0) {
+                    return;
+                }
                 log.info("remediation of S3 bucket {} completed in {} milliseconds",
                     getAwsBucketName(), elapsed(startTime));
+                if (Objects.nonNull(lanes)) {
+                    log.info("remediated {} small objects and {} large objects",
+                        lanes.smallObjects(), lanes.largeObjects());
+                }
+                if (Objects.nonNull(checkpoint)) {
+                    checkpoint.save();
+                }
                 s3.close();
+                client.close();
+                if (Objects.nonNull(asyncClient)) {
+                    asyncClient.close();
+                }
+                if (Objects.nonNull(executor)) {
+                    executor.shutdown();
+                }
+            }
+
+        };
+
+        new IteratingTaskProcessor<AmazonS3RemediationTask>(
+            Objects.nonNull(lanes) ? "small" : "task",
+            getParallelism(),
+            tasks(iterator, objects -> AmazonS3RemediationTask.builder(start, store, objects)
+                .checkpoint(checkpoint)
+                .executor(executor)
+                .concurrency(getTaskConcurrency())
+                .controller(concurrency)
+                .keys(keys)
+                .build()),
+            callback,
+            progress,
+            concurrency
+        ).start();
+
+        if (Objects.nonNull(lanes)) {
+            // large objects remediated on threads of their lane, their latency not adapting concurrency
+            new IteratingTaskProcessor<AmazonS3RemediationTask>(
+                "large",
+                getLargeLaneParallelism(),
+                tasks(lanes.large(), objects -> AmazonS3RemediationTask.builder(start, store, objects)
+                    .checkpoint(checkpoint)
+                    .keys(keys)
+                    .build()),
+                callback,
+                progress,
+                null
+            ).start();
+        }
+    }
+
+    private static KeyMapper lookupKeyMapper() {
+        if ("index".equals(getLookupTable())) {
+            MappedLookupTable lookup = new MappedLookupTable(getLookupIndexPath());
+
+            lookup.load();
+
+            return new LookupKeyMapper(lookup);
+        }
+
+        FileLoader loader = new FileLoader(getInputPath(), getInputPattern(), getInputSkip());
+
+        if ("primitive".equals(getLookupTable())) {
+            PrimitiveLookupTable lookup = new PrimitiveLookupTable(
+                loader,
+                getLookupCapacity(),
+                true,
+                getLookupOffHeap()
+            );
+
+            lookup.load();
+
+            return new LookupKeyMapper(lookup);
+        }
+
+        InMemoryLookupTable lookup = new InMemoryLookupTable(loader);
+
+        lookup.load();
+
+        return new LookupKeyMapper(lookup);
+    }
+
+    private static Iterator<AmazonS3RemediationTask> tasks(
+        Iterator<List<S3Object>> partitions,
+        Function<List<S3Object>, AmazonS3RemediationTask> task
+    ) {
+        return new Iterator<AmazonS3RemediationTask>() {
+
+            @Override
+            public synchronized boolean hasNext() {
+                return partitions.hasNext();
+            }
+
+            @Override
+            public synchronized AmazonS3RemediationTask next() {
+                return task.apply(partitions.next());
             }
 
-        }).start();
+        };
     }
 
 }
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.checkpoint;
+
+import edu.harvard.drs.remediation.store.KeyRange;
+import java.util.List;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Checkpoint interface tracking the listing position of key ranges.
+ */
+public interface Checkpoint {
+
+    /**
+     * Resume key ranges after their checkpointed low-watermark key.
+     *
+     * @param ranges key ranges to resume
+     * @return key ranges starting after their low-watermark key
+     */
+    List<KeyRange> resume(List<KeyRange> ranges);
+
+    /**
+     * Record objects as listed. Objects within a key range must be listed in key order.
+     *
+     * @param objects listed objects
+     */
+    void listed(List<S3Object> objects);
+
+    /**
+     * Record objects as completed, advancing the low-watermark key of their key range.
+     *
+     * @param objects completed objects
+     */
+    void completed(List<S3Object> objects);
+
+    /**
+     * Record objects as failed, recording them to be retried and advancing the low-watermark
+     * key of their key range past them as if completed.
+     *
+     * @param objects failed objects
+     */
+    void failed(List<S3Object> objects);
+
+    /**
+     * Save checkpoint.
+     */
+    void save();
+
+}
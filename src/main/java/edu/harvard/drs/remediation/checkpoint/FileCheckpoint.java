@@ -0,0 +1,243 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.checkpoint;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import edu.harvard.drs.remediation.store.KeyRange;
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * File checkpoint persisting the low-watermark key of each key range, below which
+ * every listed object has completed or failed. Each line of the file is a URL encoded key
+ * range start and its low-watermark key separated by a tab. Keys of failed objects are
+ * appended URL encoded to a retry file beside the checkpoint file, so the low-watermark
+ * advances past them and only keys listed after the low-watermark are held in memory.
+ */
+@Slf4j
+public class FileCheckpoint implements Checkpoint {
+
+    private static final String SEPARATOR = "\t";
+
+    private final Path path;
+
+    private final Path retryPath;
+
+    private final long interval;
+
+    private final Map<String, String> watermarks;
+
+    private final Map<KeyRange, TreeMap<String, Boolean>> pending;
+
+    private List<KeyRange> ranges;
+
+    private long saved;
+
+    private boolean dirty;
+
+    /**
+     * File checkpoint constructor.
+     *
+     * @param path     path to checkpoint file
+     * @param interval minimum milliseconds between saves
+     */
+    public FileCheckpoint(String path, long interval) {
+        this.path = Paths.get(path);
+        this.retryPath = this.path.resolveSibling(this.path.getFileName() + ".retry");
+        this.interval = interval;
+        this.watermarks = read(this.path);
+        this.pending = new HashMap<>();
+        this.ranges = Arrays.asList(new KeyRange(null, null));
+        this.saved = System.currentTimeMillis();
+        this.dirty = false;
+    }
+
+    @Override
+    public synchronized List<KeyRange> resume(List<KeyRange> ranges) {
+        this.ranges = new ArrayList<>(ranges);
+        this.pending.clear();
+
+        List<KeyRange> resumed = new ArrayList<>();
+        for (KeyRange range : ranges) {
+            String watermark = watermarks.get(id(range));
+            if (Objects.isNull(watermark) || range.before(watermark)) {
+                resumed.add(range);
+            } else {
+                log.info("resuming key range {} after {}", range, watermark);
+                resumed.add(new KeyRange(watermark, range.getEnd()));
+            }
+        }
+
+        return resumed;
+    }
+
+    @Override
+    public synchronized void listed(List<S3Object> objects) {
+        for (S3Object object : objects) {
+            KeyRange range = range(object.key());
+            if (Objects.nonNull(range)) {
+                pending.computeIfAbsent(range, r -> new TreeMap<>())
+                    .put(object.key(), false);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void completed(List<S3Object> objects) {
+        objects.forEach(this::advance);
+
+        if (dirty && System.currentTimeMillis() - saved >= interval) {
+            save();
+        }
+    }
+
+    @Override
+    public synchronized void failed(List<S3Object> objects) {
+        if (objects.isEmpty()) {
+            return;
+        }
+
+        // retry keys are recorded before the low-watermark may be saved past them
+        List<String> lines = objects.stream()
+            .map(object -> encode(object.key()))
+            .collect(Collectors.toList());
+        try {
+            Files.write(retryPath, lines, UTF_8, CREATE, APPEND);
+        } catch (IOException e) {
+            log.error("Error while attempting to record checkpoint retries", e);
+        }
+
+        completed(objects);
+    }
+
+    @Override
+    public synchronized void save() {
+        if (!dirty) {
+            return;
+        }
+
+        List<String> lines = new TreeSet<>(watermarks.keySet()).stream()
+            .map(id -> encode(id) + SEPARATOR + encode(watermarks.get(id)))
+            .collect(Collectors.toList());
+
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, lines, UTF_8);
+            Files.move(temp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+            saved = System.currentTimeMillis();
+            dirty = false;
+            log.debug("checkpoint saved with {} key ranges to {}", lines.size(), path);
+        } catch (IOException e) {
+            log.error("Error while attempting to save checkpoint", e);
+        }
+    }
+
+    /**
+     * Number of listed keys held until the low-watermark advances past them.
+     *
+     * @return number of pending keys
+     */
+    synchronized int pending() {
+        return pending.values().stream()
+            .mapToInt(TreeMap::size)
+            .sum();
+    }
+
+    private void advance(S3Object object) {
+        KeyRange range = range(object.key());
+        TreeMap<String, Boolean> keys = pending.get(range);
+        if (Objects.nonNull(keys) && keys.containsKey(object.key())) {
+            keys.put(object.key(), true);
+            // advance low-watermark through leading completed keys
+            while (!keys.isEmpty() && keys.firstEntry().getValue()) {
+                watermarks.put(id(range), keys.pollFirstEntry().getKey());
+                dirty = true;
+            }
+        }
+    }
+
+    private KeyRange range(String key) {
+        // ranges are contiguous and ordered, find last range starting before key
+        int low = 0;
+        int high = ranges.size() - 1;
+        KeyRange found = null;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            KeyRange range = ranges.get(middle);
+            if (range.before(key)) {
+                high = middle - 1;
+            } else {
+                found = range;
+                low = middle + 1;
+            }
+        }
+
+        return Objects.nonNull(found) && found.contains(key) ? found : null;
+    }
+
+    private static String id(KeyRange range) {
+        return Objects.toString(range.getStartAfter(), "");
+    }
+
+    private static Map<String, String> read(Path path) {
+        Map<String, String> watermarks = new HashMap<>();
+        if (Files.exists(path)) {
+            try {
+                for (String line : Files.readAllLines(path, UTF_8)) {
+                    String[] parts = line.split(SEPARATOR, -1);
+                    if (parts.length == 2) {
+                        watermarks.put(decode(parts[0]), decode(parts[1]));
+                    }
+                }
+                log.info("checkpoint loaded with {} key ranges from {}", watermarks.size(), path);
+            } catch (IOException e) {
+                throw new RuntimeException("Failed to read checkpoint", e);
+            }
+        }
+
+        return watermarks;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, UTF_8);
+    }
+
+}
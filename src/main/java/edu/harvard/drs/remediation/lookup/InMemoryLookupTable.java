@@ -61,6 +61,11 @@ public class InMemoryLookupTable implements LookupTable<String, String> {
         return InMemoryMap.get(key);
     }
 
+    @Override
+    public String reverse(String value) {
+        return InMemoryMap.reverse(value);
+    }
+
     @Override
     public int size() {
         return InMemoryMap.size();
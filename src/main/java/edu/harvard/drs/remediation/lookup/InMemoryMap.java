@@ -20,12 +20,15 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 /**
- * In memory map for thread-safe operations.
+ * In memory map for thread-safe operations, with a reverse map of value to the last key
+ * put with it.
  */
 public final class InMemoryMap {
 
     private static final Map<String, String> MAP = new ConcurrentHashMap<>();
 
+    private static final Map<String, String> REVERSE = new ConcurrentHashMap<>();
+
     private InMemoryMap() { }
 
     /**
@@ -35,7 +38,11 @@ public final class InMemoryMap {
      * @param value value for key
      */
     public static void put(String key, String value) {
-        MAP.put(key, value);
+        String previous = MAP.put(key, value);
+        if (previous != null && !previous.equals(value)) {
+            REVERSE.remove(previous, key);
+        }
+        REVERSE.put(value, key);
     }
 
     /**
@@ -48,6 +55,16 @@ public final class InMemoryMap {
         return MAP.get(key);
     }
 
+    /**
+     * Get key of value.
+     *
+     * @param value value of key
+     * @return last key put with value
+     */
+    public static String reverse(String value) {
+        return REVERSE.get(value);
+    }
+
     /**
      * Get size of the in memory map.
      *
@@ -62,6 +79,7 @@ public final class InMemoryMap {
      */
     public static void clear() {
         MAP.clear();
+        REVERSE.clear();
     }
 
 }
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+/**
+ * Lookup table of non-negative long keys to non-negative long values, retrieving values
+ * without allocating. Keys and values are also available as decimal strings.
+ */
+public interface LongLookupTable extends ReadableLookupTable<String, String> {
+
+    /**
+     * Value of absent key.
+     */
+    long NO_VALUE = -1L;
+
+    /**
+     * Retrieve value for key.
+     *
+     * @param key lookup key
+     * @return value at key, or NO_VALUE when absent
+     */
+    long get(long key);
+
+    /**
+     * Retrieve a key of value.
+     *
+     * @param value value of lookup key
+     * @return a key of value, or NO_VALUE when absent
+     */
+    long reverse(long value);
+
+}
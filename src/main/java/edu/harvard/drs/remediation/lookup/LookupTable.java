@@ -19,12 +19,7 @@ package edu.harvard.drs.remediation.lookup;
 /**
  * Lookup table interface.
  */
-public interface LookupTable<K, V> {
-
-    /**
-     * Load lookup map.
-     */
-    void load();
+public interface LookupTable<K, V> extends ReadableLookupTable<K, V> {
 
     /**
      * Add key value pair in lookup map.
@@ -34,24 +29,4 @@ public interface LookupTable<K, V> {
      */
     void set(K key, V value);
 
-    /**
-     * Retrieve value for key.
-     *
-     * @param key lookup key
-     * @return value at key
-     */
-    V get(K key);
-
-    /**
-     * Size of lookup table.
-     *
-     * @return size of lookup table
-     */
-    int size();
-
-    /**
-     * Unload lookup table.
-     */
-    void unload();
-
 }
@@ -0,0 +1,238 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+import static edu.harvard.drs.remediation.utility.TimeUtils.elapsed;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import edu.harvard.drs.remediation.loader.Loader;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Memory mapped lookup table of DRS object id to URN NSS, reading a binary index file
+ * built ahead of time from the dump. The index is a header of a magic number and record
+ * counts followed by fixed width records of id and NSS, as big endian longs, sorted by id,
+ * then reverse records of each distinct NSS and its last id, sorted by NSS. Loading maps
+ * the file read only rather than parsing the dump, so the table lives in the OS page
+ * cache outside the heap, shared by every JVM on the host mapping the same index, and a
+ * lookup or reverse lookup is a branch-light binary search of the mapped records.
+ */
+@Slf4j
+public class MappedLookupTable implements LongLookupTable {
+
+    static final long MAGIC = 0x4452534C4F4F4B32L;
+
+    static final int HEADER_BYTES = 3 * Long.BYTES;
+
+    static final int RECORD_BYTES = 2 * Long.BYTES;
+
+    private final Path path;
+
+    private volatile ByteBuffer records;
+
+    private volatile int count;
+
+    private volatile int reverseCount;
+
+    /**
+     * Memory mapped lookup table constructor.
+     *
+     * @param path path to lookup index file
+     */
+    public MappedLookupTable(String path) {
+        this.path = Paths.get(path);
+        this.records = null;
+        this.count = 0;
+        this.reverseCount = 0;
+    }
+
+    /**
+     * Build lookup index file of entries of loader. Entries are deduplicated by id, the
+     * last entry of an id winning as when loaded into a lookup table, and sorted by id,
+     * followed by reverse records of each NSS and its last id, sorted by NSS. The index is
+     * written beside the path and moved into place once complete.
+     *
+     * @param loader loader of DRS object id to URN NSS entries
+     * @param path   path to lookup index file
+     * @return number of records written
+     */
+    public static int build(Loader<String, String> loader, String path) {
+        final long startTime = System.nanoTime();
+
+        PrimitiveLookupTable table = new PrimitiveLookupTable(loader, PrimitiveLookupTable.DEFAULT_CAPACITY, true,
+            false);
+        table.load();
+
+        long[] ids = table.keys();
+        Arrays.sort(ids);
+
+        long[] values = table.values();
+        Arrays.sort(values);
+
+        Path index = Paths.get(path);
+        Path temp = index.resolveSibling(index.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeLong(MAGIC);
+            out.writeLong(ids.length);
+            out.writeLong(values.length);
+            for (long id : ids) {
+                out.writeLong(id);
+                out.writeLong(table.get(id));
+            }
+            for (long value : values) {
+                out.writeLong(value);
+                out.writeLong(table.reverse(value));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to build lookup index", e);
+        }
+        try {
+            Files.move(temp, index, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to build lookup index", e);
+        }
+
+        log.info("{} records written to lookup index '{}' in {} milliseconds", ids.length, index, elapsed(startTime));
+
+        return ids.length;
+    }
+
+    @Override
+    public void load() {
+        long startTime = System.nanoTime();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("Lookup index exceeds 2 GiB");
+            }
+            ByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < HEADER_BYTES || mapped.getLong(0) != MAGIC) {
+                throw new IllegalStateException("Not a lookup index '" + path + "'");
+            }
+            long entries = mapped.getLong(Long.BYTES);
+            long reverseEntries = mapped.getLong(2 * Long.BYTES);
+            if (entries < 0 || reverseEntries < 0 || entries + reverseEntries != (size - HEADER_BYTES) / RECORD_BYTES
+                || (size - HEADER_BYTES) % RECORD_BYTES != 0) {
+                throw new IllegalStateException("Truncated lookup index '" + path + "'");
+            }
+            this.records = mapped;
+            this.count = (int) entries;
+            this.reverseCount = (int) reverseEntries;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to load lookup index", e);
+        }
+
+        log.info("{} key value pairs mapped from lookup index '{}'", count, path);
+        log.debug("{} milliseconds to map lookup index", elapsed(startTime));
+    }
+
+    @Override
+    public String get(String key) {
+        long value = get(parse(key));
+
+        return value == NO_VALUE ? null : Long.toString(value);
+    }
+
+    @Override
+    public long get(long key) {
+        ByteBuffer records = this.records;
+
+        return Objects.isNull(records) ? NO_VALUE : search(records, 0, this.count, key);
+    }
+
+    @Override
+    public String reverse(String value) {
+        long key = reverse(parse(value));
+
+        return key == NO_VALUE ? null : Long.toString(key);
+    }
+
+    @Override
+    public long reverse(long value) {
+        ByteBuffer records = this.records;
+
+        return Objects.isNull(records) ? NO_VALUE : search(records, this.count, this.reverseCount, value);
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void unload() {
+        // mapping is released once the buffer is collected
+        this.records = null;
+        this.count = 0;
+        this.reverseCount = 0;
+    }
+
+    /**
+     * Value of the record of key among count records from offset, NO_VALUE when absent.
+     */
+    private static long search(ByteBuffer records, int offset, int count, long key) {
+        if (count == 0 || key < 0) {
+            return NO_VALUE;
+        }
+
+        // halve the range each step without branching on the comparison
+        int base = offset;
+        int n = count;
+        while (n > 1) {
+            int half = n >>> 1;
+            base = key(records, base + half) <= key ? base + half : base;
+            n -= half;
+        }
+
+        return key(records, base) == key
+            ? records.getLong(HEADER_BYTES + base * RECORD_BYTES + Long.BYTES)
+            : NO_VALUE;
+    }
+
+    private static long key(ByteBuffer records, int index) {
+        return records.getLong(HEADER_BYTES + index * RECORD_BYTES);
+    }
+
+    /**
+     * Parse decimal string as key, NO_VALUE when not the canonical decimal of a non-negative long.
+     */
+    private static long parse(String key) {
+        if (Objects.isNull(key) || key.isEmpty() || key.charAt(0) == '+' || key.charAt(0) == '-'
+            || (key.charAt(0) == '0' && key.length() > 1)) {
+            return NO_VALUE;
+        }
+        try {
+            return Long.parseLong(key);
+        } catch (NumberFormatException e) {
+            return NO_VALUE;
+        }
+    }
+
+}
@@ -0,0 +1,353 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+import static edu.harvard.drs.remediation.utility.RuntimeUtils.totalMemory;
+import static edu.harvard.drs.remediation.utility.TimeUtils.elapsed;
+
+import edu.harvard.drs.remediation.loader.Loader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.util.Objects;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Primitive lookup table of DRS object id to URN NSS, both parsed as longs, in an open
+ * addressing hash table with linear probing. Each key and its value are adjacent longs of
+ * a single buffer, on heap or off heap, so an entry costs 16 bytes per slot rather than a
+ * map node and two strings, and a lookup reads the buffer alone. Optionally keeps a
+ * reverse index of URN NSS to DRS object id. Overwriting the value of a key removes the
+ * previous value from the reverse index, and of keys set to the same value the reverse
+ * index keeps the last set.
+ *
+ * <p>
+ * Writes are synchronized, reads are not. Load before reading concurrently, a read
+ * concurrent with a write may miss the entry being written.
+ * </p>
+ */
+@Slf4j
+public class PrimitiveLookupTable implements LongLookupTable, LookupTable<String, String> {
+
+    static final int DEFAULT_CAPACITY = 1 << 16;
+
+    private final Loader<String, String> loader;
+
+    private final int capacity;
+
+    private final boolean reverse;
+
+    private final boolean offHeap;
+
+    private volatile Slots forward;
+
+    private volatile Slots backward;
+
+    /**
+     * Primitive lookup table constructor, on heap without reverse index.
+     *
+     * @param loader loader in which to load lookup table
+     */
+    public PrimitiveLookupTable(Loader<String, String> loader) {
+        this(loader, DEFAULT_CAPACITY, false, false);
+    }
+
+    /**
+     * Primitive lookup table constructor.
+     *
+     * @param loader   loader in which to load lookup table
+     * @param capacity expected number of entries, the table grows beyond it
+     * @param reverse  whether to keep a reverse index of value to key
+     * @param offHeap  whether to allocate the table in direct memory off heap
+     */
+    public PrimitiveLookupTable(Loader<String, String> loader, int capacity, boolean reverse, boolean offHeap) {
+        this.loader = loader;
+        this.capacity = capacity;
+        this.reverse = reverse;
+        this.offHeap = offHeap;
+        this.forward = Slots.of(capacity, offHeap);
+        this.backward = reverse ? Slots.of(capacity, offHeap) : null;
+    }
+
+    @Override
+    public void load() {
+        long startTime = System.nanoTime();
+
+        loader.load()
+            .forEach(e -> set(e.getKey(), e.getValue()));
+
+        log.info("{} key value pairs loaded into {}", size(), offHeap ? "direct memory" : "memory");
+        log.debug("{} milliseconds to load primitive lookup table", elapsed(startTime));
+        log.debug("{} GiB total memory used after loading lookup table", totalMemory());
+    }
+
+    @Override
+    public void set(String key, String value) throws NumberFormatException {
+        set(Long.parseLong(key), Long.parseLong(value));
+    }
+
+    /**
+     * Add key value pair in lookup table.
+     *
+     * @param key   non-negative lookup key
+     * @param value non-negative value for key
+     */
+    public synchronized void set(long key, long value) {
+        if (key < 0 || value < 0) {
+            throw new IllegalArgumentException("Key and value must not be negative");
+        }
+        if (reverse) {
+            long previous = forward.get(key);
+            if (previous != NO_VALUE && previous != value && backward.get(previous) == key) {
+                backward.remove(previous);
+            }
+            backward = backward.put(value, key);
+        }
+        forward = forward.put(key, value);
+    }
+
+    @Override
+    public String get(String key) {
+        long value = get(parse(key));
+
+        return value == NO_VALUE ? null : Long.toString(value);
+    }
+
+    @Override
+    public long get(long key) {
+        return key < 0 ? NO_VALUE : forward.get(key);
+    }
+
+    /**
+     * Retrieve key of value from reverse index.
+     *
+     * @param value value of lookup key
+     * @return key of value, null when absent
+     * @throws IllegalStateException lookup table without reverse index
+     */
+    @Override
+    public String reverse(String value) throws IllegalStateException {
+        long key = reverse(parse(value));
+
+        return key == NO_VALUE ? null : Long.toString(key);
+    }
+
+    /**
+     * Retrieve key of value from reverse index.
+     *
+     * @param value value of lookup key
+     * @return key of value, or NO_VALUE when absent
+     * @throws IllegalStateException lookup table without reverse index
+     */
+    @Override
+    public long reverse(long value) throws IllegalStateException {
+        if (!reverse) {
+            throw new IllegalStateException("Lookup table has no reverse index");
+        }
+
+        return value < 0 ? NO_VALUE : backward.get(value);
+    }
+
+    @Override
+    public int size() {
+        return forward.size;
+    }
+
+    /**
+     * Keys of lookup table, in no particular order.
+     *
+     * @return keys
+     */
+    synchronized long[] keys() {
+        return forward.keys();
+    }
+
+    /**
+     * Values of reverse index, in no particular order.
+     *
+     * @return distinct values
+     * @throws IllegalStateException lookup table without reverse index
+     */
+    synchronized long[] values() throws IllegalStateException {
+        if (!reverse) {
+            throw new IllegalStateException("Lookup table has no reverse index");
+        }
+
+        return backward.keys();
+    }
+
+    @Override
+    public synchronized void unload() {
+        forward = Slots.of(capacity, offHeap);
+        backward = reverse ? Slots.of(capacity, offHeap) : null;
+    }
+
+    /**
+     * Parse decimal string as key, NO_VALUE when not the canonical decimal of a non-negative long.
+     */
+    private static long parse(String key) {
+        if (Objects.isNull(key) || key.isEmpty() || key.length() > 19 || key.charAt(0) == '+') {
+            return NO_VALUE;
+        }
+        try {
+            long value = Long.parseLong(key);
+
+            return value < 0 || (key.charAt(0) == '0' && key.length() > 1) ? NO_VALUE : value;
+        } catch (NumberFormatException e) {
+            return NO_VALUE;
+        }
+    }
+
+    /**
+     * Open addressing slots of adjacent keys and values. Empty slots have key NO_VALUE.
+     */
+    private static final class Slots {
+
+        private static final long MAX_CAPACITY = 1L << 29;
+
+        private static final long MAX_DIRECT_CAPACITY = 1L << 26;
+
+        private final LongBuffer slots;
+
+        private final int mask;
+
+        private final int shift;
+
+        private final boolean offHeap;
+
+        private int size;
+
+        private Slots(int capacity, boolean offHeap) {
+            this.slots = offHeap
+                ? ByteBuffer.allocateDirect(capacity * 2 * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer()
+                : LongBuffer.wrap(new long[capacity * 2]);
+            this.mask = capacity - 1;
+            this.shift = Long.SIZE - Integer.numberOfTrailingZeros(capacity);
+            this.offHeap = offHeap;
+            this.size = 0;
+            for (int i = 0; i < capacity; i++) {
+                slots.put(i << 1, NO_VALUE);
+            }
+        }
+
+        /**
+         * Power of two number of slots holding expected entries below load factor of 3/4.
+         */
+        private static Slots of(long expected, boolean offHeap) {
+            long minimum = Math.max(16L, (long) Math.ceil(Math.max(0L, expected) / 0.75));
+            long capacity = Long.highestOneBit(minimum - 1) << 1;
+            if (capacity > (offHeap ? MAX_DIRECT_CAPACITY : MAX_CAPACITY)) {
+                throw new IllegalStateException("Lookup table capacity exceeded");
+            }
+
+            return new Slots((int) capacity, offHeap);
+        }
+
+        private long get(long key) {
+            int i = index(key);
+            long current;
+            while ((current = slots.get(i << 1)) != NO_VALUE) {
+                if (current == key) {
+                    return slots.get((i << 1) + 1);
+                }
+                i = (i + 1) & mask;
+            }
+
+            return NO_VALUE;
+        }
+
+        private long[] keys() {
+            long[] keys = new long[size];
+            int k = 0;
+            for (int i = 0; i <= mask; i++) {
+                long key = slots.get(i << 1);
+                if (key != NO_VALUE) {
+                    keys[k++] = key;
+                }
+            }
+
+            return keys;
+        }
+
+        /**
+         * Put key value pair, returning slots grown when at load factor of 3/4.
+         */
+        private Slots put(long key, long value) {
+            int i = index(key);
+            long current;
+            while ((current = slots.get(i << 1)) != NO_VALUE) {
+                if (current == key) {
+                    slots.put((i << 1) + 1, value);
+                    return this;
+                }
+                i = (i + 1) & mask;
+            }
+            if (size + 1 > (mask + 1) / 4 * 3) {
+                Slots grown = Slots.of((long) size * 2, offHeap);
+                for (int j = 0; j <= mask; j++) {
+                    long k = slots.get(j << 1);
+                    if (k != NO_VALUE) {
+                        grown.put(k, slots.get((j << 1) + 1));
+                    }
+                }
+
+                return grown.put(key, value);
+            }
+            slots.put(i << 1, key);
+            slots.put((i << 1) + 1, value);
+            size++;
+
+            return this;
+        }
+
+        /**
+         * Remove key, shifting back entries of its probe sequence so none follows an empty slot.
+         */
+        private void remove(long key) {
+            int i = index(key);
+            long current;
+            while ((current = slots.get(i << 1)) != key) {
+                if (current == NO_VALUE) {
+                    return;
+                }
+                i = (i + 1) & mask;
+            }
+            int j = i;
+            long k;
+            while ((k = slots.get((j = (j + 1) & mask) << 1)) != NO_VALUE) {
+                // entry may fill the empty slot when its home slot is not after the empty slot
+                int home = index(k);
+                if (((j - home) & mask) >= ((j - i) & mask)) {
+                    slots.put(i << 1, k);
+                    slots.put((i << 1) + 1, slots.get((j << 1) + 1));
+                    i = j;
+                }
+            }
+            slots.put(i << 1, NO_VALUE);
+            size--;
+        }
+
+        /**
+         * Slot of key, from high bits of its Fibonacci hash.
+         */
+        private int index(long key) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        }
+
+    }
+
+}
@@ -0,0 +1,413 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+
+/**
+ * Amazon S3 object store implementation on the asynchronous client scoped to a specific
+ * bucket. Copy, etag verification and delete of a rename are chained completion stages
+ * and every request is submitted through an in flight limiter shared across stores.
+ */
+@Slf4j
+public class AmazonS3AsyncBucket implements ObjectStore {
+
+    private final S3AsyncClient s3;
+
+    private final String bucketName;
+
+    private final int maxKeys;
+
+    private final AmazonS3Requests requests;
+
+    private final InFlightLimiter limiter;
+
+    private final boolean shared;
+
+    /**
+     * Amazon S3 asynchronous bucket object store constructor.
+     *
+     * @param bucketName         AWS bucket name
+     * @param maxKeys            max keys for listing objects
+     * @param maxPartSize        part size for multipart copy, grown to target part count
+     * @param multipartThreshold multipart threshold
+     * @param skipMultipart      whether to skip multipart
+     * @param endpointOverride   AWS endpoint override
+     * @param limiter            limiter of requests in flight
+     */
+    public AmazonS3AsyncBucket(
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart,
+        String endpointOverride,
+        InFlightLimiter limiter
+    ) {
+        this(AmazonS3Clients.asyncClient(endpointOverride, limiter.limit()), bucketName, maxKeys, maxPartSize,
+            multipartThreshold, skipMultipart, limiter, false);
+    }
+
+    /**
+     * Amazon S3 asynchronous bucket object store constructor with shared client. Closing
+     * the object store does not close the shared client.
+     *
+     * @param s3                 shared S3 asynchronous client
+     * @param bucketName         AWS bucket name
+     * @param maxKeys            max keys for listing objects
+     * @param maxPartSize        part size for multipart copy, grown to target part count
+     * @param multipartThreshold multipart threshold
+     * @param skipMultipart      whether to skip multipart
+     * @param limiter            limiter of requests in flight
+     */
+    public AmazonS3AsyncBucket(
+        S3AsyncClient s3,
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart,
+        InFlightLimiter limiter
+    ) {
+        this(s3, bucketName, maxKeys, maxPartSize, multipartThreshold, skipMultipart, limiter, true);
+    }
+
+    private AmazonS3AsyncBucket(
+        S3AsyncClient s3,
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart,
+        InFlightLimiter limiter,
+        boolean shared
+    ) {
+        this.s3 = s3;
+        this.bucketName = bucketName;
+        this.maxKeys = maxKeys;
+        this.requests = new AmazonS3Requests(bucketName, maxPartSize, multipartThreshold, skipMultipart);
+        this.limiter = limiter;
+        this.shared = shared;
+    }
+
+    @Override
+    public int count() {
+        int count = 0;
+        Iterator<List<S3Object>> iterator = iterator();
+        while (iterator.hasNext()) {
+            count += iterator.next().size();
+        }
+
+        return count;
+    }
+
+    @Override
+    public Iterator<List<S3Object>> iterator() {
+        log.info("iterator of objects in bucket {}", bucketName);
+
+        return new Iterator<List<S3Object>>() {
+
+            private ListObjectsV2Response page;
+
+            private List<S3Object> next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null && (page == null || page.isTruncated())) {
+                    page = list(page == null ? null : page.nextContinuationToken()).join();
+                    if (!page.contents().isEmpty()) {
+                        next = page.contents();
+                    }
+                }
+
+                return next != null;
+            }
+
+            @Override
+            public List<S3Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<S3Object> objects = next;
+                next = null;
+
+                return objects;
+            }
+
+        };
+    }
+
+    @Override
+    public int rename(S3Object source, String destinationKey) {
+        return renameAsync(source, destinationKey).join();
+    }
+
+    @Override
+    public CompletableFuture<Integer> renameAsync(S3Object source, String destinationKey) {
+        return copyAsync(source, destinationKey)
+            .thenCompose(copyResult -> {
+                if (copyResult != 0) {
+                    return completedFuture(copyResult);
+                }
+
+                return deleteObject(source)
+                    .handle((deleted, error) -> {
+                        if (error != null) {
+                            log.error("Error while attempting to delete object", unwrap(error));
+                            return -1;
+                        }
+
+                        return 0;
+                    });
+            });
+    }
+
+    @Override
+    public int copy(S3Object source, String destinationKey) {
+        return copyAsync(source, destinationKey).join();
+    }
+
+    @Override
+    public CompletableFuture<Integer> copyAsync(S3Object source, String destinationKey) {
+        CompletableFuture<Integer> copy;
+        try {
+            if (!requests.multipart(source)) {
+                copy = copyObject(source, destinationKey);
+            } else {
+                copy = requests.skipMultipart() ? completedFuture(1) : multiPartCopy(source, destinationKey);
+            }
+        } catch (RuntimeException e) {
+            copy = CompletableFuture.failedFuture(e);
+        }
+
+        return copy.handle((copyResult, error) -> {
+            if (error != null) {
+                log.error("Error while attempting to copy object", unwrap(error));
+                return -1;
+            }
+            if (copyResult == 0) {
+                log.debug("copy success: source object {} to destination object {}",
+                    source.key(), destinationKey);
+            }
+
+            return copyResult;
+        });
+    }
+
+    @Override
+    public int copyRequests(S3Object source) {
+        return requests.copyRequests(source);
+    }
+
+    @Override
+    public Set<String> delete(List<S3Object> objects) {
+        List<CompletableFuture<List<String>>> batches = new ArrayList<>();
+        for (List<S3Object> batch : requests.deleteBatches(objects)) {
+            DeleteObjectsRequest deleteObjectsRequest = requests.deleteObjects(batch);
+
+            batches.add(limiter.submit(() -> s3.deleteObjects(deleteObjectsRequest))
+                .handle((response, error) -> {
+                    if (error != null) {
+                        log.error("Error while attempting to delete objects", unwrap(error));
+                        return batch.stream()
+                            .map(S3Object::key)
+                            .collect(Collectors.toList());
+                    }
+
+                    return response.errors()
+                        .stream()
+                        .peek(e -> log.error("delete failure: object {} {} {}", e.key(), e.code(), e.message()))
+                        .map(S3Error::key)
+                        .collect(Collectors.toList());
+                }));
+        }
+
+        return batches.stream()
+            .map(CompletableFuture::join)
+            .flatMap(List::stream)
+            .collect(Collectors.toSet());
+    }
+
+    @Override
+    public void close() {
+        if (shared) {
+            return;
+        }
+        try {
+            this.s3.close();
+        } catch (Exception e) {
+            log.error("Error while attempting to close s3 client", e);
+        }
+    }
+
+    private CompletableFuture<ListObjectsV2Response> list(String continuationToken) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(this.bucketName)
+            .maxKeys(this.maxKeys)
+            .continuationToken(continuationToken)
+            .build();
+
+        return limiter.submit(() -> s3.listObjectsV2(request));
+    }
+
+    private CompletableFuture<Integer> copyObject(S3Object source, String destinationKey) {
+        CopyObjectRequest copyObjectRequest = requests.copyObject(source, destinationKey);
+
+        return limiter.submit(() -> s3.copyObject(copyObjectRequest))
+            .thenApply(response -> AmazonS3Requests.verifyEtag(source, response.copyObjectResult().eTag()));
+    }
+
+    private CompletableFuture<Integer> multiPartCopy(S3Object source, String destinationKey) {
+        if (requests.preserve(source)) {
+            return sourceParts(source)
+                .thenCompose(parts -> parts.isEmpty()
+                    ? completedFuture(-2)
+                    : multiPartCopy(source, destinationKey, parts)
+                        .thenApply(destinationEtag -> AmazonS3Requests.verifyEtag(source, destinationEtag)));
+        }
+
+        List<ObjectPart> parts = requests.plan(source);
+
+        return multiPartCopy(source, destinationKey, parts)
+            .thenApply(destinationEtag -> AmazonS3Requests.verifyPartCount(destinationEtag, parts.size()));
+    }
+
+    private CompletableFuture<String> multiPartCopy(S3Object source, String destinationKey, List<ObjectPart> parts) {
+        CreateMultipartUploadRequest createRequest = requests.createMultipartUpload(destinationKey);
+
+        return limiter.submit(() -> s3.createMultipartUpload(createRequest))
+            .thenCompose(createResponse -> {
+                String uploadId = createResponse.uploadId();
+
+                List<CompletableFuture<CompletedPart>> partFutures = parts.stream()
+                    .map(part -> copyPart(source, destinationKey, uploadId, part))
+                    .collect(Collectors.toList());
+
+                return CompletableFuture.allOf(partFutures.toArray(new CompletableFuture[0]))
+                    .thenCompose(v -> {
+                        // part futures are in part number order
+                        List<CompletedPart> completedParts = partFutures.stream()
+                            .map(CompletableFuture::join)
+                            .collect(Collectors.toList());
+
+                        CompleteMultipartUploadRequest completeRequest = requests.completeMultipartUpload(
+                            destinationKey, uploadId, completedParts);
+
+                        return limiter.submit(() -> s3.completeMultipartUpload(completeRequest));
+                    })
+                    .handle((completeResponse, error) -> {
+                        if (error == null) {
+                            return completedFuture(completeResponse);
+                        }
+
+                        // every part has settled, copied parts are not left behind
+                        return abortUpload(destinationKey, uploadId)
+                            .thenCompose(v -> CompletableFuture.<CompleteMultipartUploadResponse>failedFuture(error));
+                    })
+                    .thenCompose(Function.identity());
+            })
+            .thenApply(completeResponse -> completeResponse.eTag());
+    }
+
+    private CompletableFuture<Void> abortUpload(String destinationKey, String uploadId) {
+        AbortMultipartUploadRequest abortRequest = requests.abortMultipartUpload(destinationKey, uploadId);
+
+        return limiter.submit(() -> s3.abortMultipartUpload(abortRequest))
+            .handle((response, error) -> {
+                if (error != null) {
+                    log.error("Error while attempting to abort multipart upload", unwrap(error));
+                } else {
+                    log.debug("aborted upload {} of destination object {}", uploadId, destinationKey);
+                }
+
+                return null;
+            });
+    }
+
+    private CompletableFuture<List<ObjectPart>> sourceParts(S3Object source) {
+        return requests.sourceParts(source, numbers -> {
+            List<CompletableFuture<Long>> partLengths = numbers.stream()
+                .map(number -> headPart(source, number))
+                .collect(Collectors.toList());
+
+            return CompletableFuture.allOf(partLengths.toArray(new CompletableFuture[0]))
+                .thenApply(v -> partLengths.stream()
+                    .map(CompletableFuture::join)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    private CompletableFuture<Long> headPart(S3Object source, int partNumber) {
+        HeadObjectRequest headObjectRequest = requests.headPart(source, partNumber);
+
+        return limiter.submit(() -> s3.headObject(headObjectRequest))
+            .thenApply(response -> response.contentLength());
+    }
+
+    private CompletableFuture<CompletedPart> copyPart(
+        S3Object source,
+        String destinationKey,
+        String uploadId,
+        ObjectPart part
+    ) {
+        UploadPartCopyRequest partRequest = requests.uploadPartCopy(source, destinationKey, uploadId, part);
+
+        return limiter.submit(() -> s3.uploadPartCopy(partRequest))
+            .thenApply(partResponse -> requests.completedPart(part, partResponse.copyPartResult().eTag()));
+    }
+
+    private CompletableFuture<Void> deleteObject(S3Object object) {
+        DeleteObjectRequest deleteObjectRequest = requests.deleteObject(object);
+
+        return limiter.submit(() -> s3.deleteObject(deleteObjectRequest))
+            .thenApply(response -> null);
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        return error instanceof CompletionException && Objects.nonNull(error.getCause())
+            ? error.getCause()
+            : error;
+    }
+
+}
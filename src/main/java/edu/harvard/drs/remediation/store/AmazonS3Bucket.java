@@ -16,38 +16,54 @@
 
 package edu.harvard.drs.remediation.store;
 
-import static java.lang.Integer.parseInt;
-import static java.lang.String.format;
-import static org.apache.commons.lang3.StringUtils.removeEnd;
-import static org.apache.commons.lang3.StringUtils.removeStart;
-
-import java.net.URI;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListShards;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListSkipRemediated;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsPartRetries;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsPartRetryBackoff;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getUploadJournalPath;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+import static org.apache.commons.lang3.StringUtils.isNotEmpty;
+
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 import lombok.extern.slf4j.Slf4j;
 import software.amazon.awssdk.core.exception.SdkClientException;
 import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.S3ClientBuilder;
-import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
-import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
 import software.amazon.awssdk.services.s3.model.CompletedPart;
-import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
 import software.amazon.awssdk.services.s3.model.CopyObjectResponse;
-import software.amazon.awssdk.services.s3.model.CopyObjectResult;
-import software.amazon.awssdk.services.s3.model.CopyPartResult;
-import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
 import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsResponse;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.NoSuchUploadException;
+import software.amazon.awssdk.services.s3.model.Part;
+import software.amazon.awssdk.services.s3.model.S3Error;
 import software.amazon.awssdk.services.s3.model.S3Exception;
 import software.amazon.awssdk.services.s3.model.S3Object;
-import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
 import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse;
 import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
 
@@ -63,18 +79,26 @@ public class AmazonS3Bucket implements ObjectStore {
 
     private final int maxKeys;
 
-    private final long maxPartSize;
+    private final AmazonS3Requests requests;
+
+    private final int listShards;
+
+    private final boolean listSkipRemediated;
 
-    private final long multipartThreshold;
+    private final PartCopyScheduler partCopy;
 
-    private final boolean skipMultipart;
+    private final PartRetry partRetry;
+
+    private final UploadJournal journal;
+
+    private final boolean shared;
 
     /**
      * Amazon S3 bucket object store constructor.
      *
      * @param bucketName         AWS bucket name
      * @param maxKeys            max keys for listing objects
-     * @param maxPartSize        max part size for multipart upload
+     * @param maxPartSize        part size for multipart copy, grown to target part count
      * @param multipartThreshold multipart threshold
      * @param skipMultipart      whether to skip multipart
      * @param endpointOverride   AWS endpoint override
@@ -87,82 +111,278 @@ public class AmazonS3Bucket implements ObjectStore {
         boolean skipMultipart,
         String endpointOverride
     ) {
-        S3ClientBuilder builder = S3Client.builder();
-        if (Objects.nonNull(endpointOverride)) {
-            builder = builder.endpointOverride(URI.create(endpointOverride));
-        }
-        this.s3 = builder.build();
+        this(AmazonS3Clients.client(endpointOverride), bucketName, maxKeys, maxPartSize, multipartThreshold,
+            skipMultipart, journal(), false);
+    }
+
+    /**
+     * Amazon S3 bucket object store constructor with shared client. Closing the object
+     * store does not close the shared client.
+     *
+     * @param s3                 shared S3 client
+     * @param bucketName         AWS bucket name
+     * @param maxKeys            max keys for listing objects
+     * @param maxPartSize        part size for multipart copy, grown to target part count
+     * @param multipartThreshold multipart threshold
+     * @param skipMultipart      whether to skip multipart
+     */
+    public AmazonS3Bucket(
+        S3Client s3,
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart
+    ) {
+        this(s3, bucketName, maxKeys, maxPartSize, multipartThreshold, skipMultipart, journal(), true);
+    }
+
+    /**
+     * Amazon S3 bucket object store constructor with shared client and upload journal. Closing
+     * the object store does not close the shared client.
+     *
+     * @param s3                 shared S3 client
+     * @param bucketName         AWS bucket name
+     * @param maxKeys            max keys for listing objects
+     * @param maxPartSize        part size for multipart copy, grown to target part count
+     * @param multipartThreshold multipart threshold
+     * @param skipMultipart      whether to skip multipart
+     * @param journal            upload journal to resume multipart copies, null for none
+     */
+    public AmazonS3Bucket(
+        S3Client s3,
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart,
+        UploadJournal journal
+    ) {
+        this(s3, bucketName, maxKeys, maxPartSize, multipartThreshold, skipMultipart, journal, true);
+    }
+
+    private AmazonS3Bucket(
+        S3Client s3,
+        String bucketName,
+        int maxKeys,
+        long maxPartSize,
+        long multipartThreshold,
+        boolean skipMultipart,
+        UploadJournal journal,
+        boolean shared
+    ) {
+        this.s3 = s3;
         this.bucketName = bucketName;
         this.maxKeys = maxKeys;
-        this.maxPartSize = maxPartSize;
-        this.multipartThreshold = multipartThreshold;
-        this.skipMultipart = skipMultipart;
+        this.requests = new AmazonS3Requests(bucketName, maxPartSize, multipartThreshold, skipMultipart);
+        this.listShards = getAwsListShards();
+        this.listSkipRemediated = getAwsListSkipRemediated();
+        this.partCopy = new PartCopyScheduler(PartCopyScheduler.maxPartsInFlight());
+        this.partRetry = new PartRetry(getAwsPartRetries(), getAwsPartRetryBackoff());
+        this.journal = journal;
+        this.shared = shared;
     }
 
     @Override
     public int count() {
-        return list().stream()
-            .map(r -> r.contents())
-            .map(p -> p.size())
-            .mapToInt(Integer::valueOf)
-            .sum();
+        return count(total -> { });
     }
 
     @Override
-    public Iterator<List<S3Object>> iterator() {
-        log.info("iterator of objects in bucket {}", bucketName);
+    public int count(IntConsumer progress) {
+        return count(ranges(), progress);
+    }
 
-        Iterator<ListObjectsV2Response> iterator = list().iterator();
+    /**
+     * Count objects within key ranges. Each key range is counted concurrently and
+     * the running total reported after each page from any of the counting threads.
+     *
+     * @param ranges   key ranges to count
+     * @param progress consumer of running total
+     * @return total count within key ranges
+     */
+    public int count(List<KeyRange> ranges, IntConsumer progress) {
+        log.info("counting objects in bucket {} across {} key ranges", bucketName, ranges.size());
 
-        return new Iterator<List<S3Object>>() {
+        AtomicInteger total = new AtomicInteger();
 
-            @Override
-            public boolean hasNext() {
-                return iterator.hasNext();
+        ExecutorService executor = newFixedThreadPool(Math.max(1, ranges.size()));
+        try {
+            List<Future<?>> futures = ranges.stream()
+                .map(range -> executor.submit(() -> {
+                    Iterator<List<S3Object>> iterator = rangeIterator(range);
+                    while (iterator.hasNext()) {
+                        progress.accept(total.addAndGet(iterator.next().size()));
+                    }
+                }))
+                .collect(Collectors.toList());
+
+            for (Future<?> future : futures) {
+                future.get();
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while counting objects", e);
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to count objects", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
 
-            @Override
-            public List<S3Object> next() {
-                return iterator.next()
-                    .contents();
-            }
+        return total.get();
+    }
 
-        };
+    @Override
+    public Iterator<List<S3Object>> iterator() {
+        return iterator(ranges());
+    }
+
+    /**
+     * Iterator of objects within key ranges. Each key range is listed concurrently
+     * and its pages merged into a single iterator of partitions.
+     *
+     * @param ranges key ranges to list
+     * @return iterator of objects
+     */
+    public Iterator<List<S3Object>> iterator(List<KeyRange> ranges) {
+        log.info("iterator of objects in bucket {} across {} key ranges", bucketName, ranges.size());
+
+        if (ranges.size() == 1) {
+            return rangeIterator(ranges.get(0));
+        }
+
+        List<Iterator<List<S3Object>>> iterators = ranges.stream()
+            .map(this::rangeIterator)
+            .collect(Collectors.toList());
+
+        return new MergingIterator<>(iterators, ranges.size());
+    }
+
+    /**
+     * Key ranges listed concurrently when iterating the bucket.
+     *
+     * @return key ranges covering the bucket
+     */
+    public List<KeyRange> ranges() {
+        return KeyRange.shards(listShards);
+    }
+
+    /**
+     * Sweep multipart uploads of the bucket initiated before cutoff, left behind by failed
+     * copies. Uploads of each page are aborted concurrently on the part copy threads. Uploads
+     * open in the upload journal are not swept, left for the next copy to resume.
+     *
+     * @param cutoff uploads initiated before cutoff are swept
+     * @return bytes of aborted upload parts reclaimed
+     */
+    public long sweep(Instant cutoff) {
+        log.info("sweeping multipart uploads of bucket {} initiated before {}", bucketName, cutoff);
+
+        Set<String> journaled = Objects.nonNull(journal)
+            ? journal.uploads()
+                .stream()
+                .map(UploadJournal.Upload::getUploadId)
+                .collect(Collectors.toSet())
+            : null;
+
+        ListMultipartUploadsRequest request = ListMultipartUploadsRequest.builder()
+            .bucket(this.bucketName)
+            .build();
+
+        int swept = 0;
+        long reclaimed = 0;
+        for (ListMultipartUploadsResponse page : s3.listMultipartUploadsPaginator(request)) {
+            List<MultipartUpload> uploads = page.uploads()
+                .stream()
+                .filter(upload -> upload.initiated().isBefore(cutoff))
+                .filter(upload -> Objects.isNull(journaled) || !journaled.contains(upload.uploadId()))
+                .collect(Collectors.toList());
+
+            List<Long> bytes = partCopy.copy(uploads.stream()
+                .map(upload -> (Callable<Long>) () -> reclaim(upload))
+                .collect(Collectors.toList()));
+
+            swept += uploads.size();
+            reclaimed += bytes.stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        }
+
+        log.info("swept {} multipart uploads of bucket {} reclaiming {} bytes", swept, bucketName, reclaimed);
+
+        return reclaimed;
     }
 
     @Override
     public int rename(S3Object source, String destinationKey) {
+        int copyResult = copy(source, destinationKey);
+        if (copyResult != 0) {
+            return copyResult;
+        }
+
+        try {
+            deleteObject(source);
+        } catch (SdkClientException | S3Exception e) {
+            log.error("Error while attempting to delete object", e);
+            return -1;
+        }
+
+        return 0;
+    }
+
+    @Override
+    public int copy(S3Object source, String destinationKey) {
         try {
             int copyResult;
-            if (source.size() < multipartThreshold && !source.eTag().contains("-")) {
-                copyResult = copy(source, destinationKey);
+            if (!requests.multipart(source)) {
+                copyResult = copyObject(source, destinationKey);
             } else {
-                copyResult = skipMultipart ? 1 : multiPartCopy(source, destinationKey);
+                copyResult = requests.skipMultipart() ? 1 : multiPartCopy(source, destinationKey);
             }
 
             if (copyResult == 0) {
                 log.debug("copy success: source object {} to destination object {}",
                     source.key(), destinationKey);
-            } else {
-                return copyResult;
             }
+
+            return copyResult;
         } catch (SdkClientException | S3Exception e) {
             log.error("Error while attempting to copy object", e);
             return -1;
         }
+    }
 
-        try {
-            delete(source);
-        } catch (SdkClientException | S3Exception e) {
-            log.error("Error while attempting to delete object", e);
-            return -1;
+    @Override
+    public int copyRequests(S3Object source) {
+        return requests.copyRequests(source);
+    }
+
+    @Override
+    public Set<String> delete(List<S3Object> objects) {
+        Set<String> failed = new HashSet<>();
+        for (List<S3Object> batch : requests.deleteBatches(objects)) {
+            try {
+                DeleteObjectsResponse response = s3.deleteObjects(requests.deleteObjects(batch));
+                for (S3Error error : response.errors()) {
+                    log.error("delete failure: object {} {} {}", error.key(), error.code(), error.message());
+                    failed.add(error.key());
+                }
+            } catch (SdkClientException | S3Exception e) {
+                log.error("Error while attempting to delete objects", e);
+                batch.forEach(o -> failed.add(o.key()));
+            }
         }
 
-        return 0;
+        return failed;
     }
 
     @Override
     public void close() {
+        // part copy threads belong to this object store even when its client is shared
+        this.partCopy.close();
+        if (shared) {
+            return;
+        }
         try {
             this.s3.close();
         } catch (Exception e) {
@@ -170,126 +390,260 @@ public class AmazonS3Bucket implements ObjectStore {
         }
     }
 
-    private ListObjectsV2Iterable list() {
+    private static UploadJournal journal() {
+        return isNotEmpty(getUploadJournalPath())
+            ? new UploadJournal(getUploadJournalPath())
+            : null;
+    }
+
+    private ListObjectsV2Iterable list(KeyRange range) {
         ListObjectsV2Request request = ListObjectsV2Request.builder()
             .bucket(this.bucketName)
             .maxKeys(this.maxKeys)
+            .startAfter(range.getStartAfter())
             .build();
 
         return this.s3.listObjectsV2Paginator(request);
     }
 
-    private int copy(S3Object source, String destinationKey) {
-        CopyObjectRequest copyObjectRequest = CopyObjectRequest.builder()
-            .sourceBucket(this.bucketName)
-            .sourceKey(source.key())
-            .destinationBucket(this.bucketName)
-            .destinationKey(destinationKey)
-            .build();
+    private Iterator<List<S3Object>> rangeIterator(KeyRange range) {
+        if (listSkipRemediated) {
+            return new SourceLayoutIterator(this.s3, this.bucketName, this.maxKeys, range);
+        }
+
+        Iterator<ListObjectsV2Response> iterator = list(range).iterator();
 
-        CopyObjectResponse response = s3.copyObject(copyObjectRequest);
+        return new Iterator<List<S3Object>>() {
 
-        CopyObjectResult result = response.copyObjectResult();
+            private List<S3Object> next;
 
-        String sourceEtag = normalizeEtag(source.eTag());
-        String destinationEtag = normalizeEtag(result.eTag());
+            private boolean exhausted;
 
-        if (sourceEtag.equals(destinationEtag)) {
-            return 0;
-        } else {
-            log.error("copy failure: source etag {} does not match destination etag {}",
-                sourceEtag, destinationEtag);
-            return -2;
-        }
+            @Override
+            public boolean hasNext() {
+                // stop listing once a page reaches beyond the end of the key range
+                while (next == null && !exhausted && iterator.hasNext()) {
+                    List<S3Object> contents = iterator.next()
+                        .contents();
+                    List<S3Object> objects = contents.stream()
+                        .filter(o -> !range.after(o.key()))
+                        .collect(Collectors.toList());
+                    exhausted = objects.size() < contents.size();
+                    if (!objects.isEmpty()) {
+                        next = objects;
+                    }
+                }
+
+                return next != null;
+            }
+
+            @Override
+            public List<S3Object> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                List<S3Object> objects = next;
+                next = null;
+
+                return objects;
+            }
+
+        };
+    }
+
+    private int copyObject(S3Object source, String destinationKey) {
+        CopyObjectResponse response = s3.copyObject(requests.copyObject(source, destinationKey));
+
+        return AmazonS3Requests.verifyEtag(source, response.copyObjectResult().eTag());
     }
 
     private int multiPartCopy(S3Object source, String destinationKey) {
-        CreateMultipartUploadRequest createRequest = CreateMultipartUploadRequest.builder()
-            .bucket(this.bucketName)
-            .key(destinationKey)
-            .build();
+        boolean preserve = requests.preserve(source);
+
+        List<ObjectPart> parts;
+        if (preserve) {
+            parts = sourceParts(source);
+
+            if (parts.isEmpty()) {
+                return -2;
+            }
+        } else {
+            parts = requests.plan(source);
+        }
 
-        CreateMultipartUploadResponse createResponse = s3.createMultipartUpload(createRequest);
+        Map<Integer, CompletedPart> resumedParts = new HashMap<>();
 
-        String uploadId = createResponse.uploadId();
+        String resumedUploadId = resume(source, destinationKey, parts, resumedParts);
 
-        List<ObjectPart> parts = new ArrayList<>();
+        final String uploadId;
+        if (Objects.nonNull(resumedUploadId)) {
+            uploadId = resumedUploadId;
+        } else {
+            CreateMultipartUploadResponse createResponse = s3.createMultipartUpload(
+                requests.createMultipartUpload(destinationKey));
 
-        int partNumber = 0;
+            uploadId = createResponse.uploadId();
 
-        for (long position = 0; position < source.size(); position += maxPartSize) {
-            parts.add(new ObjectPart(++partNumber, position));
+            if (Objects.nonNull(journal)) {
+                journal.started(destinationKey, source.eTag(), uploadId);
+            }
         }
 
-        List<CompletedPart> completedParts = parts.parallelStream()
-            .map(part -> {
-                String copySourceRange = copySourceRange(part.getPosition(), source.size());
+        CompleteMultipartUploadResponse completeResponse;
+        try {
+            List<CompletedPart> completedParts = new ArrayList<>(resumedParts.values());
 
-                UploadPartCopyRequest partRequest = UploadPartCopyRequest.builder()
-                    .sourceBucket(this.bucketName)
-                    .sourceKey(source.key())
-                    .destinationBucket(this.bucketName)
-                    .destinationKey(destinationKey)
-                    .copySourceRange(copySourceRange)
-                    .partNumber(part.getNumber())
-                    .uploadId(uploadId)
-                    .build();
+            // parts copied on dedicated threads shared by every object of the bucket, each part retried on failure
+            completedParts.addAll(partCopy.copy(parts.stream()
+                .filter(part -> !resumedParts.containsKey(part.getNumber()))
+                .map(part -> partRetry.retrying(() -> copyPart(source, destinationKey, uploadId, part)))
+                .collect(Collectors.toList())));
 
-                UploadPartCopyResponse partResponse = s3.uploadPartCopy(partRequest);
+            Collections.sort(completedParts, new CompletedPartComparator());
 
-                CopyPartResult copyPartResult = partResponse.copyPartResult();
+            completeResponse = s3.completeMultipartUpload(
+                requests.completeMultipartUpload(destinationKey, uploadId, completedParts));
+        } catch (SdkClientException | S3Exception e) {
+            // journaled uploads are left open to resume, otherwise copied parts are not left behind
+            if (Objects.isNull(journal)) {
+                abortUpload(destinationKey, uploadId);
+            }
+            throw e;
+        }
 
-                return CompletedPart.builder()
-                    .eTag(normalizeEtag(copyPartResult.eTag()))
-                    .partNumber(part.getNumber())
-                    .build();
-            }).collect(Collectors.toList());
+        if (Objects.nonNull(journal)) {
+            journal.ended(destinationKey);
+        }
 
-        Collections.sort(completedParts, new CompletedPartComparator());
+        return preserve
+            ? AmazonS3Requests.verifyEtag(source, completeResponse.eTag())
+            : AmazonS3Requests.verifyPartCount(completeResponse.eTag(), parts.size());
+    }
 
-        CompletedMultipartUpload completedMultipartUpload = CompletedMultipartUpload.builder()
-            .parts(completedParts)
-            .build();
+    private CompletedPart copyPart(S3Object source, String destinationKey, String uploadId, ObjectPart part) {
+        UploadPartCopyResponse partResponse = s3.uploadPartCopy(
+            requests.uploadPartCopy(source, destinationKey, uploadId, part));
 
-        CompleteMultipartUploadRequest completeRequest = CompleteMultipartUploadRequest.builder()
-            .bucket(this.bucketName)
-            .key(destinationKey)
-            .uploadId(uploadId)
-            .multipartUpload(completedMultipartUpload)
-            .build();
+        CompletedPart completedPart = requests.completedPart(part, partResponse.copyPartResult().eTag());
+
+        if (Objects.nonNull(journal)) {
+            journal.copied(destinationKey, part.getNumber(), completedPart.eTag());
+        }
+
+        return completedPart;
+    }
+
+    private boolean abortUpload(String destinationKey, String uploadId) {
+        try {
+            s3.abortMultipartUpload(requests.abortMultipartUpload(destinationKey, uploadId));
+            log.debug("aborted upload {} of destination object {}", uploadId, destinationKey);
+
+            return true;
+        } catch (SdkClientException | S3Exception e) {
+            log.error("Error while attempting to abort multipart upload", e);
 
-        CompleteMultipartUploadResponse completeResponse = s3.completeMultipartUpload(completeRequest);
+            return false;
+        }
+    }
 
-        String destinationEtag = normalizeEtag(completeResponse.eTag());
+    private long reclaim(MultipartUpload upload) {
+        ListPartsRequest listPartsRequest = ListPartsRequest.builder()
+            .bucket(this.bucketName)
+            .key(upload.key())
+            .uploadId(upload.uploadId())
+            .build();
 
-        int etagPartCount = parseInt(destinationEtag.split("-")[1], 10);
+        long bytes;
+        try {
+            bytes = s3.listPartsPaginator(listPartsRequest).parts()
+                .stream()
+                .mapToLong(Part::size)
+                .sum();
+        } catch (NoSuchUploadException e) {
+            return 0;
+        } catch (SdkClientException | S3Exception e) {
+            log.error("Error while attempting to list parts of multipart upload", e);
+            return 0;
+        }
 
-        if (etagPartCount == partNumber) {
+        if (!abortUpload(upload.key(), upload.uploadId())) {
             return 0;
-        } else {
-            log.error("copy failure: destination etag {} did not match expected number of parts {}",
-                destinationEtag, partNumber);
-            return -2;
         }
+
+        log.info("swept upload {} of destination object {} initiated {} with {} bytes",
+            upload.uploadId(), upload.key(), upload.initiated(), bytes);
+
+        return bytes;
     }
 
-    private void delete(S3Object object) {
-        DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
+    private String resume(
+        S3Object source,
+        String destinationKey,
+        List<ObjectPart> parts,
+        Map<Integer, CompletedPart> resumedParts
+    ) {
+        if (Objects.isNull(journal)) {
+            return null;
+        }
+
+        UploadJournal.Upload upload = journal.upload(destinationKey, source.eTag());
+        if (Objects.isNull(upload)) {
+            return null;
+        }
+
+        Map<Integer, ObjectPart> plannedParts = parts.stream()
+            .collect(Collectors.toMap(ObjectPart::getNumber, Function.identity()));
+
+        ListPartsRequest listPartsRequest = ListPartsRequest.builder()
             .bucket(this.bucketName)
-            .key(object.key())
+            .key(destinationKey)
+            .uploadId(upload.getUploadId())
             .build();
 
-        s3.deleteObject(deleteObjectRequest);
+        try {
+            for (Part part : s3.listPartsPaginator(listPartsRequest).parts()) {
+                ObjectPart plannedPart = plannedParts.get(part.partNumber());
+                String etag = AmazonS3Requests.normalizeEtag(part.eTag());
+                // resume only parts journaled as copied with the same byte range as planned
+                if (Objects.nonNull(plannedPart) && plannedPart.getLength().equals(part.size())
+                    && etag.equals(upload.getParts().get(part.partNumber()))) {
+                    resumedParts.put(part.partNumber(), CompletedPart.builder()
+                        .eTag(etag)
+                        .partNumber(part.partNumber())
+                        .build());
+                }
+            }
+        } catch (NoSuchUploadException e) {
+            log.warn("upload {} of destination object {} no longer exists, starting over",
+                upload.getUploadId(), destinationKey);
+            journal.ended(destinationKey);
+            return null;
+        }
+
+        log.info("resuming upload {} of destination object {} with {} of {} parts copied",
+            upload.getUploadId(), destinationKey, resumedParts.size(), parts.size());
+
+        return upload.getUploadId();
     }
 
-    private String copySourceRange(long start, long size) {
-        long end = Math.min(start + maxPartSize - 1, size - 1);
+    private List<ObjectPart> sourceParts(S3Object source) {
+        try {
+            // part sizes retrieved concurrently on the part copy threads
+            return requests.sourceParts(source, numbers -> completedFuture(partCopy.copy(numbers.stream()
+                    .map(number -> (Callable<Long>) () -> headPart(source, number))
+                    .collect(Collectors.toList()))))
+                .join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
 
-        return format("bytes=%d-%d", start, end);
+    private long headPart(S3Object source, int partNumber) {
+        return s3.headObject(requests.headPart(source, partNumber)).contentLength();
     }
 
-    private String normalizeEtag(String etag) {
-        return removeEnd(removeStart(etag, "\""), "\"");
+    private void deleteObject(S3Object object) {
+        s3.deleteObject(requests.deleteObject(object));
     }
 
 }
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsConnectionMaxIdle;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsListShards;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxConnections;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getLargeLaneParallelism;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getParallelism;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getTaskConcurrency;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Objects;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3AsyncClientBuilder;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3ClientBuilder;
+
+/**
+ * Amazon S3 client factory building long-lived clients to be shared by object stores.
+ * Connections are kept alive and pooled, with idle connections reaped.
+ */
+public final class AmazonS3Clients {
+
+    private AmazonS3Clients() { }
+
+    /**
+     * Max pooled connections of S3 client, when not configured sized for concurrent objects
+     * of concurrent tasks, multipart copy parts in flight, and concurrent listing
+     * and counting of each key range.
+     *
+     * @return max pooled connections
+     */
+    public static int maxConnections() {
+        return getAwsMaxConnections() > 0
+            ? getAwsMaxConnections()
+            : getParallelism() * getTaskConcurrency() + getLargeLaneParallelism() + PartCopyScheduler.maxPartsInFlight()
+                + getAwsListShards() * 2;
+    }
+
+    /**
+     * Build S3 client with pooled connections.
+     *
+     * @param endpointOverride AWS endpoint override
+     * @return S3 client
+     */
+    public static S3Client client(String endpointOverride) {
+        return client(endpointOverride, null);
+    }
+
+    /**
+     * Build S3 client with pooled connections, reporting throttled write requests to
+     * the prefix rate limiter.
+     *
+     * @param endpointOverride AWS endpoint override
+     * @param rateLimiter      prefix rate limiter, null when not rate limited
+     * @return S3 client
+     */
+    public static S3Client client(String endpointOverride, PrefixRateLimiter rateLimiter) {
+        S3ClientBuilder builder = S3Client.builder()
+            .httpClientBuilder(ApacheHttpClient.builder()
+                .maxConnections(maxConnections())
+                .connectionMaxIdleTime(Duration.ofSeconds(getAwsConnectionMaxIdle()))
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(true));
+        if (Objects.nonNull(endpointOverride)) {
+            builder = builder.endpointOverride(URI.create(endpointOverride));
+        }
+        if (Objects.nonNull(rateLimiter)) {
+            builder = builder.overrideConfiguration(configuration -> configuration
+                .addExecutionInterceptor(new ThrottleInterceptor(rateLimiter)));
+        }
+
+        return builder.build();
+    }
+
+    /**
+     * Build S3 asynchronous client with pooled connections.
+     *
+     * @param endpointOverride AWS endpoint override
+     * @param maxConcurrency   max pooled connections
+     * @return S3 asynchronous client
+     */
+    public static S3AsyncClient asyncClient(String endpointOverride, int maxConcurrency) {
+        return asyncClient(endpointOverride, maxConcurrency, null);
+    }
+
+    /**
+     * Build S3 asynchronous client with pooled connections, reporting throttled write
+     * requests to the prefix rate limiter.
+     *
+     * @param endpointOverride AWS endpoint override
+     * @param maxConcurrency   max pooled connections
+     * @param rateLimiter      prefix rate limiter, null when not rate limited
+     * @return S3 asynchronous client
+     */
+    public static S3AsyncClient asyncClient(
+        String endpointOverride,
+        int maxConcurrency,
+        PrefixRateLimiter rateLimiter
+    ) {
+        S3AsyncClientBuilder builder = S3AsyncClient.builder()
+            .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                .maxConcurrency(maxConcurrency)
+                .connectionMaxIdleTime(Duration.ofSeconds(getAwsConnectionMaxIdle()))
+                .useIdleConnectionReaper(true)
+                .tcpKeepAlive(true));
+        if (Objects.nonNull(endpointOverride)) {
+            builder = builder.endpointOverride(URI.create(endpointOverride));
+        }
+        if (Objects.nonNull(rateLimiter)) {
+            builder = builder.overrideConfiguration(configuration -> configuration
+                .addExecutionInterceptor(new ThrottleInterceptor(rateLimiter)));
+        }
+
+        return builder.build();
+    }
+
+}
@@ -0,0 +1,164 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.RuntimeUtils.availableProcessors;
+import static java.util.concurrent.Executors.newFixedThreadPool;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Amazon S3 Inventory object store reading objects from local S3 Inventory CSV data
+ * files rather than listing the bucket. Renaming is delegated to the bucket object store.
+ */
+@Slf4j
+public class AmazonS3Inventory implements ObjectStore {
+
+    private final List<Path> files;
+
+    private final String schema;
+
+    private final int maxKeys;
+
+    private final ObjectStore store;
+
+    private final ExecutorService executor;
+
+    /**
+     * Amazon S3 Inventory object store constructor.
+     *
+     * @param path    comma separated inventory data files or directories of *.csv and *.csv.gz files
+     * @param schema  inventory file schema, comma separated field names
+     * @param maxKeys max keys per partition of objects
+     * @param store   bucket object store to delegate renaming
+     */
+    public AmazonS3Inventory(String path, String schema, int maxKeys, ObjectStore store) {
+        this.files = files(path);
+        this.schema = schema;
+        this.maxKeys = maxKeys;
+        this.store = store;
+        this.executor = newFixedThreadPool(availableProcessors(), runnable -> {
+            Thread thread = new Thread(runnable, "inventory-parser");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public int count() {
+        return count(total -> { });
+    }
+
+    @Override
+    public int count(IntConsumer progress) {
+        int count = 0;
+        Iterator<List<S3Object>> iterator = iterator();
+        while (iterator.hasNext()) {
+            count += iterator.next().size();
+            progress.accept(count);
+        }
+
+        return count;
+    }
+
+    @Override
+    public Iterator<List<S3Object>> iterator() {
+        log.info("iterator of objects in {} inventory files", files.size());
+
+        int window = availableProcessors() * 2;
+
+        if (files.size() == 1) {
+            return new InventoryIterator(files.get(0), schema, maxKeys, executor, window);
+        }
+
+        List<Iterator<List<S3Object>>> iterators = files.stream()
+            .map(file -> new InventoryIterator(file, schema, maxKeys, executor, window))
+            .collect(Collectors.toList());
+
+        return new MergingIterator<>(iterators, files.size());
+    }
+
+    @Override
+    public int rename(S3Object source, String destinationKey) {
+        return store.rename(source, destinationKey);
+    }
+
+    @Override
+    public int copy(S3Object source, String destinationKey) {
+        return store.copy(source, destinationKey);
+    }
+
+    @Override
+    public int copyRequests(S3Object source) {
+        return store.copyRequests(source);
+    }
+
+    @Override
+    public Set<String> delete(List<S3Object> objects) {
+        return store.delete(objects);
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        store.close();
+    }
+
+    private static List<Path> files(String path) {
+        List<Path> files = new ArrayList<>();
+        for (String part : path.split(",")) {
+            Path file = Paths.get(part.trim());
+            if (Files.isDirectory(file)) {
+                try (Stream<Path> stream = Files.list(file)) {
+                    stream.filter(AmazonS3Inventory::isInventoryFile)
+                        .sorted()
+                        .forEach(files::add);
+                } catch (IOException e) {
+                    throw new RuntimeException("Failed to list inventory directory " + file, e);
+                }
+            } else {
+                files.add(file);
+            }
+        }
+
+        if (files.isEmpty()) {
+            throw new IllegalArgumentException("No inventory files found in " + path);
+        }
+
+        return files;
+    }
+
+    private static boolean isInventoryFile(Path file) {
+        String name = file.getFileName().toString();
+
+        return name.endsWith(".csv") || name.endsWith(".csv.gz");
+    }
+
+}
@@ -0,0 +1,302 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsPreserveEtag;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsTargetPartCount;
+import static java.lang.Integer.parseInt;
+import static java.lang.String.format;
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.apache.commons.lang3.StringUtils.removeEnd;
+import static org.apache.commons.lang3.StringUtils.removeStart;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompletedMultipartUpload;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+
+/**
+ * Requests of the Amazon S3 bucket object stores, and verification of their responses,
+ * shared by the synchronous and asynchronous stores so both copy, verify and delete
+ * objects alike. Choice of copy, part planning and part layout of source objects are
+ * decided here, the stores only make the requests.
+ */
+@Slf4j
+final class AmazonS3Requests {
+
+    static final int MAX_DELETE_KEYS = 1000;
+
+    private final String bucketName;
+
+    private final PartPlanner partPlanner;
+
+    private final PartLayout partLayout;
+
+    private final boolean preserveEtag;
+
+    private final long multipartThreshold;
+
+    private final boolean skipMultipart;
+
+    AmazonS3Requests(String bucketName, long maxPartSize, long multipartThreshold, boolean skipMultipart) {
+        this.bucketName = bucketName;
+        this.partPlanner = new PartPlanner(maxPartSize, getAwsTargetPartCount());
+        this.partLayout = new PartLayout();
+        this.preserveEtag = getAwsPreserveEtag();
+        this.multipartThreshold = multipartThreshold;
+        this.skipMultipart = skipMultipart;
+    }
+
+    /**
+     * Whether source object is copied with a multipart copy, being at multipart threshold
+     * or itself uploaded in parts.
+     */
+    boolean multipart(S3Object source) {
+        return source.size() >= multipartThreshold || source.eTag().contains("-");
+    }
+
+    boolean skipMultipart() {
+        return skipMultipart;
+    }
+
+    /**
+     * Whether multipart copy of source object preserves its etag with its own part layout.
+     */
+    boolean preserve(S3Object source) {
+        return preserveEtag && PartLayout.partCount(source.eTag()) > 0;
+    }
+
+    int copyRequests(S3Object source) {
+        if (!multipart(source) || skipMultipart) {
+            return 1;
+        }
+
+        int partCount = PartLayout.partCount(source.eTag());
+
+        return preserveEtag && partCount > 0
+            ? partCount + 2
+            : partPlanner.requests(source.size());
+    }
+
+    List<ObjectPart> plan(S3Object source) {
+        List<ObjectPart> parts = partPlanner.plan(source.size());
+
+        log.debug("multipart copy: source object {} of {} bytes in {} parts, {} requests",
+            source.key(), source.size(), parts.size(), partPlanner.requests(source.size()));
+
+        return parts;
+    }
+
+    /**
+     * Part layout of source object, from the sizes of its first and last parts when its
+     * parts are uniform, otherwise from the size of every part, each retrieved by the store.
+     * Empty when the layout can not be determined.
+     */
+    CompletableFuture<List<ObjectPart>> sourceParts(
+        S3Object source,
+        Function<List<Integer>, CompletableFuture<List<Long>>> partSizes
+    ) {
+        List<ObjectPart> cached = partLayout.cached(source);
+        if (cached != null) {
+            return completedFuture(cached);
+        }
+
+        int partCount = PartLayout.partCount(source.eTag());
+
+        return partSizes.apply(partCount > 1 ? List.of(1, partCount) : List.of(1))
+            .thenCompose(sizes -> {
+                List<ObjectPart> parts = PartLayout.uniform(source.size(), sizes.get(0),
+                    sizes.get(sizes.size() - 1), partCount);
+                if (!parts.isEmpty()) {
+                    return completedFuture(parts);
+                }
+
+                // parts of differing sizes, size of every part retrieved
+                return partSizes.apply(IntStream.rangeClosed(1, partCount)
+                        .boxed()
+                        .collect(Collectors.toList()))
+                    .thenApply(lengths -> PartLayout.of(source.size(), lengths));
+            })
+            .thenApply(parts -> {
+                if (parts.isEmpty()) {
+                    log.error("copy failure: unable to determine part layout of source object {} with etag {}",
+                        source.key(), source.eTag());
+                } else {
+                    log.debug("multipart copy: source object {} of {} bytes in {} source parts",
+                        source.key(), source.size(), parts.size());
+                }
+
+                return partLayout.cache(source, parts);
+            });
+    }
+
+    CopyObjectRequest copyObject(S3Object source, String destinationKey) {
+        return CopyObjectRequest.builder()
+            .sourceBucket(this.bucketName)
+            .sourceKey(source.key())
+            .destinationBucket(this.bucketName)
+            .destinationKey(destinationKey)
+            .build();
+    }
+
+    CreateMultipartUploadRequest createMultipartUpload(String destinationKey) {
+        return CreateMultipartUploadRequest.builder()
+            .bucket(this.bucketName)
+            .key(destinationKey)
+            .build();
+    }
+
+    UploadPartCopyRequest uploadPartCopy(S3Object source, String destinationKey, String uploadId, ObjectPart part) {
+        long end = part.getPosition() + part.getLength() - 1;
+
+        return UploadPartCopyRequest.builder()
+            .sourceBucket(this.bucketName)
+            .sourceKey(source.key())
+            .destinationBucket(this.bucketName)
+            .destinationKey(destinationKey)
+            .copySourceRange(format("bytes=%d-%d", part.getPosition(), end))
+            .partNumber(part.getNumber())
+            .uploadId(uploadId)
+            .build();
+    }
+
+    CompletedPart completedPart(ObjectPart part, String etag) {
+        return CompletedPart.builder()
+            .eTag(normalizeEtag(etag))
+            .partNumber(part.getNumber())
+            .build();
+    }
+
+    CompleteMultipartUploadRequest completeMultipartUpload(
+        String destinationKey,
+        String uploadId,
+        List<CompletedPart> parts
+    ) {
+        return CompleteMultipartUploadRequest.builder()
+            .bucket(this.bucketName)
+            .key(destinationKey)
+            .uploadId(uploadId)
+            .multipartUpload(CompletedMultipartUpload.builder()
+                .parts(parts)
+                .build())
+            .build();
+    }
+
+    AbortMultipartUploadRequest abortMultipartUpload(String destinationKey, String uploadId) {
+        return AbortMultipartUploadRequest.builder()
+            .bucket(this.bucketName)
+            .key(destinationKey)
+            .uploadId(uploadId)
+            .build();
+    }
+
+    HeadObjectRequest headPart(S3Object source, int partNumber) {
+        return HeadObjectRequest.builder()
+            .bucket(this.bucketName)
+            .key(source.key())
+            .partNumber(partNumber)
+            .build();
+    }
+
+    DeleteObjectRequest deleteObject(S3Object object) {
+        return DeleteObjectRequest.builder()
+            .bucket(this.bucketName)
+            .key(object.key())
+            .build();
+    }
+
+    /**
+     * Objects in batches of up to the max keys of a delete objects request.
+     */
+    List<List<S3Object>> deleteBatches(List<S3Object> objects) {
+        List<List<S3Object>> batches = new ArrayList<>();
+        for (int i = 0; i < objects.size(); i += MAX_DELETE_KEYS) {
+            batches.add(objects.subList(i, Math.min(i + MAX_DELETE_KEYS, objects.size())));
+        }
+
+        return batches;
+    }
+
+    DeleteObjectsRequest deleteObjects(List<S3Object> batch) {
+        return DeleteObjectsRequest.builder()
+            .bucket(this.bucketName)
+            .delete(Delete.builder()
+                .objects(batch.stream()
+                    .map(o -> ObjectIdentifier.builder()
+                        .key(o.key())
+                        .build())
+                    .collect(Collectors.toList()))
+                .quiet(true)
+                .build())
+            .build();
+    }
+
+    /**
+     * Verify copy by destination etag equal to source etag.
+     *
+     * @return 0 when verified, -2 otherwise
+     */
+    static int verifyEtag(S3Object source, String destinationEtag) {
+        String sourceEtag = normalizeEtag(source.eTag());
+        String etag = normalizeEtag(destinationEtag);
+
+        if (Objects.equals(sourceEtag, etag)) {
+            return 0;
+        }
+        log.error("copy failure: source etag {} does not match destination etag {}", sourceEtag, etag);
+
+        return -2;
+    }
+
+    /**
+     * Verify multipart copy by part count of destination etag equal to parts copied.
+     *
+     * @return 0 when verified, -2 otherwise
+     */
+    static int verifyPartCount(String destinationEtag, int partCount) {
+        String etag = normalizeEtag(destinationEtag);
+
+        if (parseInt(etag.split("-")[1], 10) == partCount) {
+            return 0;
+        }
+        log.error("copy failure: destination etag {} did not match expected number of parts {}", etag, partCount);
+
+        return -2;
+    }
+
+    static String normalizeEtag(String etag) {
+        return removeEnd(removeStart(etag, "\""), "\"");
+    }
+
+}
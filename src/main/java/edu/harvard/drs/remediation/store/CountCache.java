@@ -0,0 +1,111 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntConsumer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Count cache persisting an object store count along with the time it was counted.
+ * The file is a single line of count and epoch milliseconds separated by a tab, and
+ * the cached count is used while younger than its time to live.
+ */
+@Slf4j
+public class CountCache {
+
+    private static final String SEPARATOR = "\t";
+
+    private final Path path;
+
+    private final long ttl;
+
+    /**
+     * Count cache constructor.
+     *
+     * @param path path to count cache file
+     * @param ttl  milliseconds a cached count remains valid
+     */
+    public CountCache(String path, long ttl) {
+        this.path = Paths.get(path);
+        this.ttl = ttl;
+    }
+
+    /**
+     * Cached count of object store, counting and caching when absent or expired.
+     *
+     * @param store    object store to count
+     * @param progress consumer of running total
+     * @return object store total count
+     */
+    public int count(ObjectStore store, IntConsumer progress) {
+        long now = System.currentTimeMillis();
+
+        long[] cached = read();
+        if (cached.length == 2 && now - cached[1] < ttl) {
+            log.info("using cached count {} from {}", cached[0], Instant.ofEpochMilli(cached[1]));
+            progress.accept((int) cached[0]);
+
+            return (int) cached[0];
+        }
+
+        int count = store.count(progress);
+        write(count, now);
+
+        return count;
+    }
+
+    private long[] read() {
+        if (Files.exists(path)) {
+            try {
+                List<String> lines = Files.readAllLines(path, UTF_8);
+                if (!lines.isEmpty()) {
+                    String[] parts = lines.get(0).split(SEPARATOR);
+                    if (parts.length == 2) {
+                        return new long[] { Long.parseLong(parts[0]), Long.parseLong(parts[1]) };
+                    }
+                }
+            } catch (IOException | NumberFormatException e) {
+                log.error("Error while attempting to read count cache", e);
+            }
+        }
+
+        return new long[0];
+    }
+
+    private void write(int count, long timestamp) {
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, Arrays.asList(count + SEPARATOR + timestamp), UTF_8);
+            Files.move(temp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+            log.debug("count {} cached to {}", count, path);
+        } catch (IOException e) {
+            log.error("Error while attempting to write count cache", e);
+        }
+    }
+
+}
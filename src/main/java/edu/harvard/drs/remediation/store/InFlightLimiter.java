@@ -0,0 +1,142 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Limiter of asynchronous requests in flight. Requests beyond the limit are queued
+ * and started, in order of submission, as in flight requests complete. Submitting
+ * never blocks, so requests may be chained from completion stages.
+ */
+public class InFlightLimiter {
+
+    private final int limit;
+
+    private final Deque<Runnable> waiting;
+
+    private final ThreadLocal<Deque<Runnable>> starting;
+
+    private int inFlight;
+
+    /**
+     * In flight limiter constructor.
+     *
+     * @param limit max number of requests in flight
+     */
+    public InFlightLimiter(int limit) {
+        this.limit = limit;
+        this.waiting = new ArrayDeque<>();
+        this.starting = new ThreadLocal<>();
+        this.inFlight = 0;
+    }
+
+    /**
+     * Submit asynchronous request to start once within limit.
+     *
+     * @param <T>     type of response
+     * @param request supplier starting asynchronous request
+     * @return future of response
+     */
+    public <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> request) {
+        CompletableFuture<T> response = new CompletableFuture<>();
+
+        Runnable start = () -> {
+            CompletableFuture<T> future;
+            try {
+                future = request.get();
+            } catch (RuntimeException e) {
+                future = CompletableFuture.failedFuture(e);
+            }
+            future.whenComplete((value, error) -> {
+                release();
+                if (error != null) {
+                    response.completeExceptionally(error);
+                } else {
+                    response.complete(value);
+                }
+            });
+        };
+
+        synchronized (this) {
+            if (inFlight >= limit) {
+                waiting.add(start);
+                return response;
+            }
+            inFlight++;
+        }
+        run(start);
+
+        return response;
+    }
+
+    /**
+     * Number of requests in flight.
+     *
+     * @return requests in flight
+     */
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Max number of requests in flight.
+     *
+     * @return limit
+     */
+    public int limit() {
+        return limit;
+    }
+
+    private void release() {
+        Runnable next;
+        synchronized (this) {
+            next = waiting.poll();
+            if (next == null) {
+                inFlight--;
+            }
+        }
+        // permit handed directly to next waiting request
+        if (next != null) {
+            run(next);
+        }
+    }
+
+    private void run(Runnable start) {
+        // requests completing immediately start the next on this thread, avoid recursion
+        Deque<Runnable> pending = starting.get();
+        if (pending != null) {
+            pending.add(start);
+            return;
+        }
+        pending = new ArrayDeque<>();
+        starting.set(pending);
+        try {
+            Runnable next = start;
+            while (next != null) {
+                next.run();
+                next = pending.poll();
+            }
+        } finally {
+            starting.remove();
+        }
+    }
+
+}
@@ -0,0 +1,267 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.URLDecoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.zip.GZIPInputStream;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Iterator of partitions of objects read from an S3 Inventory CSV data file, optionally
+ * gzip compressed. Lines are read in chunks on a background thread and each chunk is
+ * parsed concurrently on the provided executor while partitions retain file order.
+ */
+@Slf4j
+class InventoryIterator implements Iterator<List<S3Object>> {
+
+    private static final String KEY = "Key";
+    private static final String SIZE = "Size";
+    private static final String LAST_MODIFIED_DATE = "LastModifiedDate";
+    private static final String ETAG = "ETag";
+    private static final String IS_LATEST = "IsLatest";
+    private static final String IS_DELETE_MARKER = "IsDeleteMarker";
+
+    private final Path path;
+
+    private final int maxKeys;
+
+    private final ExecutorService executor;
+
+    private final BlockingQueue<Future<List<S3Object>>> chunks;
+
+    private final int key;
+
+    private final int size;
+
+    private final int lastModified;
+
+    private final int etag;
+
+    private final int isLatest;
+
+    private final int isDeleteMarker;
+
+    private List<S3Object> next;
+
+    private boolean done;
+
+    /**
+     * Inventory iterator constructor.
+     *
+     * @param path     path to inventory CSV data file
+     * @param schema   inventory file schema, comma separated field names
+     * @param maxKeys  number of lines per chunk and max partition size
+     * @param executor executor to parse chunks
+     * @param window   max number of chunks read ahead of consumption
+     */
+    InventoryIterator(Path path, String schema, int maxKeys, ExecutorService executor, int window) {
+        List<String> fields = new ArrayList<>();
+        for (String field : schema.split(",")) {
+            fields.add(field.trim());
+        }
+
+        this.key = fields.indexOf(KEY);
+        this.size = fields.indexOf(SIZE);
+        this.lastModified = fields.indexOf(LAST_MODIFIED_DATE);
+        this.etag = fields.indexOf(ETAG);
+        this.isLatest = fields.indexOf(IS_LATEST);
+        this.isDeleteMarker = fields.indexOf(IS_DELETE_MARKER);
+
+        if (key < 0 || size < 0 || etag < 0) {
+            throw new IllegalArgumentException("Inventory schema requires Key, Size and ETag fields: " + schema);
+        }
+
+        this.path = path;
+        this.maxKeys = maxKeys;
+        this.executor = executor;
+        this.chunks = new LinkedBlockingQueue<>(window);
+
+        Thread thread = new Thread(this::read, "inventory");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (Objects.isNull(next) && !done) {
+            try {
+                List<S3Object> objects = chunks.take().get();
+                if (Objects.isNull(objects)) {
+                    done = true;
+                } else if (!objects.isEmpty()) {
+                    next = objects;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while awaiting inventory", e);
+            } catch (ExecutionException e) {
+                done = true;
+                throw new RuntimeException("Failed to read inventory " + path, e.getCause());
+            }
+        }
+
+        return Objects.nonNull(next);
+    }
+
+    @Override
+    public List<S3Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        List<S3Object> objects = next;
+        next = null;
+
+        return objects;
+    }
+
+    private void read() {
+        log.info("reading inventory {}", path);
+        Future<List<S3Object>> end = CompletableFuture.failedFuture(
+            new IllegalStateException("Inventory read did not complete"));
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(path), UTF_8))) {
+            List<String> lines = new ArrayList<>(maxKeys);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lines.add(line);
+                if (lines.size() == maxKeys) {
+                    submit(lines);
+                    lines = new ArrayList<>(maxKeys);
+                }
+            }
+            if (!lines.isEmpty()) {
+                submit(lines);
+            }
+            end = CompletableFuture.completedFuture(null);
+        } catch (IOException | RuntimeException e) {
+            log.error("Error while attempting to read inventory", e);
+            end = CompletableFuture.failedFuture(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            end = CompletableFuture.failedFuture(e);
+        } finally {
+            // consumer awaits the end of chunks however reading ends
+            end(end);
+        }
+    }
+
+    private void end(Future<List<S3Object>> end) {
+        boolean interrupted = Thread.interrupted();
+        try {
+            chunks.put(end);
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void submit(List<String> lines) throws InterruptedException {
+        chunks.put(executor.submit(() -> parse(lines)));
+    }
+
+    private List<S3Object> parse(List<String> lines) {
+        List<S3Object> objects = new ArrayList<>(lines.size());
+        for (String line : lines) {
+            if (line.isEmpty()) {
+                continue;
+            }
+            List<String> values = split(line);
+            if (isDeleteMarker >= 0 && Boolean.parseBoolean(values.get(isDeleteMarker))) {
+                continue;
+            }
+            if (isLatest >= 0 && !Boolean.parseBoolean(values.get(isLatest))) {
+                continue;
+            }
+            objects.add(S3Object.builder()
+                .key(URLDecoder.decode(values.get(key), UTF_8))
+                .size(Long.parseLong(values.get(size)))
+                .lastModified(lastModified >= 0 ? Instant.parse(values.get(lastModified)) : Instant.EPOCH)
+                // quote etag as returned when listing objects
+                .eTag("\"" + values.get(etag) + "\"")
+                .build());
+        }
+
+        return objects;
+    }
+
+    /**
+     * Split CSV line into unquoted values.
+     *
+     * @param line CSV line
+     * @return values of line
+     */
+    static List<String> split(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append(c);
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+
+        return values;
+    }
+
+    private static InputStream open(Path path) throws IOException {
+        InputStream input = Files.newInputStream(path);
+
+        return path.getFileName().toString().endsWith(".gz")
+            ? new GZIPInputStream(input, 65536)
+            : input;
+    }
+
+}
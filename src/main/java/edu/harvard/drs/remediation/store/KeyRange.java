@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.apache.commons.lang3.StringUtils.leftPad;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import lombok.Data;
+
+/**
+ * Key range POJO representing keys after an exclusive start key up to an inclusive end key.
+ * A null start or end key leaves the range unbounded on that side.
+ */
+@Data
+public class KeyRange {
+
+    private final String startAfter;
+    private final String end;
+
+    /**
+     * Whether key falls within the key range.
+     *
+     * @param key object key
+     * @return whether key is after start and not after end
+     */
+    public boolean contains(String key) {
+        return !before(key) && !after(key);
+    }
+
+    /**
+     * Whether key is at or before the exclusive start of the key range.
+     *
+     * @param key object key
+     * @return whether key is before key range
+     */
+    public boolean before(String key) {
+        return Objects.nonNull(startAfter) && key.compareTo(startAfter) <= 0;
+    }
+
+    /**
+     * Whether key is after the inclusive end of the key range.
+     *
+     * @param key object key
+     * @return whether key is after key range
+     */
+    public boolean after(String key) {
+        return Objects.nonNull(end) && key.compareTo(end) > 0;
+    }
+
+    /**
+     * Partition the entire keyspace into contiguous key ranges split on numeric
+     * boundaries, as DRS keys begin with a numeric NSS or reversed NSS.
+     *
+     * <p>
+     * 4 shards results in (, 2], (2, 5], (5, 7], (7, )
+     * </p>
+     *
+     * @param shards desired number of key ranges
+     * @return ordered key ranges covering the entire keyspace
+     */
+    public static List<KeyRange> shards(int shards) {
+        int digits = 1;
+        long scale = 10;
+        while (scale < shards) {
+            scale *= 10;
+            digits++;
+        }
+
+        List<String> boundaries = new ArrayList<>();
+        for (int i = 1; i < shards; i++) {
+            String boundary = leftPad(String.valueOf(i * scale / shards), digits, '0');
+            if (!boundaries.contains(boundary)) {
+                boundaries.add(boundary);
+            }
+        }
+
+        List<KeyRange> ranges = new ArrayList<>();
+        String startAfter = null;
+        for (String boundary : boundaries) {
+            ranges.add(new KeyRange(startAfter, boundary));
+            startAfter = boundary;
+        }
+        ranges.add(new KeyRange(startAfter, null));
+
+        return ranges;
+    }
+
+}
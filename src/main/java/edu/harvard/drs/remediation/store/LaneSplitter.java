@@ -0,0 +1,248 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Splitter of pages of objects into a lane of small objects and a lane of large objects,
+ * each iterated by its own consumer. Small objects, below the multipart threshold, are
+ * partitioned in listing order up to max objects. Large objects are partitioned one per
+ * partition, largest first among up to lookahead large objects buffered. Either lane lists
+ * pages from the source when its own buffer runs short, one lane at a time and outside the
+ * lock, so the other lane keeps taking buffered objects while a page is listed. The large
+ * lane waits while the small object buffer is full. The small lane spills large objects
+ * beyond lookahead in listing order, up to spill factor times lookahead, and only waits
+ * for the large lane once the spill is full, so large objects bound memory but not the
+ * progress of small objects.
+ */
+public class LaneSplitter {
+
+    static final int SPILL_FACTOR = 16;
+
+    private final Iterator<List<S3Object>> source;
+
+    private final long threshold;
+
+    private final int maxObjects;
+
+    private final int lookahead;
+
+    private final Deque<S3Object> small;
+
+    private final PriorityQueue<S3Object> large;
+
+    private final Deque<S3Object> spilled;
+
+    private final ReentrantLock lock;
+
+    private final Condition changed;
+
+    private boolean listing;
+
+    private boolean exhausted;
+
+    private long smallObjects;
+
+    private long largeObjects;
+
+    /**
+     * Lane splitter constructor.
+     *
+     * @param source     source iterator of pages of objects
+     * @param threshold  min size in bytes of large objects
+     * @param maxObjects max number of small objects of each partition
+     * @param lookahead  max number of large objects buffered to order largest first
+     */
+    public LaneSplitter(Iterator<List<S3Object>> source, long threshold, int maxObjects, int lookahead) {
+        this.source = source;
+        this.threshold = threshold;
+        this.maxObjects = Math.max(1, maxObjects);
+        this.lookahead = Math.max(1, lookahead);
+        this.small = new ArrayDeque<>();
+        this.large = new PriorityQueue<>(Comparator.comparingLong(LaneSplitter::size).reversed());
+        this.spilled = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        this.changed = lock.newCondition();
+        this.listing = false;
+        this.exhausted = false;
+        this.smallObjects = 0;
+        this.largeObjects = 0;
+    }
+
+    /**
+     * Iterator of partitions of small objects.
+     *
+     * @return small object lane
+     */
+    public Iterator<List<S3Object>> small() {
+        return new Lane(true);
+    }
+
+    /**
+     * Iterator of partitions of one large object each, largest first.
+     *
+     * @return large object lane
+     */
+    public Iterator<List<S3Object>> large() {
+        return new Lane(false);
+    }
+
+    /**
+     * Number of small objects routed.
+     *
+     * @return small objects
+     */
+    public long smallObjects() {
+        lock.lock();
+        try {
+            return smallObjects;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of large objects routed.
+     *
+     * @return large objects
+     */
+    public long largeObjects() {
+        lock.lock();
+        try {
+            return largeObjects;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fill(boolean smallLane) throws InterruptedException {
+        while (!exhausted && (smallLane ? small.size() < maxObjects : large.isEmpty())) {
+            // one lane lists at a time, and a lane waits while the other is too far behind
+            boolean wait = listing || (smallLane
+                ? spilled.size() >= (long) lookahead * SPILL_FACTOR
+                : small.size() >= maxObjects);
+            if (wait) {
+                changed.await();
+                continue;
+            }
+            listing = true;
+            List<S3Object> page = null;
+            lock.unlock();
+            try {
+                page = source.hasNext() ? source.next() : null;
+            } finally {
+                lock.lock();
+                listing = false;
+                changed.signalAll();
+            }
+            if (Objects.isNull(page)) {
+                exhausted = true;
+            } else {
+                route(page);
+            }
+        }
+    }
+
+    private void route(List<S3Object> page) {
+        for (S3Object object : page) {
+            if (size(object) >= threshold) {
+                if (large.size() < lookahead) {
+                    large.add(object);
+                } else {
+                    spilled.addLast(object);
+                }
+                largeObjects++;
+            } else {
+                small.addLast(object);
+                smallObjects++;
+            }
+        }
+    }
+
+    private static long size(S3Object object) {
+        return Objects.nonNull(object.size()) ? object.size() : 0;
+    }
+
+    private final class Lane implements Iterator<List<S3Object>> {
+
+        private final boolean smallLane;
+
+        private Lane(boolean smallLane) {
+            this.smallLane = smallLane;
+        }
+
+        @Override
+        public boolean hasNext() {
+            lock.lock();
+            try {
+                fill(smallLane);
+
+                return smallLane ? !small.isEmpty() : !large.isEmpty();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted while awaiting objects", e);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        @Override
+        public List<S3Object> next() {
+            // fill releases the lock while listing, so it is not held across hasNext
+            while (hasNext()) {
+                lock.lock();
+                try {
+                    if (smallLane ? small.isEmpty() : large.isEmpty()) {
+                        continue;
+                    }
+                    List<S3Object> partition = new ArrayList<>();
+                    if (smallLane) {
+                        while (!small.isEmpty() && partition.size() < maxObjects) {
+                            partition.add(small.removeFirst());
+                        }
+                    } else {
+                        partition.add(large.poll());
+                        if (!spilled.isEmpty()) {
+                            large.add(spilled.removeFirst());
+                        }
+                    }
+                    changed.signalAll();
+
+                    return partition;
+                } finally {
+                    lock.unlock();
+                }
+            }
+
+            throw new NoSuchElementException();
+        }
+
+    }
+
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Iterator concurrently draining multiple source iterators, each on its own daemon
+ * thread, merging their elements into a single iterator in order of arrival. Once any
+ * source fails, or the iterator is closed, threads still draining are interrupted.
+ */
+@Slf4j
+public class MergingIterator<T> implements Iterator<T>, AutoCloseable {
+
+    private final BlockingQueue<Element<T>> queue;
+
+    private final List<Thread> threads;
+
+    private final int sources;
+
+    private int completed;
+
+    private Element<T> next;
+
+    private volatile boolean closed;
+
+    /**
+     * Merging iterator constructor.
+     *
+     * @param iterators source iterators to drain concurrently
+     * @param capacity  max number of elements buffered ahead of consumption
+     */
+    public MergingIterator(List<Iterator<T>> iterators, int capacity) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.sources = iterators.size();
+        this.completed = 0;
+        this.threads = new ArrayList<>(sources);
+        this.closed = false;
+
+        for (int i = 0; i < sources; i++) {
+            Iterator<T> iterator = iterators.get(i);
+            Thread thread = new Thread(() -> drain(iterator), "merge-" + i);
+            thread.setDaemon(true);
+            threads.add(thread);
+        }
+        threads.forEach(Thread::start);
+    }
+
+    @Override
+    public synchronized boolean hasNext() {
+        while (next == null && completed < sources && !closed) {
+            Element<T> element = take();
+            if (element.error != null) {
+                // remaining sources would block buffering elements no longer taken
+                close();
+                throw new RuntimeException("Failed to iterate source", element.error);
+            } else if (element.done) {
+                completed++;
+            } else {
+                next = element;
+            }
+        }
+
+        return next != null;
+    }
+
+    @Override
+    public synchronized T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next.value;
+        next = null;
+
+        return value;
+    }
+
+    /**
+     * Interrupt threads draining sources, discarding elements not yet consumed.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        threads.forEach(Thread::interrupt);
+    }
+
+    private void drain(Iterator<T> iterator) {
+        try {
+            while (iterator.hasNext()) {
+                queue.put(new Element<>(iterator.next(), null, false));
+            }
+            queue.put(new Element<>(null, null, true));
+        } catch (InterruptedException e) {
+            // closed, elements are no longer consumed
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            if (Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            log.error("Error while attempting to iterate source", e);
+            // other sources would keep the queue full ahead of the error
+            threads.stream()
+                .filter(thread -> thread != Thread.currentThread())
+                .forEach(Thread::interrupt);
+            try {
+                queue.put(new Element<>(null, e, true));
+            } catch (InterruptedException ie) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Element<T> take() {
+        try {
+            return queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while awaiting element", e);
+        }
+    }
+
+    private static class Element<T> {
+
+        private final T value;
+
+        private final Exception error;
+
+        private final boolean done;
+
+        Element(T value, Exception error, boolean done) {
+            this.value = value;
+            this.error = error;
+            this.done = done;
+        }
+
+    }
+
+}
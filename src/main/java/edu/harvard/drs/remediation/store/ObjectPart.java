@@ -19,12 +19,13 @@ package edu.harvard.drs.remediation.store;
 import lombok.Data;
 
 /**
- * Object part POJO for multipart upload representing part number and its byte start position.
+ * Object part POJO for multipart upload representing part number, its byte start position and length.
  */
 @Data
 public class ObjectPart {
 
     private final Integer number;
     private final Long position;
+    private final Long length;
 
 }
@@ -18,6 +18,9 @@ package edu.harvard.drs.remediation.store;
 
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
 /**
@@ -32,6 +35,20 @@ public interface ObjectStore {
      */
     int count();
 
+    /**
+     * Count objects in the bucket reporting running total as counting progresses.
+     * Progress may be reported concurrently from multiple threads.
+     *
+     * @param progress consumer of running total
+     * @return bucket total count
+     */
+    default int count(IntConsumer progress) {
+        int count = count();
+        progress.accept(count);
+
+        return count;
+    }
+
     /**
      * Iterator of the object store.
      *
@@ -54,6 +71,63 @@ public interface ObjectStore {
      */
     int rename(S3Object source, String destinationKey);
 
+    /**
+     * Rename object source key with destination key asynchronously, completing with
+     * the same status code as rename. Renames synchronously unless overridden.
+     *
+     * @param source         source object to rename
+     * @param destinationKey desired name of source object
+     *
+     * @return future of status code
+     */
+    default CompletableFuture<Integer> renameAsync(S3Object source, String destinationKey) {
+        return CompletableFuture.completedFuture(rename(source, destinationKey));
+    }
+
+    /**
+     * Copy object source key to destination key, verifying the copy, without deleting
+     * the source object. Return status code as rename.
+     *
+     * @param source         source object to copy
+     * @param destinationKey desired name of source object
+     *
+     * @return status code
+     */
+    int copy(S3Object source, String destinationKey);
+
+    /**
+     * Copy object source key to destination key asynchronously, completing with the
+     * same status code as copy. Copies synchronously unless overridden.
+     *
+     * @param source         source object to copy
+     * @param destinationKey desired name of source object
+     *
+     * @return future of status code
+     */
+    default CompletableFuture<Integer> copyAsync(S3Object source, String destinationKey) {
+        return CompletableFuture.completedFuture(copy(source, destinationKey));
+    }
+
+    /**
+     * Number of write requests to copy object, one unless copied in multiple parts.
+     *
+     * @param source source object to copy
+     *
+     * @return request count
+     */
+    default int copyRequests(S3Object source) {
+        return 1;
+    }
+
+    /**
+     * Delete objects in batches.
+     *
+     * @param objects objects to delete
+     *
+     * @return keys of objects failed to delete
+     */
+    Set<String> delete(List<S3Object> objects);
+
     /**
      * Close object store.
      */
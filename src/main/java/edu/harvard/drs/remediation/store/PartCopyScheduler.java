@@ -0,0 +1,170 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartsInFlight;
+import static edu.harvard.drs.remediation.utility.RuntimeUtils.availableProcessors;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import software.amazon.awssdk.core.exception.SdkClientException;
+
+/**
+ * Scheduler of multipart copy parts on dedicated threads. The number of threads bounds
+ * parts in flight across every object copied, and objects take turns, one part at a time,
+ * so a very large object does not hold every thread while other objects wait.
+ */
+public class PartCopyScheduler {
+
+    private final int limit;
+
+    private final Deque<Queue<FutureTask<?>>> objects;
+
+    private boolean closed;
+
+    /**
+     * Part copy scheduler constructor.
+     *
+     * @param limit max parts in flight
+     */
+    public PartCopyScheduler(int limit) {
+        this.limit = Math.max(1, limit);
+        this.objects = new ArrayDeque<>();
+        this.closed = false;
+
+        for (int i = 0; i < this.limit; i++) {
+            Thread worker = new Thread(this::work, "part-copy-" + i);
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Max parts in flight, when not configured available processors.
+     *
+     * @return max parts in flight
+     */
+    public static int maxPartsInFlight() {
+        return getAwsMaxPartsInFlight() > 0
+            ? getAwsMaxPartsInFlight()
+            : availableProcessors();
+    }
+
+    /**
+     * Copy parts of an object, blocking until every part has been copied. Remaining
+     * parts are cancelled when any part fails.
+     *
+     * @param <T>   type of copied part
+     * @param parts part copies
+     * @return copied parts in order of parts
+     * @throws RuntimeException exception of failed part
+     */
+    public <T> List<T> copy(List<Callable<T>> parts) {
+        List<FutureTask<T>> tasks = new ArrayList<>();
+        Queue<FutureTask<?>> queue = new ArrayDeque<>();
+        for (Callable<T> part : parts) {
+            FutureTask<T> task = new FutureTask<>(part);
+            tasks.add(task);
+            queue.add(task);
+        }
+
+        synchronized (this) {
+            if (closed) {
+                throw new IllegalStateException("Part copy scheduler is closed");
+            }
+            if (!queue.isEmpty()) {
+                objects.add(queue);
+                notifyAll();
+            }
+        }
+
+        List<T> copied = new ArrayList<>();
+        try {
+            for (FutureTask<T> task : tasks) {
+                copied.add(task.get());
+            }
+        } catch (ExecutionException e) {
+            cancel(queue, tasks);
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw SdkClientException.create("Error while attempting to copy part", e.getCause());
+        } catch (InterruptedException e) {
+            cancel(queue, tasks);
+            Thread.currentThread().interrupt();
+            throw SdkClientException.create("Interrupted while attempting to copy parts", e);
+        }
+
+        return copied;
+    }
+
+    /**
+     * Max parts in flight.
+     *
+     * @return limit
+     */
+    public int limit() {
+        return limit;
+    }
+
+    /**
+     * Stop scheduler threads once queued parts have been copied.
+     */
+    public synchronized void close() {
+        closed = true;
+        notifyAll();
+    }
+
+    private <T> void cancel(Queue<FutureTask<?>> queue, List<FutureTask<T>> tasks) {
+        synchronized (this) {
+            objects.remove(queue);
+        }
+        tasks.forEach(task -> task.cancel(false));
+    }
+
+    private void work() {
+        while (true) {
+            FutureTask<?> task;
+            synchronized (this) {
+                while (objects.isEmpty() && !closed) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (objects.isEmpty()) {
+                    return;
+                }
+                // next part of the object waiting longest, object returns to the back of the line
+                Queue<FutureTask<?>> queue = objects.poll();
+                task = queue.poll();
+                if (!queue.isEmpty()) {
+                    objects.add(queue);
+                }
+            }
+            task.run();
+        }
+    }
+
+}
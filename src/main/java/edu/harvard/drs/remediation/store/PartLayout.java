@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.lang.Integer.parseInt;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Part layout of multipart source objects, the part boundaries the source was uploaded
+ * with. Copying with the same boundaries results in a destination etag identical to the
+ * source etag. Recently resolved layouts are cached by source key and etag.
+ */
+public class PartLayout {
+
+    static final int MAX_CACHED = 256;
+
+    private final Map<String, List<ObjectPart>> cache;
+
+    /**
+     * Part layout constructor.
+     */
+    public PartLayout() {
+        this.cache = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, List<ObjectPart>> eldest) {
+                return size() > MAX_CACHED;
+            }
+
+        });
+    }
+
+    /**
+     * Number of parts of a multipart etag, {@code <md5>-<part count>}.
+     *
+     * @param etag object etag
+     * @return part count, 0 when not a multipart etag
+     */
+    public static int partCount(String etag) {
+        int index = etag.lastIndexOf('-');
+        if (index < 0) {
+            return 0;
+        }
+
+        try {
+            return parseInt(etag.substring(index + 1).replace("\"", ""), 10);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * Parts of uniform layout, every part the size of the first except the last.
+     *
+     * @param size          object size
+     * @param firstPartSize size of first part
+     * @param lastPartSize  size of last part
+     * @param partCount     number of parts
+     * @return parts in part number order, empty when sizes are not of a uniform layout
+     */
+    public static List<ObjectPart> uniform(long size, long firstPartSize, long lastPartSize, int partCount) {
+        if (partCount < 1 || lastPartSize < 1 || lastPartSize > firstPartSize
+            || firstPartSize * (partCount - 1) + lastPartSize != size) {
+            return Collections.emptyList();
+        }
+
+        List<ObjectPart> parts = new ArrayList<>(partCount);
+        for (int number = 1; number <= partCount; number++) {
+            long position = firstPartSize * (number - 1);
+            parts.add(new ObjectPart(number, position, number < partCount ? firstPartSize : lastPartSize));
+        }
+
+        return parts;
+    }
+
+    /**
+     * Parts of layout from size of each part.
+     *
+     * @param size        object size
+     * @param partLengths size of each part in part number order
+     * @return parts in part number order, empty when sizes do not add up to object size
+     */
+    public static List<ObjectPart> of(long size, List<Long> partLengths) {
+        List<ObjectPart> parts = new ArrayList<>(partLengths.size());
+        long position = 0;
+        for (long length : partLengths) {
+            if (length < 1) {
+                return Collections.emptyList();
+            }
+            parts.add(new ObjectPart(parts.size() + 1, position, length));
+            position += length;
+        }
+
+        return position == size ? parts : Collections.emptyList();
+    }
+
+    /**
+     * Cached layout of source object.
+     *
+     * @param source source object
+     * @return parts in part number order, null when not cached
+     */
+    public List<ObjectPart> cached(S3Object source) {
+        return cache.get(cacheKey(source));
+    }
+
+    /**
+     * Cache layout of source object.
+     *
+     * @param source source object
+     * @param parts  parts in part number order
+     * @return parts
+     */
+    public List<ObjectPart> cache(S3Object source, List<ObjectPart> parts) {
+        if (!parts.isEmpty()) {
+            cache.put(cacheKey(source), parts);
+        }
+
+        return parts;
+    }
+
+    private String cacheKey(S3Object source) {
+        return source.key() + "\t" + source.eTag();
+    }
+
+}
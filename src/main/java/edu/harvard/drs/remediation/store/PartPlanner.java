@@ -0,0 +1,114 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Multipart copy part planner choosing part size of each object from its size. Parts are
+ * at least the configured part size, grown to copy the object in about the target part
+ * count, within the S3 limits of 10,000 parts and 5 GiB per part.
+ */
+public class PartPlanner {
+
+    static final int MAX_PARTS = 10000;
+
+    static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    static final long MAX_PART_SIZE = 5L * 1024 * 1024 * 1024;
+
+    private static final long MIB = 1024 * 1024;
+
+    private final long partSize;
+
+    private final int targetPartCount;
+
+    /**
+     * Part planner constructor.
+     *
+     * @param partSize        minimum part size
+     * @param targetPartCount target number of parts, 0 only grows part size to the part limit
+     */
+    public PartPlanner(long partSize, int targetPartCount) {
+        this.partSize = Math.min(Math.max(partSize, MIN_PART_SIZE), MAX_PART_SIZE);
+        this.targetPartCount = targetPartCount > 0
+            ? Math.min(targetPartCount, MAX_PARTS)
+            : MAX_PARTS;
+    }
+
+    /**
+     * Part size of object, rounded up to whole MiB when grown.
+     *
+     * @param size object size
+     * @return part size
+     */
+    public long partSize(long size) {
+        long targetPartSize = ceilDiv(size, targetPartCount);
+        if (targetPartSize <= partSize) {
+            return partSize;
+        }
+
+        return Math.min(ceilDiv(targetPartSize, MIB) * MIB, MAX_PART_SIZE);
+    }
+
+    /**
+     * Number of parts of object.
+     *
+     * @param size object size
+     * @return part count
+     */
+    public int partCount(long size) {
+        return (int) ceilDiv(size, partSize(size));
+    }
+
+    /**
+     * Number of requests to copy object, creating and completing the multipart upload
+     * along with copy of each part.
+     *
+     * @param size object size
+     * @return request count
+     */
+    public int requests(long size) {
+        return partCount(size) + 2;
+    }
+
+    /**
+     * Plan parts of object.
+     *
+     * @param size object size
+     * @return parts in part number order
+     */
+    public List<ObjectPart> plan(long size) {
+        long length = partSize(size);
+
+        List<ObjectPart> parts = new ArrayList<>();
+
+        int partNumber = 0;
+
+        for (long position = 0; position < size; position += length) {
+            parts.add(new ObjectPart(++partNumber, position, Math.min(length, size - position)));
+        }
+
+        return parts;
+    }
+
+    private static long ceilDiv(long dividend, long divisor) {
+        return (dividend + divisor - 1) / divisor;
+    }
+
+}
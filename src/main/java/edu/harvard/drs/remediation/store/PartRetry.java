@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Retry of multipart copy parts failing with client errors, throttling or server errors.
+ * Each retry waits an exponential backoff with jitter, so a single failed part is retried
+ * rather than failing the copy of the whole object.
+ */
+@Slf4j
+public class PartRetry {
+
+    static final long MAX_BACKOFF = 30000;
+
+    private final int retries;
+
+    private final long backoff;
+
+    /**
+     * Part retry constructor.
+     *
+     * @param retries max retries of each part
+     * @param backoff milliseconds backoff of first retry, doubled each retry
+     */
+    public PartRetry(int retries, long backoff) {
+        this.retries = Math.max(0, retries);
+        this.backoff = Math.max(0, backoff);
+    }
+
+    /**
+     * Part copy retried on retryable failure.
+     *
+     * @param <T>  type of copied part
+     * @param part part copy
+     * @return retrying part copy
+     */
+    public <T> Callable<T> retrying(Callable<T> part) {
+        return () -> {
+            int attempt = 0;
+            while (true) {
+                try {
+                    return part.call();
+                } catch (SdkClientException | S3Exception e) {
+                    if (attempt >= retries || !retryable(e)) {
+                        throw e;
+                    }
+                    long delay = delay(++attempt);
+                    log.warn("retry {} of part in {} milliseconds: {}", attempt, delay, e.getMessage());
+                    Thread.sleep(delay);
+                }
+            }
+        };
+    }
+
+    long delay(int attempt) {
+        long delay = Math.min(backoff << Math.min(attempt - 1, 20), MAX_BACKOFF);
+
+        return delay > 1
+            ? ThreadLocalRandom.current().nextLong(delay / 2, delay + 1)
+            : delay;
+    }
+
+    static boolean retryable(RuntimeException e) {
+        if (e instanceof S3Exception) {
+            int statusCode = ((S3Exception) e).statusCode();
+            return statusCode == 429 || statusCode >= 500;
+        }
+
+        return e instanceof SdkClientException;
+    }
+
+}
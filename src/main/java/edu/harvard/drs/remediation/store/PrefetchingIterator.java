@@ -0,0 +1,192 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Iterator fetching pages of objects from a source iterator on a background thread
+ * ahead of demand. Lookahead is bounded by number of pages, number of objects and
+ * estimated heap bytes of queued objects. At least one page is always allowed
+ * regardless of its size.
+ */
+@Slf4j
+public class PrefetchingIterator implements Iterator<List<S3Object>> {
+
+    // approximate retained heap of an S3 object excluding its key and etag characters
+    static final long OBJECT_OVERHEAD = 256;
+
+    private final Iterator<List<S3Object>> source;
+
+    private final int maxPages;
+
+    private final long maxObjects;
+
+    private final long maxBytes;
+
+    private final Deque<List<S3Object>> pages;
+
+    private final ReentrantLock lock;
+
+    private final Condition notEmpty;
+
+    private final Condition notFull;
+
+    private long objects;
+
+    private long bytes;
+
+    private boolean done;
+
+    private Exception error;
+
+    /**
+     * Prefetching iterator constructor.
+     *
+     * @param source     source iterator of pages of objects
+     * @param maxPages   max number of pages queued ahead of demand
+     * @param maxObjects max number of objects queued ahead of demand
+     * @param maxBytes   max estimated heap bytes queued ahead of demand
+     */
+    public PrefetchingIterator(Iterator<List<S3Object>> source, int maxPages, long maxObjects, long maxBytes) {
+        this.source = source;
+        this.maxPages = maxPages;
+        this.maxObjects = maxObjects;
+        this.maxBytes = maxBytes;
+        this.pages = new ArrayDeque<>();
+        this.lock = new ReentrantLock();
+        this.notEmpty = lock.newCondition();
+        this.notFull = lock.newCondition();
+
+        Thread thread = new Thread(this::fetch, "prefetch");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @Override
+    public boolean hasNext() {
+        lock.lock();
+        try {
+            while (pages.isEmpty() && !done) {
+                notEmpty.await();
+            }
+            if (pages.isEmpty() && Objects.nonNull(error)) {
+                throw new RuntimeException("Failed to prefetch objects", error);
+            }
+
+            return !pages.isEmpty();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while awaiting objects", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public List<S3Object> next() {
+        lock.lock();
+        try {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            List<S3Object> page = pages.removeFirst();
+            objects -= page.size();
+            bytes -= estimate(page);
+            notFull.signal();
+
+            return page;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Number of objects currently queued ahead of demand.
+     *
+     * @return queued objects
+     */
+    public long queued() {
+        lock.lock();
+        try {
+            return objects;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void fetch() {
+        try {
+            while (source.hasNext()) {
+                List<S3Object> page = source.next();
+                long size = estimate(page);
+
+                lock.lock();
+                try {
+                    while (!pages.isEmpty() && full(page.size(), size)) {
+                        log.debug("prefetch full with {} pages, {} objects, {} bytes", pages.size(), objects, bytes);
+                        notFull.await();
+                    }
+                    pages.addLast(page);
+                    objects += page.size();
+                    bytes += size;
+                    notEmpty.signal();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error while attempting to prefetch objects", e);
+            error = e;
+        } finally {
+            lock.lock();
+            try {
+                done = true;
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private boolean full(int count, long size) {
+        return pages.size() >= maxPages
+            || objects + count > maxObjects
+            || bytes + size > maxBytes;
+    }
+
+    static long estimate(List<S3Object> page) {
+        long size = 0;
+        for (S3Object object : page) {
+            size += OBJECT_OVERHEAD
+                + (Objects.nonNull(object.key()) ? object.key().length() : 0)
+                + (Objects.nonNull(object.eTag()) ? object.eTag().length() : 0);
+        }
+
+        return size;
+    }
+
+}
@@ -0,0 +1,185 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Token bucket rate limiter of requests per key prefix. Each prefix accrues tokens at
+ * its rate up to one second of burst, and a request reserves a token, to be made once
+ * the token accrues. When a prefix is throttled its rate is halved, down to a minimum,
+ * and recovers linearly to the configured rate over a minute.
+ */
+@Slf4j
+public class PrefixRateLimiter {
+
+    static final int MIN_RATE_DIVISOR = 32;
+
+    static final long RECOVERY = SECONDS.toNanos(60);
+
+    static final long IDLE = SECONDS.toNanos(60);
+
+    static final int MAX_PREFIXES = 100000;
+
+    private static final String PATH_SEPARATOR = "/";
+
+    private final double rate;
+
+    private final double minRate;
+
+    private final Map<String, Bucket> buckets;
+
+    /**
+     * Prefix rate limiter constructor.
+     *
+     * @param rate max requests per second of each prefix
+     */
+    public PrefixRateLimiter(double rate) {
+        this.rate = rate;
+        this.minRate = rate / MIN_RATE_DIVISOR;
+        this.buckets = new HashMap<>();
+    }
+
+    /**
+     * Prefix of key through depth path segments, the whole key when not as deep.
+     *
+     * @param key   object key
+     * @param depth number of path segments
+     * @return prefix of key
+     */
+    public static String prefix(String key, int depth) {
+        int index = -1;
+        for (int i = 0; i < depth; i++) {
+            index = key.indexOf(PATH_SEPARATOR, index + 1);
+            if (index < 0) {
+                return key;
+            }
+        }
+
+        return key.substring(0, index + 1);
+    }
+
+    /**
+     * Reserve a request of prefix.
+     *
+     * @param prefix key prefix
+     * @return nanoseconds to wait before the request
+     */
+    public long reserve(String prefix) {
+        return reserve(prefix, 1);
+    }
+
+    /**
+     * Reserve requests of prefix made together.
+     *
+     * @param prefix   key prefix
+     * @param requests number of requests
+     * @return nanoseconds to wait before the requests
+     */
+    public long reserve(String prefix, int requests) {
+        return reserve(prefix, requests, System.nanoTime());
+    }
+
+    synchronized long reserve(String prefix, int requests, long now) {
+        Bucket bucket = bucket(prefix, now);
+        bucket.refill(now);
+        bucket.tokens -= requests;
+
+        return bucket.tokens >= 0
+            ? 0
+            : (long) (-bucket.tokens / bucket.rate * SECONDS.toNanos(1));
+    }
+
+    /**
+     * Record request of prefix throttled, halving its rate.
+     *
+     * @param prefix key prefix
+     */
+    public void throttled(String prefix) {
+        throttled(prefix, System.nanoTime());
+    }
+
+    synchronized void throttled(String prefix, long now) {
+        Bucket bucket = bucket(prefix, now);
+        bucket.refill(now);
+        double throttledRate = Math.max(minRate, bucket.rate / 2);
+        if (throttledRate < bucket.rate) {
+            log.warn("prefix {} throttled, lowering rate from {} to {} requests per second",
+                prefix, Math.round(bucket.rate), Math.round(throttledRate));
+        }
+        bucket.rate = throttledRate;
+        bucket.tokens = Math.min(bucket.tokens, bucket.rate);
+    }
+
+    /**
+     * Current rate of prefix.
+     *
+     * @param prefix key prefix
+     * @return requests per second
+     */
+    public synchronized double rate(String prefix) {
+        Bucket bucket = buckets.get(prefix);
+
+        return bucket == null ? rate : bucket.rate;
+    }
+
+    private Bucket bucket(String prefix, long now) {
+        Bucket bucket = buckets.get(prefix);
+        if (bucket == null) {
+            if (buckets.size() >= MAX_PREFIXES) {
+                // prefixes idle through recovery are indistinguishable from new prefixes
+                buckets.values().removeIf(b -> now - b.updated > IDLE);
+            }
+            bucket = new Bucket(rate, now);
+            buckets.put(prefix, bucket);
+        }
+
+        return bucket;
+    }
+
+    private final class Bucket {
+
+        private double rate;
+
+        private double tokens;
+
+        private long updated;
+
+        private Bucket(double rate, long now) {
+            this.rate = rate;
+            this.tokens = rate;
+            this.updated = now;
+        }
+
+        private void refill(long now) {
+            long elapsed = Math.max(0, now - updated);
+            double seconds = (double) elapsed / SECONDS.toNanos(1);
+            // rate recovers linearly from minimum to configured rate over recovery period
+            double recovered = Math.min(PrefixRateLimiter.this.rate,
+                rate + (PrefixRateLimiter.this.rate - minRate) * elapsed / RECOVERY);
+            tokens = Math.min(recovered, tokens + seconds * rate);
+            rate = recovered;
+            updated = now;
+        }
+
+    }
+
+}
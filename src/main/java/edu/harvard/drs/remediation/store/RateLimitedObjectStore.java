@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Object store rate limiting renames and copies by key prefix. A copy is a write to the
+ * destination prefix, {@code xxxx/yyyy/}, and a rename additionally deletes from the source
+ * prefix, {@code nss/}. A multipart copy reserves a request for each of its parts and a batch
+ * delete a request for each of its keys. Each request waits for its prefixes within the
+ * prefix rate limiter before being made by the delegate object store, blocking the calling
+ * thread unless the delegate object store is asynchronous.
+ */
+@Slf4j
+public class RateLimitedObjectStore implements ObjectStore {
+
+    static final int SOURCE_DEPTH = 1;
+
+    static final int DESTINATION_DEPTH = 2;
+
+    private final ObjectStore store;
+
+    private final PrefixRateLimiter limiter;
+
+    private final boolean async;
+
+    /**
+     * Rate limited object store constructor.
+     *
+     * @param store   object store to rate limit
+     * @param limiter prefix rate limiter
+     * @param async   whether object store renames asynchronously, waiting without blocking
+     */
+    public RateLimitedObjectStore(ObjectStore store, PrefixRateLimiter limiter, boolean async) {
+        this.store = store;
+        this.limiter = limiter;
+        this.async = async;
+    }
+
+    @Override
+    public int count() {
+        return store.count();
+    }
+
+    @Override
+    public int count(IntConsumer progress) {
+        return store.count(progress);
+    }
+
+    @Override
+    public Iterator<List<S3Object>> iterator() {
+        return store.iterator();
+    }
+
+    @Override
+    public int rename(S3Object source, String destinationKey) {
+        if (!acquire(renameWait(source, destinationKey))) {
+            return -1;
+        }
+
+        return store.rename(source, destinationKey);
+    }
+
+    @Override
+    public CompletableFuture<Integer> renameAsync(S3Object source, String destinationKey) {
+        if (!async) {
+            return CompletableFuture.completedFuture(rename(source, destinationKey));
+        }
+
+        return delay(renameWait(source, destinationKey))
+            .thenCompose(v -> store.renameAsync(source, destinationKey));
+    }
+
+    @Override
+    public int copy(S3Object source, String destinationKey) {
+        if (!acquire(copyWait(source, destinationKey))) {
+            return -1;
+        }
+
+        return store.copy(source, destinationKey);
+    }
+
+    @Override
+    public CompletableFuture<Integer> copyAsync(S3Object source, String destinationKey) {
+        if (!async) {
+            return CompletableFuture.completedFuture(copy(source, destinationKey));
+        }
+
+        return delay(copyWait(source, destinationKey))
+            .thenCompose(v -> store.copyAsync(source, destinationKey));
+    }
+
+    @Override
+    public int copyRequests(S3Object source) {
+        return store.copyRequests(source);
+    }
+
+    @Override
+    public Set<String> delete(List<S3Object> objects) {
+        long wait = 0;
+        for (S3Object object : objects) {
+            wait = Math.max(wait, limiter.reserve(PrefixRateLimiter.prefix(object.key(), SOURCE_DEPTH)));
+        }
+        if (!acquire(wait)) {
+            return objects.stream()
+                .map(S3Object::key)
+                .collect(Collectors.toSet());
+        }
+
+        return store.delete(objects);
+    }
+
+    @Override
+    public void close() {
+        store.close();
+    }
+
+    private long copyWait(S3Object source, String destinationKey) {
+        return limiter.reserve(PrefixRateLimiter.prefix(destinationKey, DESTINATION_DEPTH),
+            Math.max(1, store.copyRequests(source)));
+    }
+
+    private long renameWait(S3Object source, String destinationKey) {
+        // copy and delete reserved together, waiting for the later of the two prefixes
+        return Math.max(copyWait(source, destinationKey),
+            limiter.reserve(PrefixRateLimiter.prefix(source.key(), SOURCE_DEPTH)));
+    }
+
+    private boolean acquire(long wait) {
+        if (wait > 0) {
+            try {
+                NANOSECONDS.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.error("Interrupted while waiting on prefix rate limit", e);
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static CompletableFuture<Void> delay(long wait) {
+        return wait > 0
+            ? CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(wait, NANOSECONDS))
+            : CompletableFuture.completedFuture(null);
+    }
+
+}
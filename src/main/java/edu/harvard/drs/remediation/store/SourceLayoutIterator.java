@@ -0,0 +1,311 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CommonPrefix;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Iterator of partitions of objects within a key range skipping already remediated
+ * prefixes. Top-level common prefixes are listed with a delimiter and classified;
+ * a 4 digit top-level prefix whose second-level prefixes are also 4 digits is the
+ * remediated layout (5472/6010/nss/...) and is not listed. Every other prefix is the
+ * source layout (nss/...), and each contiguous run of source layout prefixes between
+ * remediated prefixes is listed in key order as a single listing, ending on reaching
+ * the next remediated prefix.
+ */
+@Slf4j
+class SourceLayoutIterator implements Iterator<List<S3Object>> {
+
+    private static final String DELIMITER = "/";
+
+    private final S3Client s3;
+
+    private final String bucketName;
+
+    private final int maxKeys;
+
+    private final KeyRange range;
+
+    private final Iterator<Entry> top;
+
+    private Iterator<Entry> second;
+
+    private Iterator<S3Object> current;
+
+    private String previousTop;
+
+    private String previousSecond;
+
+    private Entry peeked;
+
+    private String last;
+
+    private boolean continued;
+
+    private S3Object next;
+
+    private boolean done;
+
+    /**
+     * Source layout iterator constructor.
+     *
+     * @param s3         S3 client
+     * @param bucketName AWS bucket name
+     * @param maxKeys    max keys for listing objects and partition size
+     * @param range      key range to list
+     */
+    SourceLayoutIterator(S3Client s3, String bucketName, int maxKeys, KeyRange range) {
+        this.s3 = s3;
+        this.bucketName = bucketName;
+        this.maxKeys = maxKeys;
+        this.range = range;
+        this.top = entries(null);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (Objects.isNull(next) && !done) {
+            next = advance();
+            done = Objects.isNull(next);
+        }
+
+        return Objects.nonNull(next);
+    }
+
+    @Override
+    public List<S3Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<S3Object> objects = new ArrayList<>();
+        while (objects.size() < maxKeys && hasNext()) {
+            objects.add(next);
+            next = null;
+        }
+
+        return objects;
+    }
+
+    private S3Object advance() {
+        while (true) {
+            if (Objects.nonNull(current)) {
+                if (current.hasNext()) {
+                    S3Object object = current.next();
+                    if (range.after(object.key())) {
+                        // objects are ordered, nothing beyond the end of the key range
+                        return null;
+                    }
+                    if (reached(object.key())) {
+                        current = null;
+                        continue;
+                    }
+                    last = object.key();
+
+                    return object;
+                }
+                // run continues beyond its first entry until the next remediated prefix
+                current = !continued && Objects.nonNull(last)
+                    ? objects(null, last)
+                    : null;
+                continued = true;
+                continue;
+            }
+
+            Entry entry = take();
+            if (Objects.isNull(entry)) {
+                return null;
+            }
+
+            if (entry.remediated) {
+                log.debug("skipping remediated prefix {}", entry.key);
+            } else if (Objects.nonNull(entry.object)) {
+                if (!range.before(entry.key)) {
+                    current = Collections.singletonList(entry.object).iterator();
+                    last = null;
+                    continued = false;
+                }
+            } else {
+                current = objects(entry.key, range.getStartAfter());
+                last = null;
+                continued = false;
+            }
+        }
+    }
+
+    // take entries listed by the run up to key, a remediated prefix ends the run
+    private boolean reached(String key) {
+        while (Objects.nonNull(peek()) && peek().key.compareTo(key) <= 0) {
+            Entry entry = take();
+            if (entry.remediated) {
+                log.debug("skipping remediated prefix {}", entry.key);
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private Entry peek() {
+        if (Objects.isNull(peeked)) {
+            peeked = entry();
+        }
+
+        return peeked;
+    }
+
+    private Entry take() {
+        Entry entry = peek();
+        peeked = null;
+
+        return entry;
+    }
+
+    private Entry entry() {
+        while (true) {
+            Entry entry;
+            boolean nested = false;
+            if (Objects.nonNull(second) && second.hasNext()) {
+                entry = second.next();
+                nested = true;
+                if (!follows(entry.key, previousSecond)) {
+                    continue;
+                }
+                previousSecond = entry.key;
+            } else if (top.hasNext()) {
+                second = null;
+                entry = top.next();
+                if (!follows(entry.key, previousTop)) {
+                    continue;
+                }
+                previousTop = entry.key;
+            } else {
+                return null;
+            }
+
+            if (range.after(entry.key)) {
+                // entries are ordered, nothing beyond the end of the key range
+                if (nested) {
+                    second = null;
+                    continue;
+                }
+                return null;
+            }
+
+            if (Objects.isNull(entry.object)
+                && isFourDigits(entry.key, nested ? entry.key.indexOf(DELIMITER) + 1 : 0)) {
+                if (nested) {
+                    return new Entry(entry.key, null, true);
+                }
+                second = entries(entry.key);
+                previousSecond = null;
+                continue;
+            }
+
+            return entry;
+        }
+    }
+
+    private Iterator<Entry> entries(String prefix) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(this.bucketName)
+            .maxKeys(this.maxKeys)
+            .prefix(prefix)
+            .delimiter(DELIMITER)
+            .startAfter(range.getStartAfter())
+            .build();
+
+        return this.s3.listObjectsV2Paginator(request)
+            .stream()
+            .flatMap(this::pageEntries)
+            .iterator();
+    }
+
+    private Stream<Entry> pageEntries(ListObjectsV2Response response) {
+        Stream<Entry> prefixes = response.commonPrefixes()
+            .stream()
+            .map(CommonPrefix::prefix)
+            .map(p -> new Entry(p, null, false));
+        Stream<Entry> objects = response.contents()
+            .stream()
+            .map(o -> new Entry(o.key(), o, false));
+
+        return Stream.concat(prefixes, objects)
+            .sorted((e1, e2) -> e1.key.compareTo(e2.key));
+    }
+
+    private Iterator<S3Object> objects(String prefix, String startAfter) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(this.bucketName)
+            .maxKeys(this.maxKeys)
+            .prefix(prefix)
+            .startAfter(startAfter)
+            .build();
+
+        return this.s3.listObjectsV2Paginator(request)
+            .contents()
+            .iterator();
+    }
+
+    // some S3 compatible stores repeat a common prefix on consecutive pages
+    private static boolean follows(String key, String previous) {
+        return Objects.isNull(previous) || key.compareTo(previous) > 0;
+    }
+
+    private static boolean isFourDigits(String prefix, int offset) {
+        if (prefix.length() != offset + 5 || !prefix.endsWith(DELIMITER)) {
+            return false;
+        }
+        for (int i = offset; i < offset + 4; i++) {
+            char c = prefix.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static class Entry {
+
+        private final String key;
+
+        private final S3Object object;
+
+        private final boolean remediated;
+
+        Entry(String key, S3Object object, boolean remediated) {
+            this.key = key;
+            this.object = object;
+            this.remediated = remediated;
+        }
+
+    }
+
+}
@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.store.RateLimitedObjectStore.DESTINATION_DEPTH;
+import static edu.harvard.drs.remediation.store.RateLimitedObjectStore.SOURCE_DEPTH;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.SdkRequest;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.core.interceptor.ExecutionInterceptor;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+
+/**
+ * S3 client execution interceptor reporting every attempt of a write request answered
+ * with 503 Slow Down, including attempts retried by the client, as throttling of the
+ * key prefix written to the prefix rate limiter. The body of each 503 response is read
+ * for its error code, so other 503 errors are not reported as throttling.
+ */
+public class ThrottleInterceptor implements ExecutionInterceptor {
+
+    static final String SLOW_DOWN = "SlowDown";
+
+    private static final int SERVICE_UNAVAILABLE = 503;
+
+    private static final Pattern ERROR_CODE = Pattern.compile("<Code>([^<]*)</Code>");
+
+    private final PrefixRateLimiter limiter;
+
+    /**
+     * Throttle interceptor constructor.
+     *
+     * @param limiter prefix rate limiter to report throttling to
+     */
+    public ThrottleInterceptor(PrefixRateLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Optional<InputStream> modifyHttpResponseContent(
+        Context.ModifyHttpResponse context,
+        ExecutionAttributes executionAttributes
+    ) {
+        Optional<InputStream> body = context.responseBody();
+        if (context.httpResponse().statusCode() != SERVICE_UNAVAILABLE || body.isEmpty()) {
+            return body;
+        }
+
+        // error body is small, read whole and replaced for the client to unmarshal
+        byte[] content;
+        try (InputStream in = body.get()) {
+            content = in.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to read service unavailable response", e);
+        }
+        throttled(context.request(), content);
+
+        return Optional.of(new ByteArrayInputStream(content));
+    }
+
+    @Override
+    public Optional<Publisher<ByteBuffer>> modifyAsyncHttpResponseContent(
+        Context.ModifyHttpResponse context,
+        ExecutionAttributes executionAttributes
+    ) {
+        Optional<Publisher<ByteBuffer>> body = context.responsePublisher();
+        if (context.httpResponse().statusCode() != SERVICE_UNAVAILABLE || body.isEmpty()) {
+            return body;
+        }
+
+        SdkRequest request = context.request();
+
+        return Optional.of(new CopyingPublisher(body.get(), content -> throttled(request, content)));
+    }
+
+    static String errorCode(byte[] content) {
+        Matcher matcher = ERROR_CODE.matcher(new String(content, StandardCharsets.UTF_8));
+
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private void throttled(SdkRequest request, byte[] content) {
+        if (SLOW_DOWN.equals(errorCode(content))) {
+            prefixes(request).forEach(limiter::throttled);
+        }
+    }
+
+    static Set<String> prefixes(SdkRequest request) {
+        if (request instanceof CopyObjectRequest) {
+            return Set.of(PrefixRateLimiter.prefix(((CopyObjectRequest) request).destinationKey(),
+                DESTINATION_DEPTH));
+        }
+        if (request instanceof UploadPartCopyRequest) {
+            return Set.of(PrefixRateLimiter.prefix(((UploadPartCopyRequest) request).destinationKey(),
+                DESTINATION_DEPTH));
+        }
+        if (request instanceof CreateMultipartUploadRequest) {
+            return Set.of(PrefixRateLimiter.prefix(((CreateMultipartUploadRequest) request).key(),
+                DESTINATION_DEPTH));
+        }
+        if (request instanceof CompleteMultipartUploadRequest) {
+            return Set.of(PrefixRateLimiter.prefix(((CompleteMultipartUploadRequest) request).key(),
+                DESTINATION_DEPTH));
+        }
+        if (request instanceof DeleteObjectRequest) {
+            return Set.of(PrefixRateLimiter.prefix(((DeleteObjectRequest) request).key(), SOURCE_DEPTH));
+        }
+        if (request instanceof DeleteObjectsRequest) {
+            // batch delete throttles every source prefix of its keys
+            return ((DeleteObjectsRequest) request).delete().objects().stream()
+                .map(object -> PrefixRateLimiter.prefix(object.key(), SOURCE_DEPTH))
+                .collect(Collectors.toSet());
+        }
+
+        return Set.of();
+    }
+
+    /**
+     * Response body publisher copying the body as it is published, passing the whole body
+     * to a consumer once complete.
+     */
+    private static final class CopyingPublisher implements Publisher<ByteBuffer> {
+
+        private final Publisher<ByteBuffer> publisher;
+
+        private final Consumer<byte[]> consumer;
+
+        private CopyingPublisher(Publisher<ByteBuffer> publisher, Consumer<byte[]> consumer) {
+            this.publisher = publisher;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void subscribe(Subscriber<? super ByteBuffer> subscriber) {
+            ByteArrayOutputStream content = new ByteArrayOutputStream();
+            publisher.subscribe(new Subscriber<ByteBuffer>() {
+
+                @Override
+                public void onSubscribe(Subscription subscription) {
+                    subscriber.onSubscribe(subscription);
+                }
+
+                @Override
+                public void onNext(ByteBuffer buffer) {
+                    ByteBuffer copy = buffer.duplicate();
+                    byte[] bytes = new byte[copy.remaining()];
+                    copy.get(bytes);
+                    content.write(bytes, 0, bytes.length);
+                    subscriber.onNext(buffer);
+                }
+
+                @Override
+                public void onError(Throwable t) {
+                    subscriber.onError(t);
+                }
+
+                @Override
+                public void onComplete() {
+                    consumer.accept(content.toByteArray());
+                    subscriber.onComplete();
+                }
+
+            });
+        }
+
+    }
+
+}
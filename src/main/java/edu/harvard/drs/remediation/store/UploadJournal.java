@@ -0,0 +1,213 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+
+import java.io.IOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Upload journal persisting open multipart copies and their copied parts, so a copy
+ * interrupted by failure or restart resumes its upload rather than starting over. Each
+ * line of the file is an upload started, a part copied or an upload ended, with tab
+ * separated URL encoded fields. The journal is compacted to open uploads when loaded.
+ */
+@Slf4j
+public class UploadJournal {
+
+    private static final String SEPARATOR = "\t";
+
+    private static final String UPLOAD = "upload";
+
+    private static final String PART = "part";
+
+    private static final String END = "end";
+
+    private final Path path;
+
+    private final Map<String, Upload> uploads;
+
+    /**
+     * Upload journal constructor.
+     *
+     * @param path path to upload journal file
+     */
+    public UploadJournal(String path) {
+        this.path = Paths.get(path);
+        this.uploads = read(this.path);
+        compact();
+    }
+
+    /**
+     * Open upload of destination key copying source etag.
+     *
+     * @param destinationKey destination object key
+     * @param sourceEtag     source object etag
+     * @return open upload, null when none or of a different source etag
+     */
+    public synchronized Upload upload(String destinationKey, String sourceEtag) {
+        Upload upload = uploads.get(destinationKey);
+
+        return Objects.nonNull(upload) && upload.getSourceEtag().equals(sourceEtag)
+            ? upload
+            : null;
+    }
+
+    /**
+     * Open uploads.
+     *
+     * @return open uploads
+     */
+    public synchronized List<Upload> uploads() {
+        return new ArrayList<>(uploads.values());
+    }
+
+    /**
+     * Record upload started.
+     *
+     * @param destinationKey destination object key
+     * @param sourceEtag     source object etag
+     * @param uploadId       multipart upload id
+     */
+    public synchronized void started(String destinationKey, String sourceEtag, String uploadId) {
+        uploads.put(destinationKey, new Upload(destinationKey, sourceEtag, uploadId));
+        append(UPLOAD, destinationKey, sourceEtag, uploadId);
+    }
+
+    /**
+     * Record part copied.
+     *
+     * @param destinationKey destination object key
+     * @param partNumber     part number
+     * @param etag           part etag
+     */
+    public synchronized void copied(String destinationKey, int partNumber, String etag) {
+        Upload upload = uploads.get(destinationKey);
+        if (Objects.nonNull(upload)) {
+            upload.getParts().put(partNumber, etag);
+            append(PART, destinationKey, String.valueOf(partNumber), etag);
+        }
+    }
+
+    /**
+     * Record upload ended, either completed or aborted.
+     *
+     * @param destinationKey destination object key
+     */
+    public synchronized void ended(String destinationKey) {
+        if (Objects.nonNull(uploads.remove(destinationKey))) {
+            append(END, destinationKey);
+        }
+    }
+
+    private void append(String... fields) {
+        try {
+            Files.write(path, Arrays.asList(line(fields)), UTF_8, CREATE, APPEND);
+        } catch (IOException e) {
+            log.error("Error while attempting to append upload journal", e);
+        }
+    }
+
+    private synchronized void compact() {
+        List<String> lines = new ArrayList<>();
+        for (Upload upload : uploads.values()) {
+            lines.add(line(UPLOAD, upload.getDestinationKey(), upload.getSourceEtag(), upload.getUploadId()));
+            upload.getParts().forEach((partNumber, etag) ->
+                lines.add(line(PART, upload.getDestinationKey(), String.valueOf(partNumber), etag)));
+        }
+
+        try {
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, lines, UTF_8);
+            Files.move(temp, path, REPLACE_EXISTING, ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to compact upload journal", e);
+        }
+    }
+
+    private static String line(String... fields) {
+        return Arrays.stream(fields)
+            .map(UploadJournal::encode)
+            .collect(Collectors.joining(SEPARATOR));
+    }
+
+    private static Map<String, Upload> read(Path path) {
+        Map<String, Upload> uploads = new HashMap<>();
+        if (Files.exists(path)) {
+            try {
+                for (String line : Files.readAllLines(path, UTF_8)) {
+                    String[] fields = Arrays.stream(line.split(SEPARATOR, -1))
+                        .map(UploadJournal::decode)
+                        .toArray(String[]::new);
+                    if (fields.length == 4 && UPLOAD.equals(fields[0])) {
+                        uploads.put(fields[1], new Upload(fields[1], fields[2], fields[3]));
+                    } else if (fields.length == 4 && PART.equals(fields[0]) && uploads.containsKey(fields[1])) {
+                        uploads.get(fields[1]).getParts().put(Integer.parseInt(fields[2]), fields[3]);
+                    } else if (fields.length == 2 && END.equals(fields[0])) {
+                        uploads.remove(fields[1]);
+                    }
+                }
+                log.info("upload journal loaded with {} open uploads from {}", uploads.size(), path);
+            } catch (IOException | NumberFormatException e) {
+                throw new RuntimeException("Failed to read upload journal", e);
+            }
+        }
+
+        return uploads;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, UTF_8);
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, UTF_8);
+    }
+
+    /**
+     * Open multipart upload of destination key along with etag of each copied part.
+     */
+    @Data
+    public static class Upload {
+
+        private final String destinationKey;
+        private final String sourceEtag;
+        private final String uploadId;
+        private final Map<Integer, String> parts = new TreeMap<>();
+
+    }
+
+}
@@ -0,0 +1,110 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Iterator re-chunking pages of objects into work units balanced by bytes rather than
+ * by number of objects. Objects are taken in listing order, across pages, into a unit
+ * until adding the next would exceed max bytes or max objects. An object of at least max
+ * bytes is a unit of its own, so a partition of large objects no longer runs long after
+ * every other partition has completed.
+ */
+public class WorkUnitIterator implements Iterator<List<S3Object>> {
+
+    private final Iterator<List<S3Object>> source;
+
+    private final long maxBytes;
+
+    private final int maxObjects;
+
+    private Iterator<S3Object> page;
+
+    private S3Object pending;
+
+    /**
+     * Work unit iterator constructor.
+     *
+     * @param source     source iterator of pages of objects
+     * @param maxBytes   max bytes of objects of each unit
+     * @param maxObjects max number of objects of each unit
+     */
+    public WorkUnitIterator(Iterator<List<S3Object>> source, long maxBytes, int maxObjects) {
+        this.source = source;
+        this.maxBytes = Math.max(1, maxBytes);
+        this.maxObjects = Math.max(1, maxObjects);
+        this.page = Collections.emptyIterator();
+        this.pending = null;
+    }
+
+    @Override
+    public boolean hasNext() {
+        return Objects.nonNull(peek());
+    }
+
+    @Override
+    public List<S3Object> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        List<S3Object> unit = new ArrayList<>();
+        long bytes = 0;
+
+        S3Object object;
+        while (Objects.nonNull(object = peek())) {
+            long size = size(object);
+            if (!unit.isEmpty() && (size >= maxBytes || bytes + size > maxBytes || unit.size() >= maxObjects)) {
+                break;
+            }
+            unit.add(object);
+            bytes += size;
+            pending = null;
+            if (size >= maxBytes) {
+                break;
+            }
+        }
+
+        return unit;
+    }
+
+    private S3Object peek() {
+        while (Objects.isNull(pending)) {
+            if (page.hasNext()) {
+                pending = page.next();
+            } else if (source.hasNext()) {
+                page = source.next().iterator();
+            } else {
+                break;
+            }
+        }
+
+        return pending;
+    }
+
+    private static long size(S3Object object) {
+        return Objects.nonNull(object.size()) ? object.size() : 0;
+    }
+
+}
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.lang.System.nanoTime;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Adaptive concurrency controller adjusting the number of partitions processed
+ * concurrently with additive increase and multiplicative decrease. Rename latency and
+ * errors are recorded over a window, and at the end of each window the limit is
+ * decreased when the error rate or 90th percentile latency show congestion, and
+ * otherwise increased, doubling until congestion is first seen and by one thereafter.
+ */
+@Slf4j
+public class AdaptiveConcurrency {
+
+    static final double DECREASE = 0.7;
+
+    static final double ERROR_RATE = 0.01;
+
+    static final double LATENCY_FACTOR = 2.0;
+
+    static final double BASELINE_DRIFT = 1.05;
+
+    static final int MIN_SAMPLES = 20;
+
+    private final int min;
+
+    private final int max;
+
+    private final long interval;
+
+    private final List<Double> latencies;
+
+    private int errors;
+
+    private long windowStart;
+
+    private int limit;
+
+    private boolean slowStart;
+
+    private double baseline;
+
+    /**
+     * Adaptive concurrency constructor.
+     *
+     * @param min      min concurrency
+     * @param max      max concurrency
+     * @param interval minimum milliseconds of each window
+     */
+    public AdaptiveConcurrency(int min, int max, long interval) {
+        this.min = Math.max(1, min);
+        this.max = Math.max(this.min, max);
+        this.interval = interval * 1000000;
+        this.latencies = new ArrayList<>();
+        this.errors = 0;
+        this.windowStart = nanoTime();
+        this.limit = this.min;
+        this.slowStart = true;
+        this.baseline = Double.NaN;
+    }
+
+    /**
+     * Current concurrency limit.
+     *
+     * @return limit
+     */
+    public synchronized int limit() {
+        return limit;
+    }
+
+    /**
+     * Record a remediated object.
+     *
+     * @param elapsed milliseconds elapsed remediating object
+     * @param result  result of remediation
+     */
+    public void record(double elapsed, int result) {
+        record(elapsed, result, nanoTime());
+    }
+
+    synchronized void record(double elapsed, int result, long now) {
+        latencies.add(elapsed);
+        if (result < 0) {
+            errors++;
+        }
+
+        if (now - windowStart >= interval && latencies.size() >= MIN_SAMPLES) {
+            adjust();
+            latencies.clear();
+            errors = 0;
+            windowStart = now;
+        }
+    }
+
+    private void adjust() {
+        Collections.sort(latencies);
+
+        double p50 = percentile(latencies, 0.5);
+        double p90 = percentile(latencies, 0.9);
+        double errorRate = (double) errors / latencies.size();
+
+        boolean congested = errorRate > ERROR_RATE
+            || (!Double.isNaN(baseline) && p90 > baseline * LATENCY_FACTOR);
+
+        // baseline drifts upward so a change in object size mix is not congestion forever
+        baseline = Double.isNaN(baseline)
+            ? p90
+            : Math.min(p90, baseline * BASELINE_DRIFT);
+
+        int previous = limit;
+        if (congested) {
+            limit = Math.max(min, (int) (limit * DECREASE));
+            slowStart = false;
+        } else if (slowStart) {
+            limit = Math.min(max, limit * 2);
+        } else {
+            limit = Math.min(max, limit + 1);
+        }
+
+        log.info("concurrency {} -> {}: p50 {} ms, p90 {} ms, error rate {} of {} objects",
+            previous, limit, Math.round(p50), Math.round(p90), errorRate, latencies.size());
+    }
+
+    static double percentile(List<Double> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+
+        return sorted.get(Math.max(0, Math.min(index, sorted.size() - 1)));
+    }
+
+}
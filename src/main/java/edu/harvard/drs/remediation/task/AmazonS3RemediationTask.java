@@ -16,17 +16,25 @@
 
 package edu.harvard.drs.remediation.task;
 
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsBatchDelete;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getVerifyOnly;
 import static edu.harvard.drs.remediation.utility.TimeUtils.elapsed;
-import static java.lang.String.format;
-import static org.apache.commons.lang3.StringUtils.isNumeric;
-import static org.apache.commons.lang3.StringUtils.leftPad;
-import static org.apache.commons.lang3.StringUtils.reverse;
 
+import edu.harvard.drs.remediation.checkpoint.Checkpoint;
+import edu.harvard.drs.remediation.store.InFlightLimiter;
 import edu.harvard.drs.remediation.store.ObjectStore;
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import software.amazon.awssdk.services.s3.model.S3Object;
@@ -35,11 +43,12 @@ import software.amazon.awssdk.services.s3.model.S3Object;
  * Amazon S3 remediation task to rename object source key using provided lookup
  * table.
  */
+@Slf4j
 public class AmazonS3RemediationTask implements ProcessTask {
 
     private static final Logger remediation = LoggerFactory.getLogger("remediation");
 
-    private static final String PATH_SEPARATOR = "/";
+    private static final KeyMapper NSS_KEY_MAPPER = new NssKeyMapper();
 
     private final Instant start;
 
@@ -47,39 +56,90 @@ public class AmazonS3RemediationTask implements ProcessTask {
 
     private final List<S3Object> objects;
 
+    private final Checkpoint checkpoint;
+
     private final String id;
 
     private final boolean verifyOnly;
 
+    private final boolean batchDelete;
+
+    private final Executor executor;
+
+    private final InFlightLimiter limiter;
+
+    private final AdaptiveConcurrency controller;
+
+    private final KeyMapper keys;
+
+    private final List<Remediation> deletions;
+
+    private final List<S3Object> completed;
+
+    private AmazonS3RemediationTask(Builder builder) {
+        this.start = builder.start;
+        this.s3 = builder.s3;
+        this.objects = builder.objects;
+        this.checkpoint = builder.checkpoint;
+        this.id = UUID.randomUUID().toString();
+        this.verifyOnly = getVerifyOnly();
+        this.batchDelete = builder.batchDelete;
+        this.executor = builder.executor;
+        this.limiter = new InFlightLimiter(Math.max(1, builder.concurrency));
+        this.controller = builder.controller;
+        this.keys = builder.keys;
+        this.deletions = new ArrayList<>();
+        this.completed = new ArrayList<>();
+    }
+
     /**
-     * Amazon S3 remediation task constructor.
+     * Amazon S3 remediation task builder. Objects are remediated one at a time on the
+     * task thread, without checkpoint or adaptive concurrency, unless set otherwise.
      *
      * @param start   start instant
      * @param s3      object store to remediate
      * @param objects list of S3 objects to remediate
+     * @return builder of remediation task
      */
-    public AmazonS3RemediationTask(
-        Instant start,
-        ObjectStore s3,
-        List<S3Object> objects
-    ) {
-        this.start = start;
-        this.s3 = s3;
-        this.objects = objects;
-        this.id = UUID.randomUUID().toString();
-        this.verifyOnly = getVerifyOnly();
+    public static Builder builder(Instant start, ObjectStore s3, List<S3Object> objects) {
+        return new Builder(start, s3, objects);
     }
 
     @Override
     public ProcessTask execute() {
-        this.objects.forEach(this::remediate);
+        // objects may complete out of order, rows are logged in order of the partition
+        CompletableFuture<Void> logged = CompletableFuture.completedFuture(null);
+        try {
+            for (S3Object object : this.objects) {
+                logged = logged.thenCombine(process(object), (v, outcome) -> {
+                    log(outcome);
+                    return null;
+                });
+            }
+            logged.join();
+        } finally {
+            // copies already made are not left without their source objects deleted
+            if (!this.deletions.isEmpty()) {
+                delete();
+            }
+        }
 
         return this;
     }
 
     @Override
     public void complete() {
-        this.s3.close();
+        if (Objects.nonNull(this.checkpoint)) {
+            // objects without a final result, including those of a partition failed to execute, are retried
+            Set<String> completedKeys = this.completed.stream()
+                .map(S3Object::key)
+                .collect(Collectors.toSet());
+            this.checkpoint.failed(this.objects.stream()
+                .filter(object -> !completedKeys.contains(object.key()))
+                .collect(Collectors.toList()));
+            this.checkpoint.completed(List.copyOf(this.completed));
+        }
+        // object store is shared by every task, closed once remediation completes
     }
 
     @Override
@@ -87,6 +147,11 @@ public class AmazonS3RemediationTask implements ProcessTask {
         return id;
     }
 
+    @Override
+    public int size() {
+        return objects.size();
+    }
+
     /**
      * Remediate S3 object key by renaming.
      *
@@ -94,35 +159,55 @@ public class AmazonS3RemediationTask implements ProcessTask {
      * @return result of rename
      */
     int remediate(S3Object object) {
-        // skip any object modified after beginning of the remediation process
-        if (object.lastModified().isAfter(start)) {
-            return 5;
-        }
+        return remediateAsync(object).join();
+    }
 
-        int result = 0;
+    /**
+     * Remediate S3 object key by renaming asynchronously.
+     *
+     * @param object S3 object
+     * @return future of result of rename
+     */
+    CompletableFuture<Integer> remediateAsync(S3Object object) {
+        return process(object).thenApply(outcome -> {
+            log(outcome);
 
-        long startTime = System.nanoTime();
+            return outcome.result;
+        });
+    }
 
-        String destinationKey = null;
+    /**
+     * Whether result of remediating an object is final: renamed, key not mappable or already
+     * renamed. Failed, skipped, verified only and modified objects are not completed.
+     *
+     * @param result result of rename
+     * @return whether object is completed
+     */
+    static boolean completes(int result) {
+        return result == 0 || result == 2 || result == 3;
+    }
 
-        if (verifyRename(object.key())) {
-            result = 3;
-        } else if (verifyOnly) {
-            result = 4;
-        } else {
-            try {
-                destinationKey = mapKey(object.key());
+    /**
+     * Delete source objects of verified copies in batches, logging each rename as
+     * success or as error when its source object failed to delete.
+     */
+    void delete() {
+        Set<String> failed = this.s3.delete(this.deletions.stream()
+            .map(d -> d.object)
+            .collect(Collectors.toList()));
 
-                result = this.s3.rename(object, destinationKey);
-            } catch (NumberFormatException e) {
-                result = 2;
+        for (Remediation deletion : this.deletions) {
+            S3Object object = deletion.object;
+            int result = failed.contains(object.key()) ? -1 : 0;
+            if (result == 0) {
+                this.completed.add(object);
             }
+            remediation.info("{},{},{},{},{},{}",
+                object.key(), deletion.destinationKey, object.eTag(), object.size(), result,
+                elapsed(deletion.startTime));
         }
 
-        remediation.info("{},{},{},{},{},{}",
-            object.key(), destinationKey, object.eTag(), object.size(), result, elapsed(startTime));
-
-        return result;
+        this.deletions.clear();
     }
 
     /**
@@ -139,22 +224,7 @@ public class AmazonS3RemediationTask implements ProcessTask {
      * @throws NumberFormatException not a number
      */
     String mapKey(String key) throws NumberFormatException {
-        // parse root "folder" from object key
-        String nss = key.contains(PATH_SEPARATOR)
-            ? key.substring(0, key.indexOf(PATH_SEPARATOR))
-            : key;
-
-        // ensure nss is a number
-        Long.parseLong(nss);
-
-        String reversedNss = reverse(leftPad(nss, 8, "0"));
-
-        return format(
-            "%s/%s/%s",
-            reversedNss.substring(0, 4),
-            reversedNss.substring(4, 8),
-            key
-        );
+        return this.keys.mapKey(key);
     }
 
     /**
@@ -164,31 +234,213 @@ public class AmazonS3RemediationTask implements ProcessTask {
      * @return whether the key has already been renamed according to spec
      */
     boolean verifyRename(String key) {
-        boolean verified = true;
-        String[] path = key.split("/");
-        if (path.length < 3) {
-            // less than expected number of folders
-            verified = false;
+        return this.keys.verifyRename(key);
+    }
+
+    private CompletableFuture<Remediation> process(S3Object object) {
+        // skip any object modified after beginning of the remediation process
+        if (object.lastModified().isAfter(start)) {
+            return CompletableFuture.completedFuture(new Remediation(object, null, System.nanoTime(), 5));
         }
-        if (verified && !isNumeric(path[0]) && path[0].length() != 4) {
-            // 1st folder is not 4 digit number
-            verified = false;
+
+        CompletableFuture<Integer> result;
+
+        long startTime = System.nanoTime();
+
+        String destinationKey = null;
+
+        if (verifyRename(object.key())) {
+            result = CompletableFuture.completedFuture(3);
+        } else if (verifyOnly) {
+            result = CompletableFuture.completedFuture(4);
+        } else {
+            try {
+                destinationKey = mapKey(object.key());
+
+                result = rename(object, destinationKey);
+            } catch (NumberFormatException e) {
+                result = CompletableFuture.completedFuture(2);
+            } catch (RuntimeException e) {
+                result = CompletableFuture.failedFuture(e);
+            }
+        }
+
+        final String renamedKey = destinationKey;
+
+        // an object failing exceptionally does not fail the rest of the partition
+        return result
+            .exceptionally(e -> {
+                log.error("Error while attempting to remediate object {}", object.key(), e);
+                return -1;
+            })
+            .thenApply(r -> new Remediation(object, renamedKey, startTime, r));
+    }
+
+    private CompletableFuture<Integer> rename(S3Object object, String destinationKey) {
+        // with batch delete the source object is deleted once the partition is copied
+        Supplier<CompletableFuture<Integer>> request = () -> batchDelete
+            ? this.s3.copyAsync(object, destinationKey)
+            : this.s3.renameAsync(object, destinationKey);
+
+        if (Objects.isNull(this.executor)) {
+            return request.get();
+        }
+
+        return this.limiter.submit(() -> CompletableFuture.supplyAsync(request, this.executor)
+            .thenCompose(Function.identity()));
+    }
+
+    private void log(Remediation outcome) {
+        if (outcome.result == 5) {
+            // objects modified after start are not logged
+            return;
+        }
+        if (Objects.nonNull(this.controller) && Objects.nonNull(outcome.destinationKey)) {
+            // only renames requested of the store reflect its latency and errors
+            this.controller.record(outcome.elapsed, outcome.result);
+        }
+        if (batchDelete && outcome.result == 0 && Objects.nonNull(outcome.destinationKey)) {
+            // logged once deleted
+            this.deletions.add(outcome);
+            return;
         }
-        if (verified && !isNumeric(path[1]) && path[1].length() != 4) {
-            // 2nd folder is not 4 digit number
-            verified = false;
+        S3Object object = outcome.object;
+        if (completes(outcome.result)) {
+            this.completed.add(object);
         }
-        if (verified && !isNumeric(path[2])) {
-            // 3rd folder is not number
-            verified = false;
+        remediation.info("{},{},{},{},{},{}",
+            object.key(), outcome.destinationKey, object.eTag(), object.size(), outcome.result, outcome.elapsed);
+    }
+
+    /**
+     * Result of remediating an object, with time elapsed when completed.
+     */
+    private static final class Remediation {
+
+        private final S3Object object;
+
+        private final String destinationKey;
+
+        private final long startTime;
+
+        private final int result;
+
+        private final double elapsed;
+
+        private Remediation(S3Object object, String destinationKey, long startTime, int result) {
+            this.object = object;
+            this.destinationKey = destinationKey;
+            this.startTime = startTime;
+            this.result = result;
+            this.elapsed = elapsed(startTime);
         }
-        if (verified) {
-            String reversedNss = reverse(leftPad(path[2], 8, "0"));
-            verified = reversedNss.substring(0, 4).equals(path[0])
-                && reversedNss.substring(4, 8).equals(path[1]);
+
+    }
+
+    /**
+     * Builder of Amazon S3 remediation task.
+     */
+    public static class Builder {
+
+        private final Instant start;
+
+        private final ObjectStore s3;
+
+        private final List<S3Object> objects;
+
+        private Checkpoint checkpoint;
+
+        private Executor executor;
+
+        private int concurrency = 1;
+
+        private boolean batchDelete = getAwsBatchDelete();
+
+        private AdaptiveConcurrency controller;
+
+        private KeyMapper keys = NSS_KEY_MAPPER;
+
+        private Builder(Instant start, ObjectStore s3, List<S3Object> objects) {
+            this.start = start;
+            this.s3 = s3;
+            this.objects = objects;
+        }
+
+        /**
+         * Checkpoint to record completed objects.
+         *
+         * @param checkpoint checkpoint, null for none
+         * @return this builder
+         */
+        public Builder checkpoint(Checkpoint checkpoint) {
+            this.checkpoint = checkpoint;
+            return this;
+        }
+
+        /**
+         * Executor shared by tasks to remediate objects.
+         *
+         * @param executor executor, null remediates on task thread
+         * @return this builder
+         */
+        public Builder executor(Executor executor) {
+            this.executor = executor;
+            return this;
+        }
+
+        /**
+         * Max objects of partition remediated concurrently on executor.
+         *
+         * @param concurrency object concurrency
+         * @return this builder
+         */
+        public Builder concurrency(int concurrency) {
+            this.concurrency = concurrency;
+            return this;
+        }
+
+        /**
+         * Whether to delete source objects in batches once copied, defaults to AWS batch delete.
+         *
+         * @param batchDelete whether to batch delete
+         * @return this builder
+         */
+        public Builder batchDelete(boolean batchDelete) {
+            this.batchDelete = batchDelete;
+            return this;
+        }
+
+        /**
+         * Adaptive concurrency to record renames.
+         *
+         * @param controller adaptive concurrency, null for none
+         * @return this builder
+         */
+        public Builder controller(AdaptiveConcurrency controller) {
+            this.controller = controller;
+            return this;
+        }
+
+        /**
+         * Key mapper shared by tasks to map source keys to remediated keys, defaults to nss key mapper.
+         *
+         * @param keys key mapper
+         * @return this builder
+         */
+        public Builder keys(KeyMapper keys) {
+            this.keys = keys;
+            return this;
+        }
+
+        /**
+         * Build Amazon S3 remediation task.
+         *
+         * @return remediation task
+         */
+        public AmazonS3RemediationTask build() {
+            return new AmazonS3RemediationTask(this);
         }
 
-        return verified;
     }
 
 }
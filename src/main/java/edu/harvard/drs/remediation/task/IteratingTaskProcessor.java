@@ -17,35 +17,42 @@
 package edu.harvard.drs.remediation.task;
 
 import static java.lang.String.format;
-import static java.util.concurrent.Executors.newFixedThreadPool;
 
 import java.util.Iterator;
-import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.Objects;
 import java.util.concurrent.atomic.AtomicInteger;
 import lombok.extern.slf4j.Slf4j;
 
 /**
- * Concurrently process tasks at parallelism level until iterator completes.
+ * Concurrently process tasks at parallelism level until iterator completes. Tasks flow
+ * through a pipeline of stages: listing iterates tasks on its own thread, execution runs
+ * tasks on parallelism threads, and completion completes tasks on a single thread. Each
+ * stage feeds the next through a bounded queue, so listing runs ahead of execution by at
+ * most parallelism tasks. With adaptive concurrency the number of tasks executing follows
+ * the limit of the controller, up to parallelism.
  */
 @Slf4j
 public class IteratingTaskProcessor<T extends ProcessTask> {
 
-    private final long parallelism;
+    private final String name;
+
+    private final int parallelism;
 
     private final Iterator<T> iterator;
 
     private final Callback callback;
 
-    private final ExecutorService executor;
-
     private final AtomicInteger count;
 
     private final AtomicInteger total;
 
-    private final AtomicBoolean shuttingDown;
+    private final Progress progress;
+
+    private final Stage<ProcessTask> execution;
+
+    private final Stage<ProcessTask> completion;
+
+    private final Thread listing;
 
     /**
      * Iterating task processor constructor.
@@ -55,64 +62,147 @@ public class IteratingTaskProcessor<T extends ProcessTask> {
      * @param callback    callback for when iterator completes
      */
     public IteratingTaskProcessor(int parallelism, Iterator<T> iterator, Callback callback) {
-        this.parallelism = parallelism;
+        this(parallelism, iterator, callback, null);
+    }
+
+    /**
+     * Iterating task processor constructor with progress.
+     *
+     * @param parallelism parallelism desired for processing
+     * @param iterator    iterator of process tasks
+     * @param callback    callback for when iterator completes
+     * @param progress    progress to record processed items of completed tasks
+     */
+    public IteratingTaskProcessor(int parallelism, Iterator<T> iterator, Callback callback, Progress progress) {
+        this(parallelism, iterator, callback, progress, null);
+    }
+
+    /**
+     * Iterating task processor constructor with progress and adaptive concurrency.
+     *
+     * @param parallelism parallelism desired for processing, max tasks in progress
+     * @param iterator    iterator of process tasks
+     * @param callback    callback for when iterator completes
+     * @param progress    progress to record processed items of completed tasks
+     * @param concurrency adaptive concurrency limiting tasks in progress, null for parallelism
+     */
+    public IteratingTaskProcessor(
+        int parallelism,
+        Iterator<T> iterator,
+        Callback callback,
+        Progress progress,
+        AdaptiveConcurrency concurrency
+    ) {
+        this("task", parallelism, iterator, callback, progress, concurrency);
+    }
+
+    /**
+     * Named iterating task processor constructor with progress and adaptive concurrency.
+     *
+     * @param name        name of processor prefixing its stage threads
+     * @param parallelism parallelism desired for processing, max tasks in progress
+     * @param iterator    iterator of process tasks
+     * @param callback    callback for when iterator completes
+     * @param progress    progress to record processed items of completed tasks
+     * @param concurrency adaptive concurrency limiting tasks in progress, null for parallelism
+     */
+    public IteratingTaskProcessor(
+        String name,
+        int parallelism,
+        Iterator<T> iterator,
+        Callback callback,
+        Progress progress,
+        AdaptiveConcurrency concurrency
+    ) {
+        this.name = name;
+        this.parallelism = Math.max(1, parallelism);
         this.iterator = iterator;
         this.callback = callback;
-        this.executor = newFixedThreadPool(parallelism);
         this.count = new AtomicInteger();
         this.total = new AtomicInteger();
-        this.shuttingDown = new AtomicBoolean();
+        this.progress = progress;
+        this.execution = new Stage<>(name + "-execute", this.parallelism, this.parallelism, this::execute,
+            () -> Objects.nonNull(concurrency)
+                ? Math.min(this.parallelism, concurrency.limit())
+                : this.parallelism);
+        this.completion = new Stage<>(name + "-complete", 1, this.parallelism, this::complete);
+        this.listing = new Thread(this::list, name + "-list");
     }
 
     /**
      * Start iterating task processor.
      */
     public void start() {
-        int i = 0;
-        while (this.iterator.hasNext() && i++ < parallelism) {
-            submit(this.iterator.next());
-        }
+        this.execution.start();
+        this.completion.start();
+        this.listing.start();
     }
 
     /**
-     * Submit task to executor service.
+     * Submit task for execution, waiting while execution queue is full.
      *
-     * @param task process task to submit to executor service
+     * @param task process task to submit for execution
      */
     public void submit(ProcessTask task) {
-        log.info("submitting task {}: {}", this.count.incrementAndGet(), task.id());
-        CompletableFuture.supplyAsync(() -> {
-            try {
-                return task.execute();
-            } catch (Exception e) {
-                log.info(format("failed to execute task %s: %s", this.count.getAndDecrement(), task.id()), e);
-                return task;
+        log.info("submitting task {}: {} ({} queued)", this.count.incrementAndGet(), task.id(), this.execution.depth());
+        put(this.execution, task);
+    }
+
+    private void list() {
+        try {
+            while (this.iterator.hasNext()) {
+                submit(this.iterator.next());
             }
-        }, executor).thenAccept(t -> complete(t));
+        } catch (RuntimeException e) {
+            log.error("Failed to iterate tasks, draining tasks in progress", e);
+        }
+        shutdown();
+    }
+
+    private void execute(ProcessTask task) {
+        ProcessTask executed = task;
+        try {
+            executed = task.execute();
+        } catch (Exception e) {
+            log.info(format("failed to execute task %s: %s", this.count.get(), task.id()), e);
+        }
+        put(this.completion, executed);
     }
 
     private void complete(ProcessTask task) {
-        log.info("completing task {}: {} - {}", this.count.getAndDecrement(), task.id(), this.total.incrementAndGet());
+        log.info("completing task {}: {} - {} ({} queued)",
+            this.count.getAndDecrement(), task.id(), this.total.incrementAndGet(), this.completion.depth());
         task.complete();
-        if (this.iterator.hasNext()) {
-            submit(this.iterator.next());
-        } else {
-            if (this.shuttingDown.compareAndSet(false, true)) {
-                shutdown();
-            }
+        if (Objects.nonNull(this.progress)) {
+            this.progress.processed(task.size());
         }
     }
 
     private void shutdown() {
-        log.info("shutting down task processor waiting on {} tasks in progress", this.count.get());
-        executor.shutdown();
+        log.info("shutting down {} processor waiting on {} tasks in progress", name, this.count.get());
         try {
-            while (this.count.get() > 0 && !executor.awaitTermination(15, TimeUnit.SECONDS)) {}
+            // each stage drains before the stage it feeds is closed
+            this.execution.close();
+            this.execution.await();
+            this.completion.close();
+            this.completion.await();
         } catch (InterruptedException e) {
             log.error("Failed to await termination", e);
-            executor.shutdownNow();
+            this.execution.interrupt();
+            this.completion.interrupt();
+            Thread.currentThread().interrupt();
         }
         this.callback.complete();
     }
 
+    private static void put(Stage<ProcessTask> stage, ProcessTask task) {
+        try {
+            stage.put(task);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(
+                format("Interrupted while queueing task %s to stage %s", task.id(), stage.name()), e);
+        }
+    }
+
 }
@@ -0,0 +1,42 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+/**
+ * Key mapper interface, rewriting source object keys to remediated object keys. Shared
+ * by every task of a remediation, implementations must be thread safe.
+ */
+public interface KeyMapper {
+
+    /**
+     * Map source object key to remediated object key.
+     *
+     * @param key object key
+     * @return remediated object key
+     * @throws NumberFormatException root folder not resolved to a URN NSS
+     */
+    String mapKey(String key) throws NumberFormatException;
+
+    /**
+     * Perform multiple checks to determine if key is expected rename format.
+     *
+     * @param key s3 object key
+     * @return whether the key has already been renamed according to spec
+     */
+    boolean verifyRename(String key);
+
+}
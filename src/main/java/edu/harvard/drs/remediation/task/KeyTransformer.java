@@ -0,0 +1,215 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+/**
+ * Key transformer classifying and rewriting object keys in a single pass over their
+ * characters. The reversed, zero padded URN NSS is read in place from the key rather
+ * than built with intermediate strings, and a rewritten key is assembled in a buffer
+ * reused across keys, so only the rewritten key itself is allocated. Not thread safe,
+ * each thread holds its own.
+ */
+public class KeyTransformer {
+
+    static final int NSS_WIDTH = 8;
+
+    static final int FOLDER_WIDTH = 4;
+
+    private static final char PATH_SEPARATOR = '/';
+
+    private char[] buffer;
+
+    /**
+     * Key transformer constructor.
+     */
+    public KeyTransformer() {
+        this.buffer = new char[128];
+    }
+
+    /**
+     * Append reverse URN NSS paths to key.
+     *
+     * <p>
+     * 101062745/v00001/content/data/400094393.jp2
+     * to
+     * 5472/6010/101062745/v00001/content/data/400094393.jp2
+     * </p>
+     *
+     * @param key object key
+     * @return remediated object key
+     * @throws NumberFormatException root folder not a number
+     */
+    public String mapKey(String key) throws NumberFormatException {
+        int end = rootEnd(key);
+
+        // ensure nss is a number
+        parseLong(key, end);
+
+        return map(key, end, key, end);
+    }
+
+    /**
+     * Replace root path of key with URN NSS and append its reverse paths.
+     *
+     * <p>
+     * 400094390/v00001/content/data/400094393.jp2 with NSS 101062745
+     * to
+     * 5472/6010/101062745/v00001/content/data/400094393.jp2
+     * </p>
+     *
+     * @param key object key
+     * @param nss URN NSS of root folder of key
+     * @return remediated object key
+     * @throws NumberFormatException nss not a number
+     */
+    public String mapKey(String key, String nss) throws NumberFormatException {
+        // ensure nss is a number
+        parseLong(nss, nss.length());
+
+        return map(nss, nss.length(), key, rootEnd(key));
+    }
+
+    /**
+     * Perform multiple checks to determine if key is expected rename format.
+     *
+     * @param key s3 object key
+     * @return whether the key has already been renamed according to spec
+     */
+    public boolean verifyRename(String key) {
+        int first = key.indexOf(PATH_SEPARATOR);
+        if (first != FOLDER_WIDTH) {
+            // 1st folder is not 4 characters
+            return false;
+        }
+        int second = key.indexOf(PATH_SEPARATOR, first + 1);
+        if (second - first - 1 != FOLDER_WIDTH) {
+            // 2nd folder is not 4 characters, or less than expected number of folders
+            return false;
+        }
+        int third = key.indexOf(PATH_SEPARATOR, second + 1);
+        int start = second + 1;
+        int end = third < 0 ? key.length() : third;
+        if (start == end) {
+            // 3rd folder is empty
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            if (!Character.isDigit(key.charAt(i))) {
+                // 3rd folder is not number
+                return false;
+            }
+        }
+        for (int i = 0; i < FOLDER_WIDTH; i++) {
+            if (key.charAt(i) != reversed(key, start, end, i)
+                || key.charAt(first + 1 + i) != reversed(key, start, end, FOLDER_WIDTH + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Index of end of root folder of key.
+     */
+    private static int rootEnd(String key) {
+        int separator = key.indexOf(PATH_SEPARATOR);
+
+        return separator < 0 ? key.length() : separator;
+    }
+
+    /**
+     * Assemble reverse paths of nss, nss and key following its root folder.
+     */
+    private String map(String nss, int nssEnd, String key, int rootEnd) {
+        int length = FOLDER_WIDTH * 2 + 2 + nssEnd + key.length() - rootEnd;
+        if (buffer.length < length) {
+            buffer = new char[Math.max(length, buffer.length * 2)];
+        }
+        for (int i = 0; i < FOLDER_WIDTH; i++) {
+            buffer[i] = reversed(nss, 0, nssEnd, i);
+            buffer[FOLDER_WIDTH + 1 + i] = reversed(nss, 0, nssEnd, FOLDER_WIDTH + i);
+        }
+        buffer[FOLDER_WIDTH] = PATH_SEPARATOR;
+        buffer[FOLDER_WIDTH * 2 + 1] = PATH_SEPARATOR;
+        nss.getChars(0, nssEnd, buffer, FOLDER_WIDTH * 2 + 2);
+        key.getChars(rootEnd, key.length(), buffer, FOLDER_WIDTH * 2 + 2 + nssEnd);
+
+        return new String(buffer, 0, length);
+    }
+
+    /**
+     * Character at index of the reverse of the nss, left padded with zeros to width.
+     */
+    private static char reversed(String key, int start, int end, int index) {
+        int length = end - start;
+        int pad = Math.max(0, NSS_WIDTH - length);
+        int padded = Math.max(length, NSS_WIDTH) - 1 - index;
+
+        return padded < pad
+            ? '0'
+            : key.charAt(start + padded - pad);
+    }
+
+    /**
+     * Parse leading characters of key as a signed decimal long, as Long.parseLong.
+     */
+    private static long parseLong(String key, int end) throws NumberFormatException {
+        if (end == 0) {
+            throw new NumberFormatException("For input string: \"\"");
+        }
+
+        int i = 0;
+        boolean negative = false;
+        long limit = -Long.MAX_VALUE;
+
+        char first = key.charAt(0);
+        if (first < '0') {
+            if (first == '-') {
+                negative = true;
+                limit = Long.MIN_VALUE;
+            } else if (first != '+') {
+                throw invalid(key, end);
+            }
+            if (end == 1) {
+                throw invalid(key, end);
+            }
+            i++;
+        }
+
+        long multmin = limit / 10;
+        long result = 0;
+        while (i < end) {
+            int digit = Character.digit(key.charAt(i++), 10);
+            if (digit < 0 || result < multmin) {
+                throw invalid(key, end);
+            }
+            result *= 10;
+            if (result < limit + digit) {
+                throw invalid(key, end);
+            }
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    private static NumberFormatException invalid(String key, int end) {
+        return new NumberFormatException("For input string: \"" + key.substring(0, end) + "\"");
+    }
+
+}
@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static edu.harvard.drs.remediation.lookup.LongLookupTable.NO_VALUE;
+import static java.lang.String.format;
+
+import edu.harvard.drs.remediation.lookup.LongLookupTable;
+import edu.harvard.drs.remediation.lookup.ReadableLookupTable;
+import java.util.Objects;
+
+/**
+ * Key mapper resolving the root folder of keys as a DRS object id to its URN NSS through
+ * a lookup table, before prepending the reverse URN NSS paths. Keys whose root folder is
+ * not in the lookup table are mapped as URN NSS. A root folder both a DRS object id and
+ * the URN NSS of another object in the lookup table is ambiguous and not mapped, as the
+ * key may already be of the URN NSS. The lookup table is loaded before remediation
+ * starts and only read while mapping, so it must support concurrent reads and reverse
+ * lookups. A long lookup table is looked up by the root folder parsed in place as a long.
+ */
+public class LookupKeyMapper extends NssKeyMapper {
+
+    private static final char PATH_SEPARATOR = '/';
+
+    private static final int MAX_ID_DIGITS = 18;
+
+    private final ReadableLookupTable<String, String> lookup;
+
+    private final LongLookupTable ids;
+
+    /**
+     * Lookup key mapper constructor.
+     *
+     * @param lookup loaded lookup table of DRS object id to URN NSS, with reverse index
+     */
+    public LookupKeyMapper(ReadableLookupTable<String, String> lookup) {
+        super();
+        this.lookup = lookup;
+        this.ids = null;
+    }
+
+    /**
+     * Lookup key mapper constructor with long lookup table.
+     *
+     * @param ids loaded long lookup table of DRS object id to URN NSS, with reverse index
+     */
+    public LookupKeyMapper(LongLookupTable ids) {
+        super();
+        this.lookup = null;
+        this.ids = ids;
+    }
+
+    /**
+     * Replace root DRS object id of key with its URN NSS and append reverse URN NSS paths.
+     *
+     * <p>
+     * 400094390/v00001/content/data/400094393.jp2
+     * to
+     * 5472/6010/101062745/v00001/content/data/400094393.jp2
+     * </p>
+     *
+     * @param key object key
+     * @return remediated object key
+     * @throws NumberFormatException root folder neither in lookup table nor a number, or
+     *                               both a DRS object id and the URN NSS of another object
+     */
+    @Override
+    public String mapKey(String key) throws NumberFormatException {
+        int separator = key.indexOf(PATH_SEPARATOR);
+        int end = separator < 0 ? key.length() : separator;
+
+        if (Objects.nonNull(this.ids)) {
+            long id = parseId(key, end);
+            long nss = id == NO_VALUE ? NO_VALUE : this.ids.get(id);
+            if (nss == NO_VALUE) {
+                return transformer().mapKey(key);
+            }
+            if (nss != id && this.ids.reverse(id) != NO_VALUE) {
+                throw ambiguous(key, end);
+            }
+
+            return transformer().mapKey(key, Long.toString(nss));
+        }
+
+        String root = key.substring(0, end);
+        String nss = this.lookup.get(root);
+        if (Objects.isNull(nss)) {
+            return transformer().mapKey(key);
+        }
+        if (!nss.equals(root) && Objects.nonNull(this.lookup.reverse(root))) {
+            throw ambiguous(key, end);
+        }
+
+        return transformer().mapKey(key, nss);
+    }
+
+    private static NumberFormatException ambiguous(String key, int end) {
+        return new NumberFormatException(format("Root folder %s of key %s is both a DRS object id and a URN NSS",
+            key.substring(0, end), key));
+    }
+
+    /**
+     * Parse leading characters of key as a DRS object id, NO_VALUE when not the decimal
+     * digits of an id without leading zeros, as they would not be found by string.
+     */
+    private static long parseId(String key, int end) {
+        if (end == 0 || end > MAX_ID_DIGITS || (key.charAt(0) == '0' && end > 1)) {
+            return NO_VALUE;
+        }
+        long id = 0;
+        for (int i = 0; i < end; i++) {
+            char c = key.charAt(i);
+            if (c < '0' || c > '9') {
+                return NO_VALUE;
+            }
+            id = id * 10 + (c - '0');
+        }
+
+        return id;
+    }
+
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+/**
+ * Key mapper of keys whose root folder is a URN NSS, prepending the reverse URN NSS
+ * paths. Each thread maps keys with a key transformer of its own, so threads share no
+ * state.
+ */
+public class NssKeyMapper implements KeyMapper {
+
+    private final ThreadLocal<KeyTransformer> transformers;
+
+    /**
+     * URN NSS key mapper constructor.
+     */
+    public NssKeyMapper() {
+        this.transformers = ThreadLocal.withInitial(KeyTransformer::new);
+    }
+
+    /**
+     * Append reverse URN NSS paths to key.
+     *
+     * <p>
+     * 101062745/v00001/content/data/400094393.jp2
+     * to
+     * 5472/6010/101062745/v00001/content/data/400094393.jp2
+     * </p>
+     *
+     * @param key object key
+     * @return remediated object key
+     * @throws NumberFormatException root folder not a number
+     */
+    @Override
+    public String mapKey(String key) throws NumberFormatException {
+        return transformer().mapKey(key);
+    }
+
+    @Override
+    public boolean verifyRename(String key) {
+        return transformer().verifyRename(key);
+    }
+
+    /**
+     * Key transformer of current thread.
+     *
+     * @return key transformer
+     */
+    KeyTransformer transformer() {
+        return this.transformers.get();
+    }
+
+}
@@ -38,4 +38,9 @@ public interface ProcessTask {
      */
     String id();
 
+    /**
+     * Number of items processed by the task.
+     */
+    int size();
+
 }
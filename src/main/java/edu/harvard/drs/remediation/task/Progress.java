@@ -0,0 +1,112 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.lang.String.format;
+import static java.lang.System.nanoTime;
+
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Progress of processed items against an expected total, regularly logging percent
+ * complete and estimated time remaining. The total may be reported while still being
+ * counted, in which case it is a lower bound.
+ */
+@Slf4j
+public class Progress {
+
+    private final long startTime;
+
+    private final long interval;
+
+    private final AtomicLong processed;
+
+    private final AtomicLong reported;
+
+    private volatile long total;
+
+    private volatile boolean counted;
+
+    /**
+     * Progress constructor.
+     *
+     * @param interval minimum milliseconds between progress logs
+     */
+    public Progress(long interval) {
+        this.startTime = nanoTime();
+        this.interval = interval * 1000000;
+        this.processed = new AtomicLong();
+        this.reported = new AtomicLong(this.startTime);
+        this.total = 0;
+        this.counted = false;
+    }
+
+    /**
+     * Running total while counting.
+     *
+     * @param total total counted so far
+     */
+    public void counting(int total) {
+        if (!this.counted) {
+            this.total = total;
+        }
+    }
+
+    /**
+     * Final total once counted.
+     *
+     * @param total total count
+     */
+    public void counted(int total) {
+        log.info("counted {} total objects in {} milliseconds", total, (nanoTime() - startTime) / 1000000);
+        this.total = total;
+        this.counted = true;
+    }
+
+    /**
+     * Record items processed, logging progress once interval has elapsed.
+     *
+     * @param items number of items processed
+     */
+    public void processed(int items) {
+        long done = this.processed.addAndGet(items);
+        long now = nanoTime();
+        long last = this.reported.get();
+        if (now - last >= interval && this.reported.compareAndSet(last, now)) {
+            log.info(message(done, now));
+        }
+    }
+
+    String message(long done, long now) {
+        double seconds = (now - startTime) / 1000000000.0;
+
+        if (total <= 0) {
+            return format("processed %d objects in %.0f seconds", done, seconds);
+        }
+
+        double percent = Math.min(100.0, done * 100.0 / total);
+        double rate = seconds > 0 ? done / seconds : 0;
+        String remaining = rate > 0
+            ? format("%.0f", Math.max(0, total - done) / rate)
+            : "unknown";
+
+        return format("processed %d of %s%d objects (%.1f%%) in %.0f seconds, estimated %s seconds remaining",
+            done, counted ? "" : "at least ", total, percent, seconds, remaining);
+    }
+
+}
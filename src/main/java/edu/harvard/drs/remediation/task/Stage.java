@@ -0,0 +1,201 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.function.Consumer;
+import java.util.function.IntSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stage of a pipeline handling items of a bounded queue on its own worker threads. Putting
+ * an item blocks while the queue is full, so a slow stage holds back the stage feeding it.
+ * Once closed, workers drain the queue and exit. Items handled at once may be limited below
+ * the number of workers by a limit evaluated as each item is taken.
+ *
+ * @param <T> type of item handled
+ */
+@Slf4j
+public class Stage<T> {
+
+    static final long POLL = 100;
+
+    private final String name;
+
+    private final BlockingQueue<T> queue;
+
+    private final Consumer<T> handler;
+
+    private final IntSupplier limit;
+
+    private final List<Thread> workers;
+
+    private int active;
+
+    private volatile boolean closed;
+
+    /**
+     * Stage constructor.
+     *
+     * @param name        name of stage and its worker threads
+     * @param concurrency number of worker threads
+     * @param capacity    max items queued
+     * @param handler     handler of each item
+     */
+    public Stage(String name, int concurrency, int capacity, Consumer<T> handler) {
+        this(name, concurrency, capacity, handler, () -> concurrency);
+    }
+
+    /**
+     * Stage constructor with limit of items handled at once.
+     *
+     * @param name        name of stage and its worker threads
+     * @param concurrency number of worker threads
+     * @param capacity    max items queued
+     * @param handler     handler of each item
+     * @param limit       limit of items handled at once, up to concurrency
+     */
+    public Stage(String name, int concurrency, int capacity, Consumer<T> handler, IntSupplier limit) {
+        this.name = name;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        this.handler = handler;
+        this.limit = limit;
+        this.workers = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, concurrency); i++) {
+            this.workers.add(new Thread(this::work, format("%s-%d", name, i)));
+        }
+        this.active = 0;
+        this.closed = false;
+    }
+
+    /**
+     * Start worker threads.
+     */
+    public void start() {
+        this.workers.forEach(Thread::start);
+    }
+
+    /**
+     * Put item in queue, waiting while queue is full.
+     *
+     * @param item item to handle
+     * @throws InterruptedException interrupted while waiting
+     */
+    public void put(T item) throws InterruptedException {
+        if (this.closed) {
+            throw new IllegalStateException(format("stage %s is closed", name));
+        }
+        this.queue.put(item);
+    }
+
+    /**
+     * Close stage to further items, workers exit once queue is drained.
+     */
+    public void close() {
+        this.closed = true;
+    }
+
+    /**
+     * Wait for workers to drain queue and exit once closed.
+     *
+     * @throws InterruptedException interrupted while waiting
+     */
+    public void await() throws InterruptedException {
+        for (Thread worker : this.workers) {
+            worker.join();
+        }
+    }
+
+    /**
+     * Interrupt workers, abandoning items queued.
+     */
+    public void interrupt() {
+        this.workers.forEach(Thread::interrupt);
+    }
+
+    /**
+     * Number of items queued.
+     *
+     * @return queue depth
+     */
+    public int depth() {
+        return this.queue.size();
+    }
+
+    /**
+     * Number of items being handled.
+     *
+     * @return items handled at once
+     */
+    public synchronized int active() {
+        return this.active;
+    }
+
+    /**
+     * Name of stage.
+     *
+     * @return name
+     */
+    public String name() {
+        return this.name;
+    }
+
+    private void work() {
+        try {
+            while (true) {
+                T item = this.queue.poll(POLL, MILLISECONDS);
+                if (item == null) {
+                    if (this.closed && this.queue.isEmpty()) {
+                        return;
+                    }
+                    continue;
+                }
+                acquire();
+                try {
+                    this.handler.accept(item);
+                } catch (RuntimeException e) {
+                    log.error(format("Error while handling item of stage %s", name), e);
+                } finally {
+                    release();
+                }
+            }
+        } catch (InterruptedException e) {
+            log.warn("stage {} interrupted with {} items queued", name, depth());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private synchronized void acquire() throws InterruptedException {
+        // a raised limit is observed on the next poll rather than signalled
+        while (this.active >= Math.max(1, this.limit.getAsInt())) {
+            wait(POLL);
+        }
+        this.active++;
+    }
+
+    private synchronized void release() {
+        this.active--;
+        notifyAll();
+    }
+
+}
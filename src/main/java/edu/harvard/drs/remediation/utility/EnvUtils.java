@@ -31,8 +31,37 @@ import java.util.Optional;
 public final class EnvUtils {
 
     static final String PARALLELISM = "PARALLELISM";
+    static final String TASK_CONCURRENCY = "TASK_CONCURRENCY";
+    static final String ADAPTIVE_CONCURRENCY = "ADAPTIVE_CONCURRENCY";
+    static final String ADAPTIVE_INTERVAL = "ADAPTIVE_INTERVAL";
+    static final String WORK_UNIT_MAX_BYTES = "WORK_UNIT_MAX_BYTES";
+    static final String WORK_UNIT_MAX_OBJECTS = "WORK_UNIT_MAX_OBJECTS";
+    static final String LARGE_LANE_PARALLELISM = "LARGE_LANE_PARALLELISM";
+    static final String LARGE_LANE_LOOKAHEAD = "LARGE_LANE_LOOKAHEAD";
 
     static final String VERIFY_ONLY = "VERIFY_ONLY";
+    static final String AWS_BATCH_DELETE = "AWS_BATCH_DELETE";
+
+    static final String CHECKPOINT_PATH = "CHECKPOINT_PATH";
+    static final String CHECKPOINT_INTERVAL = "CHECKPOINT_INTERVAL";
+
+    static final String UPLOAD_JOURNAL_PATH = "UPLOAD_JOURNAL_PATH";
+    static final String SWEEP_UPLOADS = "SWEEP_UPLOADS";
+    static final String SWEEP_UPLOADS_AGE = "SWEEP_UPLOADS_AGE";
+
+    static final String PROGRESS_INTERVAL = "PROGRESS_INTERVAL";
+    static final String COUNT_CACHE_PATH = "COUNT_CACHE_PATH";
+    static final String COUNT_CACHE_TTL = "COUNT_CACHE_TTL";
+
+    static final String INVENTORY_PATH = "INVENTORY_PATH";
+    static final String INVENTORY_SCHEMA = "INVENTORY_SCHEMA";
+
+    static final String KEY_MAPPER = "KEY_MAPPER";
+    static final String LOOKUP_TABLE = "LOOKUP_TABLE";
+    static final String LOOKUP_CAPACITY = "LOOKUP_CAPACITY";
+    static final String LOOKUP_OFF_HEAP = "LOOKUP_OFF_HEAP";
+    static final String LOOKUP_INDEX_PATH = "LOOKUP_INDEX_PATH";
+    static final String BUILD_LOOKUP_INDEX = "BUILD_LOOKUP_INDEX";
 
     static final String INPUT_PATH = "INPUT_PATH";
     static final String INPUT_PATTERN = "INPUT_PATTERN";
@@ -42,23 +71,77 @@ public final class EnvUtils {
     static final String AWS_ENDPOINT_OVERRIDE = "AWS_ENDPOINT_OVERRIDE";
 
     static final String AWS_MAX_KEYS = "AWS_MAX_KEYS";
+    static final String AWS_LIST_SHARDS = "AWS_LIST_SHARDS";
+    static final String AWS_LIST_SKIP_REMEDIATED = "AWS_LIST_SKIP_REMEDIATED";
+    static final String AWS_LIST_PREFETCH_PAGES = "AWS_LIST_PREFETCH_PAGES";
+    static final String AWS_LIST_PREFETCH_MAX_OBJECTS = "AWS_LIST_PREFETCH_MAX_OBJECTS";
+    static final String AWS_LIST_PREFETCH_MAX_BYTES = "AWS_LIST_PREFETCH_MAX_BYTES";
     static final String AWS_MAX_PART_SIZE = "AWS_MAX_PART_SIZE";
+    static final String AWS_TARGET_PART_COUNT = "AWS_TARGET_PART_COUNT";
+    static final String AWS_PRESERVE_ETAG = "AWS_PRESERVE_ETAG";
     static final String AWS_MULTIPART_THRESHOLD = "AWS_MULTIPART_THRESHOLD";
     static final String AWS_SKIP_MULTIPART = "AWS_SKIP_MULTIPART";
+    static final String AWS_MAX_PARTS_IN_FLIGHT = "AWS_MAX_PARTS_IN_FLIGHT";
+    static final String AWS_PART_RETRIES = "AWS_PART_RETRIES";
+    static final String AWS_PART_RETRY_BACKOFF = "AWS_PART_RETRY_BACKOFF";
+    static final String AWS_MAX_CONNECTIONS = "AWS_MAX_CONNECTIONS";
+    static final String AWS_CONNECTION_MAX_IDLE = "AWS_CONNECTION_MAX_IDLE";
+    static final String AWS_ASYNC = "AWS_ASYNC";
+    static final String AWS_MAX_IN_FLIGHT = "AWS_MAX_IN_FLIGHT";
+    static final String AWS_PREFIX_RATE = "AWS_PREFIX_RATE";
 
     private static final Map<String, String> DEFAULT_ENV = new HashMap<>() {
         {
             put(PARALLELISM, "12");
+            put(TASK_CONCURRENCY, "1");
+            put(ADAPTIVE_CONCURRENCY, "false");
+            put(ADAPTIVE_INTERVAL, "10");
+            put(WORK_UNIT_MAX_BYTES, "0");
+            put(WORK_UNIT_MAX_OBJECTS, "1000");
+            put(LARGE_LANE_PARALLELISM, "0");
+            put(LARGE_LANE_LOOKAHEAD, "10000");
             put(VERIFY_ONLY, "false");
+            put(AWS_BATCH_DELETE, "false");
+            put(CHECKPOINT_PATH, "");
+            put(CHECKPOINT_INTERVAL, "60");
+            put(UPLOAD_JOURNAL_PATH, "");
+            put(SWEEP_UPLOADS, "false");
+            put(SWEEP_UPLOADS_AGE, "86400");
+            put(PROGRESS_INTERVAL, "0");
+            put(COUNT_CACHE_PATH, "");
+            put(COUNT_CACHE_TTL, "86400");
+            put(INVENTORY_PATH, "");
+            put(INVENTORY_SCHEMA, "Bucket, Key, Size, LastModifiedDate, ETag");
+            put(KEY_MAPPER, "nss");
+            put(LOOKUP_TABLE, "memory");
+            put(LOOKUP_CAPACITY, "65536");
+            put(LOOKUP_OFF_HEAP, "false");
+            put(LOOKUP_INDEX_PATH, "./external/dump.idx");
+            put(BUILD_LOOKUP_INDEX, "false");
             put(INPUT_PATH, "./external/dump.txt");
             put(INPUT_PATTERN, "^\\d+ : (\\d+) .*:(\\d+)$");
             put(INPUT_SKIP, "2");
             put(AWS_BUCKET_NAME, "harvard-drs-delivery");
             put(AWS_ENDPOINT_OVERRIDE, "");
             put(AWS_MAX_KEYS, "1000");
+            put(AWS_LIST_SHARDS, "1");
+            put(AWS_LIST_SKIP_REMEDIATED, "false");
+            put(AWS_LIST_PREFETCH_PAGES, "2");
+            put(AWS_LIST_PREFETCH_MAX_OBJECTS, "10000");
+            put(AWS_LIST_PREFETCH_MAX_BYTES, "67108864");
             put(AWS_MAX_PART_SIZE, "52428800");
+            put(AWS_TARGET_PART_COUNT, "100");
+            put(AWS_PRESERVE_ETAG, "false");
             put(AWS_MULTIPART_THRESHOLD, "104857600");
             put(AWS_SKIP_MULTIPART, "false");
+            put(AWS_MAX_PARTS_IN_FLIGHT, "0");
+            put(AWS_PART_RETRIES, "3");
+            put(AWS_PART_RETRY_BACKOFF, "1000");
+            put(AWS_MAX_CONNECTIONS, "0");
+            put(AWS_CONNECTION_MAX_IDLE, "60");
+            put(AWS_ASYNC, "false");
+            put(AWS_MAX_IN_FLIGHT, "1000");
+            put(AWS_PREFIX_RATE, "0");
         }
     };
 
@@ -73,6 +156,69 @@ public final class EnvUtils {
         return parseInt(get(PARALLELISM));
     }
 
+    /**
+     * Retrieve environment task concurrency, objects of a partition remediated concurrently. (default 1)
+     *
+     * @return task concurrency
+     */
+    public static int getTaskConcurrency() {
+        return parseInt(get(TASK_CONCURRENCY));
+    }
+
+    /**
+     * Retrieve environment adaptive concurrency, whether tasks in progress adapt up to parallelism. (default false)
+     *
+     * @return whether to adapt concurrency
+     */
+    public static boolean getAdaptiveConcurrency() {
+        return parseBoolean(get(ADAPTIVE_CONCURRENCY));
+    }
+
+    /**
+     * Retrieve environment adaptive interval, minimum seconds between concurrency adjustments. (default 10)
+     *
+     * @return adaptive interval
+     */
+    public static long getAdaptiveInterval() {
+        return parseLong(get(ADAPTIVE_INTERVAL));
+    }
+
+    /**
+     * Retrieve environment work unit max bytes, 0 for a partition per list page. (default 0)
+     *
+     * @return work unit max bytes
+     */
+    public static long getWorkUnitMaxBytes() {
+        return parseLong(get(WORK_UNIT_MAX_BYTES));
+    }
+
+    /**
+     * Retrieve environment work unit max objects. (default 1000)
+     *
+     * @return work unit max objects
+     */
+    public static int getWorkUnitMaxObjects() {
+        return parseInt(get(WORK_UNIT_MAX_OBJECTS));
+    }
+
+    /**
+     * Retrieve environment large lane parallelism, 0 for no separate lane of large objects. (default 0)
+     *
+     * @return large lane parallelism
+     */
+    public static int getLargeLaneParallelism() {
+        return parseInt(get(LARGE_LANE_PARALLELISM));
+    }
+
+    /**
+     * Retrieve environment large lane lookahead, large objects buffered to order largest first. (default 10000)
+     *
+     * @return large lane lookahead
+     */
+    public static int getLargeLaneLookahead() {
+        return parseInt(get(LARGE_LANE_LOOKAHEAD));
+    }
+
     /**
      * Retrieve environment verify onlt. (default false)
      *
@@ -82,6 +228,159 @@ public final class EnvUtils {
         return parseBoolean(get(VERIFY_ONLY));
     }
 
+    /**
+     * Retrieve environment AWS batch delete, deleting source objects in batches after copy. (default `false`)
+     *
+     * @return whether to batch delete
+     */
+    public static boolean getAwsBatchDelete() {
+        return parseBoolean(get(AWS_BATCH_DELETE));
+    }
+
+    /**
+     * Retrieve environment checkpoint file path, empty disables checkpoint. (default ``)
+     *
+     * @return checkpoint path
+     */
+    public static String getCheckpointPath() {
+        return get(CHECKPOINT_PATH);
+    }
+
+    /**
+     * Retrieve environment checkpoint interval in seconds. (default 60)
+     *
+     * @return checkpoint interval
+     */
+    public static long getCheckpointInterval() {
+        return parseLong(get(CHECKPOINT_INTERVAL));
+    }
+
+    /**
+     * Retrieve environment upload journal file path, empty disables upload journal. (default ``)
+     *
+     * @return upload journal path
+     */
+    public static String getUploadJournalPath() {
+        return get(UPLOAD_JOURNAL_PATH);
+    }
+
+    /**
+     * Retrieve environment sweep uploads, aborting uploads left behind instead of remediating. (default false)
+     *
+     * @return whether to sweep uploads
+     */
+    public static boolean getSweepUploads() {
+        return parseBoolean(get(SWEEP_UPLOADS));
+    }
+
+    /**
+     * Retrieve environment minimum age in seconds of multipart uploads swept. (default 86400)
+     *
+     * @return sweep uploads age
+     */
+    public static long getSweepUploadsAge() {
+        return parseLong(get(SWEEP_UPLOADS_AGE));
+    }
+
+    /**
+     * Retrieve environment progress interval in seconds. (default 0)
+     *
+     * @return progress interval
+     */
+    public static long getProgressInterval() {
+        return parseLong(get(PROGRESS_INTERVAL));
+    }
+
+    /**
+     * Retrieve environment count cache file path. (default "")
+     *
+     * @return count cache path
+     */
+    public static String getCountCachePath() {
+        return get(COUNT_CACHE_PATH);
+    }
+
+    /**
+     * Retrieve environment count cache time to live in seconds. (default 86400)
+     *
+     * @return count cache ttl
+     */
+    public static long getCountCacheTtl() {
+        return parseLong(get(COUNT_CACHE_TTL));
+    }
+
+    /**
+     * Retrieve environment S3 Inventory data file path. (default "")
+     *
+     * @return inventory path
+     */
+    public static String getInventoryPath() {
+        return get(INVENTORY_PATH);
+    }
+
+    /**
+     * Retrieve environment S3 Inventory file schema. (default Bucket, Key, Size, LastModifiedDate, ETag)
+     *
+     * @return inventory schema
+     */
+    public static String getInventorySchema() {
+        return get(INVENTORY_SCHEMA);
+    }
+
+    /**
+     * Retrieve environment key mapper, nss or lookup. (default nss)
+     *
+     * @return key mapper
+     */
+    public static String getKeyMapper() {
+        return get(KEY_MAPPER);
+    }
+
+    /**
+     * Retrieve environment lookup table, memory, primitive or index. (default memory)
+     *
+     * @return lookup table
+     */
+    public static String getLookupTable() {
+        return get(LOOKUP_TABLE);
+    }
+
+    /**
+     * Retrieve environment expected entries of primitive lookup table. (default 65536)
+     *
+     * @return lookup capacity
+     */
+    public static int getLookupCapacity() {
+        return parseInt(get(LOOKUP_CAPACITY));
+    }
+
+    /**
+     * Retrieve environment whether primitive lookup table is allocated off heap. (default false)
+     *
+     * @return lookup off heap
+     */
+    public static boolean getLookupOffHeap() {
+        return parseBoolean(get(LOOKUP_OFF_HEAP));
+    }
+
+    /**
+     * Retrieve environment lookup index file path. (default ./external/dump.idx)
+     *
+     * @return lookup index path
+     */
+    public static String getLookupIndexPath() {
+        return get(LOOKUP_INDEX_PATH);
+    }
+
+    /**
+     * Retrieve environment whether to only build lookup index from input file. (default false)
+     *
+     * @return build lookup index
+     */
+    public static boolean getBuildLookupIndex() {
+        return parseBoolean(get(BUILD_LOOKUP_INDEX));
+    }
+
     /**
      * Retrieve environment input file path. (default ./external/dump.txt)
      *
@@ -136,6 +435,51 @@ public final class EnvUtils {
         return parseInt(get(AWS_MAX_KEYS));
     }
 
+    /**
+     * Retrieve environment AWS list shards. (default 1)
+     *
+     * @return AWS list shards
+     */
+    public static int getAwsListShards() {
+        return parseInt(get(AWS_LIST_SHARDS));
+    }
+
+    /**
+     * Retrieve environment AWS list skip remediated prefixes. (default false)
+     *
+     * @return AWS list skip remediated
+     */
+    public static boolean getAwsListSkipRemediated() {
+        return parseBoolean(get(AWS_LIST_SKIP_REMEDIATED));
+    }
+
+    /**
+     * Retrieve environment AWS list prefetch pages, 0 disables prefetch. (default 2)
+     *
+     * @return AWS list prefetch pages
+     */
+    public static int getAwsListPrefetchPages() {
+        return parseInt(get(AWS_LIST_PREFETCH_PAGES));
+    }
+
+    /**
+     * Retrieve environment AWS list prefetch max objects. (default 10000)
+     *
+     * @return AWS list prefetch max objects
+     */
+    public static long getAwsListPrefetchMaxObjects() {
+        return parseLong(get(AWS_LIST_PREFETCH_MAX_OBJECTS));
+    }
+
+    /**
+     * Retrieve environment AWS list prefetch max estimated bytes. (default 67108864 = 64 MiB)
+     *
+     * @return AWS list prefetch max bytes
+     */
+    public static long getAwsListPrefetchMaxBytes() {
+        return parseLong(get(AWS_LIST_PREFETCH_MAX_BYTES));
+    }
+
     /**
      * Retrieve environment AWS max part size. (default 52428800 = 50 MiB)
      *
@@ -145,6 +489,24 @@ public final class EnvUtils {
         return parseLong(get(AWS_MAX_PART_SIZE));
     }
 
+    /**
+     * Retrieve environment AWS target part count, 0 grows part size only to the part limit. (default 100)
+     *
+     * @return AWS target part count
+     */
+    public static int getAwsTargetPartCount() {
+        return parseInt(get(AWS_TARGET_PART_COUNT));
+    }
+
+    /**
+     * Retrieve environment AWS preserve etag, copying multipart objects with the source part layout. (default false)
+     *
+     * @return whether to preserve etag
+     */
+    public static boolean getAwsPreserveEtag() {
+        return parseBoolean(get(AWS_PRESERVE_ETAG));
+    }
+
     /**
      * Retrieve environment AWS multipart threshold. (default 104857600 = 100 MiB)
      *
@@ -163,6 +525,78 @@ public final class EnvUtils {
         return parseBoolean(get(AWS_SKIP_MULTIPART));
     }
 
+    /**
+     * Retrieve environment AWS max multipart copy parts in flight, 0 sized from available processors. (default 0)
+     *
+     * @return AWS max parts in flight
+     */
+    public static int getAwsMaxPartsInFlight() {
+        return parseInt(get(AWS_MAX_PARTS_IN_FLIGHT));
+    }
+
+    /**
+     * Retrieve environment AWS max retries of each multipart copy part. (default 3)
+     *
+     * @return AWS part retries
+     */
+    public static int getAwsPartRetries() {
+        return parseInt(get(AWS_PART_RETRIES));
+    }
+
+    /**
+     * Retrieve environment AWS multipart copy part retry backoff in milliseconds, doubled each retry. (default 1000)
+     *
+     * @return AWS part retry backoff
+     */
+    public static long getAwsPartRetryBackoff() {
+        return parseLong(get(AWS_PART_RETRY_BACKOFF));
+    }
+
+    /**
+     * Retrieve environment AWS max connections, 0 sized from parallelism. (default 0)
+     *
+     * @return AWS max connections
+     */
+    public static int getAwsMaxConnections() {
+        return parseInt(get(AWS_MAX_CONNECTIONS));
+    }
+
+    /**
+     * Retrieve environment AWS connection max idle seconds. (default 60)
+     *
+     * @return AWS connection max idle
+     */
+    public static long getAwsConnectionMaxIdle() {
+        return parseLong(get(AWS_CONNECTION_MAX_IDLE));
+    }
+
+    /**
+     * Retrieve environment AWS async. (default false)
+     *
+     * @return AWS async
+     */
+    public static boolean getAwsAsync() {
+        return parseBoolean(get(AWS_ASYNC));
+    }
+
+    /**
+     * Retrieve environment AWS max requests in flight. (default 1000)
+     *
+     * @return AWS max in flight
+     */
+    public static int getAwsMaxInFlight() {
+        return parseInt(get(AWS_MAX_IN_FLIGHT));
+    }
+
+    /**
+     * Retrieve environment AWS max write requests per second of each key prefix, 0 disables. (default 0)
+     *
+     * @return AWS prefix rate
+     */
+    public static int getAwsPrefixRate() {
+        return parseInt(get(AWS_PREFIX_RATE));
+    }
+
     static String get(String key) {
         Optional<String> var = ofNullable(System.getenv(key));
         if (var.isPresent()) {
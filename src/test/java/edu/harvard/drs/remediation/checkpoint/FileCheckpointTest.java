@@ -0,0 +1,154 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.checkpoint;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.harvard.drs.remediation.store.KeyRange;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * File checkpoint tests.
+ */
+public class FileCheckpointTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testCheckpoint() {
+        String path = directory.resolve("checkpoint.txt").toString();
+
+        List<KeyRange> ranges = KeyRange.shards(4);
+
+        FileCheckpoint checkpoint = new FileCheckpoint(path, 0);
+
+        assertEquals(ranges, checkpoint.resume(ranges));
+
+        List<S3Object> first = objects(
+            "12887296/v1/content/data/400171120.png",
+            "12887296/v1/content/descriptor/400171120_mets.xml"
+        );
+        List<S3Object> second = objects(
+            "12887299/v1/content/data/400171126.png",
+            "12887299/v1/content/descriptor/400171126_mets.xml"
+        );
+        List<S3Object> third = objects(
+            "6927/8821/12887296/v1/content/data/400171120.png"
+        );
+
+        checkpoint.listed(first);
+        checkpoint.listed(second);
+        checkpoint.listed(third);
+
+        // partitions completing out of order do not advance the low-watermark
+        checkpoint.completed(second);
+        checkpoint.completed(third);
+
+        List<KeyRange> resumed = new FileCheckpoint(path, 0).resume(ranges);
+
+        assertEquals(4, resumed.size());
+        assertEquals(ranges.get(0), resumed.get(0));
+        assertEquals(new KeyRange("6927/8821/12887296/v1/content/data/400171120.png", "7"), resumed.get(2));
+
+        checkpoint.completed(first);
+
+        resumed = new FileCheckpoint(path, 0).resume(ranges);
+
+        assertEquals(new KeyRange("12887299/v1/content/descriptor/400171126_mets.xml", "2"), resumed.get(0));
+    }
+
+    @Test
+    public void testCheckpointResume() throws Exception {
+        Path path = directory.resolve("resume.txt");
+
+        Files.write(path, Arrays.asList("5\t6%2Ffoo", "7\t8"));
+
+        List<KeyRange> ranges = KeyRange.shards(4);
+
+        List<KeyRange> resumed = new FileCheckpoint(path.toString(), 0).resume(ranges);
+
+        assertEquals(4, resumed.size());
+        assertEquals(ranges.get(0), resumed.get(0));
+        assertEquals(ranges.get(1), resumed.get(1));
+        assertEquals(new KeyRange("6/foo", "7"), resumed.get(2));
+        assertEquals(new KeyRange("8", null), resumed.get(3));
+    }
+
+    @Test
+    public void testCheckpointFailed() throws Exception {
+        Path path = directory.resolve("failed.txt");
+
+        List<KeyRange> ranges = KeyRange.shards(4);
+
+        FileCheckpoint checkpoint = new FileCheckpoint(path.toString(), 0);
+        checkpoint.resume(ranges);
+
+        List<S3Object> objects = IntStream.range(0, 10001)
+            .mapToObj(i -> String.format("12887296/v1/content/data/%05d.png", i))
+            .map(key -> S3Object.builder().key(key).build())
+            .collect(Collectors.toList());
+
+        checkpoint.listed(objects);
+
+        checkpoint.failed(objects.subList(0, 1));
+        checkpoint.completed(objects.subList(1, objects.size()));
+
+        // failed object does not hold the low-watermark or keys listed after it
+        assertEquals(0, checkpoint.pending());
+        assertEquals(new KeyRange("12887296/v1/content/data/10000.png", "2"),
+            new FileCheckpoint(path.toString(), 0).resume(ranges).get(0));
+
+        assertEquals(List.of("12887296%2Fv1%2Fcontent%2Fdata%2F00000.png"),
+            Files.readAllLines(directory.resolve("failed.txt.retry")));
+    }
+
+    @Test
+    public void testCheckpointInterval() {
+        Path path = directory.resolve("interval.txt");
+
+        FileCheckpoint checkpoint = new FileCheckpoint(path.toString(), 60000);
+
+        List<S3Object> objects = objects("12887296/v1/content/data/400171120.png");
+
+        checkpoint.listed(objects);
+        checkpoint.completed(objects);
+
+        assertFalse(Files.exists(path));
+
+        checkpoint.save();
+
+        assertTrue(Files.exists(path));
+    }
+
+    private List<S3Object> objects(String... keys) {
+        return Arrays.stream(keys)
+            .map(key -> S3Object.builder().key(key).build())
+            .collect(Collectors.toList());
+    }
+
+}
@@ -19,6 +19,7 @@ package edu.harvard.drs.remediation.lookup;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 
 import edu.harvard.drs.remediation.loader.FileLoader;
 import org.junit.jupiter.api.Test;
@@ -50,13 +51,23 @@ public class InMemoryLookupTableTest {
         assertEquals("12887302", lookupTable.get("400171132"));
         assertEquals("12887305", lookupTable.get("400171138"));
 
+        assertEquals("400171120", lookupTable.reverse("12887296"));
+        assertNull(lookupTable.reverse("400171120"));
+
         lookupTable.set("foo", "bar");
 
         assertEquals("bar", lookupTable.get("foo"));
+        assertEquals("foo", lookupTable.reverse("bar"));
+
+        lookupTable.set("foo", "baz");
+
+        assertNull(lookupTable.reverse("bar"));
+        assertEquals("foo", lookupTable.reverse("baz"));
 
         lookupTable.unload();
 
         assertEquals(0, lookupTable.size());
+        assertNull(lookupTable.reverse("baz"));
     }
 
 }
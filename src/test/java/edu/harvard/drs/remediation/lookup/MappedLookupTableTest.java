@@ -0,0 +1,138 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+import static edu.harvard.drs.remediation.lookup.LongLookupTable.NO_VALUE;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.harvard.drs.remediation.loader.FileLoader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Memory mapped lookup table tests.
+ */
+public class MappedLookupTableTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testLookupTable() {
+        final String index = directory.resolve("dump.idx").toString();
+
+        final FileLoader loader = new FileLoader("src/test/resources/dump.txt", getInputPattern(), getInputSkip());
+
+        assertEquals(5, MappedLookupTable.build(loader, index));
+
+        final MappedLookupTable lookupTable = new MappedLookupTable(index);
+
+        assertEquals(0, lookupTable.size());
+        assertNull(lookupTable.get("400171120"));
+
+        lookupTable.load();
+
+        assertEquals(5, lookupTable.size());
+
+        assertEquals("12887296", lookupTable.get("400171120"));
+        assertEquals("12887299", lookupTable.get("400171126"));
+        assertEquals("12887301", lookupTable.get("400171130"));
+        assertEquals("12887302", lookupTable.get("400171132"));
+        assertEquals("12887305", lookupTable.get("400171138"));
+
+        assertEquals(12887296L, lookupTable.get(400171120L));
+        assertEquals(NO_VALUE, lookupTable.get(400171119L));
+        assertEquals(NO_VALUE, lookupTable.get(400171121L));
+        assertEquals(NO_VALUE, lookupTable.get(400171139L));
+        assertEquals(NO_VALUE, lookupTable.get(-1L));
+
+        assertNull(lookupTable.get("foo"));
+        assertNull(lookupTable.get("0400171120"));
+        assertNull(lookupTable.get(""));
+
+        assertEquals(400171120L, lookupTable.reverse(12887296L));
+        assertEquals(400171138L, lookupTable.reverse(12887305L));
+        assertEquals(NO_VALUE, lookupTable.reverse(400171120L));
+        assertEquals("400171132", lookupTable.reverse("12887302"));
+        assertNull(lookupTable.reverse("12887303"));
+
+        lookupTable.unload();
+
+        assertEquals(0, lookupTable.size());
+        assertNull(lookupTable.get("400171120"));
+    }
+
+    @Test
+    public void testSortedAndDeduplicated() {
+        final String index = directory.resolve("unsorted.idx").toString();
+        final int entries = 10000;
+
+        assertEquals(entries, MappedLookupTable.build(() -> Stream.concat(
+            LongStream.range(0, entries)
+                .map(i -> entries - 1 - i)
+                .mapToObj(i -> new SimpleEntry<>(String.valueOf(400000000L + i * 3), String.valueOf(i))),
+            Stream.of(new SimpleEntry<>("400000000", "42"))
+        ), index));
+
+        final MappedLookupTable lookupTable = new MappedLookupTable(index);
+        lookupTable.load();
+
+        assertEquals(entries, lookupTable.size());
+
+        assertEquals(42L, lookupTable.get(400000000L));
+        assertEquals(400000000L, lookupTable.reverse(42L));
+        assertEquals(NO_VALUE, lookupTable.reverse(0L));
+        for (long i = 1; i < entries; i++) {
+            assertEquals(i, lookupTable.get(400000000L + i * 3));
+            assertEquals(NO_VALUE, lookupTable.get(400000000L + i * 3 - 1));
+        }
+    }
+
+    @Test
+    public void testEmpty() {
+        final String index = directory.resolve("empty.idx").toString();
+
+        assertEquals(0, MappedLookupTable.build(Stream::empty, index));
+
+        final MappedLookupTable lookupTable = new MappedLookupTable(index);
+        lookupTable.load();
+
+        assertEquals(0, lookupTable.size());
+        assertEquals(NO_VALUE, lookupTable.get(400171120L));
+    }
+
+    @Test
+    public void testNotIndex() throws IOException {
+        final Path dump = directory.resolve("dump.txt");
+        Files.copy(Path.of("src/test/resources/dump.txt"), dump);
+
+        assertThrows(IllegalStateException.class, () -> new MappedLookupTable(dump.toString()).load());
+        assertThrows(RuntimeException.class, () -> new MappedLookupTable(directory.resolve("missing.idx").toString())
+            .load());
+    }
+
+}
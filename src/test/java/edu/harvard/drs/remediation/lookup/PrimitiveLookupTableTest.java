@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.lookup;
+
+import static edu.harvard.drs.remediation.lookup.LongLookupTable.NO_VALUE;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import edu.harvard.drs.remediation.loader.FileLoader;
+import java.util.AbstractMap.SimpleEntry;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Primitive lookup table tests.
+ */
+public class PrimitiveLookupTableTest {
+
+    @Test
+    public void testLookupTable() {
+        final FileLoader loader = new FileLoader("src/test/resources/dump.txt", getInputPattern(), getInputSkip());
+
+        final PrimitiveLookupTable lookupTable = new PrimitiveLookupTable(loader);
+
+        assertEquals(0, lookupTable.size());
+
+        lookupTable.load();
+
+        assertEquals(5, lookupTable.size());
+
+        assertEquals("12887296", lookupTable.get("400171120"));
+        assertEquals("12887299", lookupTable.get("400171126"));
+        assertEquals("12887301", lookupTable.get("400171130"));
+        assertEquals("12887302", lookupTable.get("400171132"));
+        assertEquals("12887305", lookupTable.get("400171138"));
+
+        assertEquals(12887296L, lookupTable.get(400171120L));
+        assertEquals(NO_VALUE, lookupTable.get(400171121L));
+        assertEquals(NO_VALUE, lookupTable.get(-1L));
+
+        assertNull(lookupTable.get("foo"));
+        assertNull(lookupTable.get("0400171120"));
+        assertNull(lookupTable.get("+400171120"));
+        assertNull(lookupTable.get(""));
+
+        lookupTable.set("400171120", "12887297");
+
+        assertEquals("12887297", lookupTable.get("400171120"));
+        assertEquals(5, lookupTable.size());
+
+        assertThrows(NumberFormatException.class, () -> lookupTable.set("foo", "bar"));
+        assertThrows(IllegalArgumentException.class, () -> lookupTable.set(-1L, 1L));
+        assertThrows(IllegalStateException.class, () -> lookupTable.reverse(12887297L));
+
+        lookupTable.unload();
+
+        assertEquals(0, lookupTable.size());
+        assertNull(lookupTable.get("400171120"));
+    }
+
+    @Test
+    public void testReverseOffHeap() {
+        final int entries = 100000;
+
+        final PrimitiveLookupTable lookupTable = new PrimitiveLookupTable(() -> LongStream.range(0, entries)
+            .mapToObj(i -> new SimpleEntry<>(String.valueOf(400000000L + i), String.valueOf(10000000L + i * 7))),
+            16, true, true);
+
+        lookupTable.load();
+
+        assertEquals(entries, lookupTable.size());
+
+        for (long i = 0; i < entries; i++) {
+            assertEquals(10000000L + i * 7, lookupTable.get(400000000L + i));
+            assertEquals(400000000L + i, lookupTable.reverse(10000000L + i * 7));
+        }
+
+        assertEquals(NO_VALUE, lookupTable.get(400000000L + entries));
+        assertEquals(NO_VALUE, lookupTable.reverse(10000001L));
+    }
+
+    @Test
+    public void testReverseOverwrite() {
+        final int entries = 1000;
+
+        final PrimitiveLookupTable lookupTable = new PrimitiveLookupTable(() -> LongStream.range(0, entries)
+            .mapToObj(i -> new SimpleEntry<>(String.valueOf(400000000L + i), String.valueOf(10000000L + i))),
+            16, true, false);
+
+        lookupTable.load();
+
+        // overwritten values no longer map back to their keys
+        for (long i = 0; i < entries; i += 2) {
+            lookupTable.set(400000000L + i, 20000000L + i);
+        }
+
+        for (long i = 0; i < entries; i++) {
+            if (i % 2 == 0) {
+                assertEquals(NO_VALUE, lookupTable.reverse(10000000L + i));
+                assertEquals(400000000L + i, lookupTable.reverse(20000000L + i));
+            } else {
+                assertEquals(400000000L + i, lookupTable.reverse(10000000L + i));
+            }
+        }
+
+        // of keys set to the same value, the last set is kept
+        lookupTable.set(400000001L, 30000000L);
+        lookupTable.set(400000003L, 30000000L);
+        lookupTable.set(400000001L, 30000001L);
+
+        assertEquals(400000003L, lookupTable.reverse(30000000L));
+        assertEquals(400000001L, lookupTable.reverse(30000001L));
+    }
+
+}
@@ -186,13 +186,12 @@ public abstract class AbstractStoreTest {
         int partNumber = 0;
 
         for (long position = 0; position < file.length(); position += getAwsMaxPartSize()) {
-            parts.add(new ObjectPart(++partNumber, position));
+            parts.add(new ObjectPart(++partNumber, position, Math.min(getAwsMaxPartSize(), file.length() - position)));
         }
 
         List<CompletedMd5Part> completedMd5Parts = parts.parallelStream()
             .map(part -> {
-                long length = Math.min(getAwsMaxPartSize(), file.length() - part.getPosition());
-                byte[] bytes = readByteRange(file.getAbsolutePath(), part.getPosition(), (int) length);
+                byte[] bytes = readByteRange(file.getAbsolutePath(), part.getPosition(), part.getLength().intValue());
 
                 UploadPartRequest partRequest = UploadPartRequest.builder()
                     .bucket(getAwsBucketName())
@@ -0,0 +1,209 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsBucketName;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartSize;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMultipartThreshold;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsSkipMultipart;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Amazon S3 asynchronous bucket tests.
+ */
+public class AmazonS3AsyncBucketTest extends AbstractStoreTest {
+
+    @Test
+    public void testCount() {
+        AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+            getAwsBucketName(),
+            7,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride,
+            new InFlightLimiter(4)
+        );
+
+        assertEquals(20, store.count());
+
+        Iterable<List<S3Object>> iterable = () -> store.iterator();
+        List<Integer> sizes = StreamSupport.stream(iterable.spliterator(), false)
+            .map(List::size)
+            .collect(Collectors.toList());
+
+        assertEquals(List.of(7, 7, 6), sizes);
+
+        store.close();
+    }
+
+    @Test
+    public void testRenameAsync(final S3Client s3) {
+        InFlightLimiter limiter = new InFlightLimiter(4);
+
+        AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+            getAwsBucketName(),
+            1000,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride,
+            limiter
+        );
+
+        List<S3Object> originalObjects = store.iterator().next();
+
+        List<String> expectedRenamedKeys = new ArrayList<>();
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+
+        for (S3Object object : originalObjects) {
+            String[] parts = object.key().split(Pattern.quote("."));
+            String destinationKey = parts[0] + "_async." + parts[1];
+            results.add(store.renameAsync(object, destinationKey));
+            expectedRenamedKeys.add(destinationKey);
+        }
+
+        for (CompletableFuture<Integer> result : results) {
+            assertEquals(0, result.join());
+        }
+
+        assertEquals(0, limiter.inFlight());
+
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(getAwsBucketName())
+            .build();
+
+        List<S3Object> renamedObjects = s3.listObjectsV2Paginator(request).contents()
+            .stream()
+            .collect(Collectors.toList());
+
+        assertEquals(originalObjects.size(), renamedObjects.size());
+
+        for (int i = 0; i < renamedObjects.size(); ++i) {
+            assertEquals(expectedRenamedKeys.get(i), renamedObjects.get(i).key());
+            assertEquals(originalObjects.get(i).eTag(), renamedObjects.get(i).eTag());
+        }
+
+        store.close();
+    }
+
+    @Test
+    public void testRenameSkipLargeObject() {
+        AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+            getAwsBucketName(),
+            1000,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            true,
+            endpointOverride,
+            new InFlightLimiter(4)
+        );
+
+        S3Object object = S3Object.builder()
+            .size(5368709121L)
+            .key("foo")
+            .build();
+
+        assertEquals(1, store.rename(object, "bar"));
+
+        store.close();
+    }
+
+    @Test
+    public void testRenameMissingObject() {
+        AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+            getAwsBucketName(),
+            1000,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride,
+            new InFlightLimiter(4)
+        );
+
+        S3Object object = S3Object.builder()
+            .size(10L)
+            .eTag("\"d41d8cd98f00b204e9800998ecf8427e\"")
+            .key("missing/v1/content/data/missing.png")
+            .build();
+
+        assertEquals(-1, store.rename(object, "gnissim/missing/v1/content/data/missing.png"));
+
+        store.close();
+    }
+
+    @Test
+    public void testCopyAndDelete(final S3Client s3) {
+        AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+            getAwsBucketName(),
+            1000,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride,
+            new InFlightLimiter(4)
+        );
+
+        List<S3Object> originalObjects = store.iterator().next();
+
+        List<String> expectedCopiedKeys = new ArrayList<>();
+
+        for (S3Object object : originalObjects) {
+            String[] parts = object.key().split(Pattern.quote("."));
+            String destinationKey = parts[0] + "_copied." + parts[1];
+            assertEquals(0, store.copy(object, destinationKey));
+            expectedCopiedKeys.add(destinationKey);
+        }
+
+        List<S3Object> deletes = new ArrayList<>(originalObjects);
+        deletes.add(S3Object.builder()
+            .key("missing/v1/content/data/missing.png")
+            .build());
+
+        assertTrue(store.delete(deletes).isEmpty());
+
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(getAwsBucketName())
+            .build();
+
+        List<S3Object> copiedObjects = s3.listObjectsV2Paginator(request).contents()
+            .stream()
+            .collect(Collectors.toList());
+
+        assertEquals(originalObjects.size(), copiedObjects.size());
+
+        for (int i = 0; i < copiedObjects.size(); ++i) {
+            assertEquals(expectedCopiedKeys.get(i), copiedObjects.get(i).key());
+            assertEquals(originalObjects.get(i).eTag(), copiedObjects.get(i).eTag());
+        }
+
+        store.close();
+    }
+
+}
@@ -21,24 +21,55 @@ import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxKeys;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartSize;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMultipartThreshold;
 import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsSkipMultipart;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsTargetPartCount;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
+import java.nio.file.Path;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.AbortMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.CompleteMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.CopyPartResult;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsRequest;
+import software.amazon.awssdk.services.s3.model.ListMultipartUploadsResponse;
 import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.ListPartsRequest;
+import software.amazon.awssdk.services.s3.model.ListPartsResponse;
+import software.amazon.awssdk.services.s3.model.MultipartUpload;
+import software.amazon.awssdk.services.s3.model.Part;
 import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyResponse;
+import software.amazon.awssdk.services.s3.paginators.ListMultipartUploadsIterable;
+import software.amazon.awssdk.services.s3.paginators.ListPartsIterable;
 
 /**
  * Amazon S3 bucket tests.
  */
 public class AmazonS3BucketTest extends AbstractStoreTest {
 
+    private static final long MIB = 1024 * 1024;
+
     @Test
     public void testMalformedUri() {
         assertThrows(RuntimeException.class, () -> {
@@ -92,6 +123,52 @@ public class AmazonS3BucketTest extends AbstractStoreTest {
         store.close();
     }
 
+    @Test
+    public void testCountKeyRanges() {
+        AmazonS3Bucket store = new AmazonS3Bucket(
+            getAwsBucketName(),
+            getAwsMaxKeys(),
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride
+        );
+
+        List<Integer> totals = Collections.synchronizedList(new ArrayList<>());
+
+        int count = store.count(KeyRange.shards(4), totals::add);
+
+        assertEquals(20, count);
+        assertFalse(totals.isEmpty());
+        assertEquals(20, totals.stream().mapToInt(Integer::intValue).max().getAsInt());
+
+        store.close();
+    }
+
+    @Test
+    public void testPartitionKeyRanges() {
+        AmazonS3Bucket store = new AmazonS3Bucket(
+            getAwsBucketName(),
+            getAwsMaxKeys(),
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride
+        );
+
+        Iterable<List<S3Object>> iterable = () -> store.iterator(KeyRange.shards(16));
+        List<String> keys = StreamSupport.stream(iterable.spliterator(), false)
+            .flatMap(List::stream)
+            .map(S3Object::key)
+            .sorted()
+            .collect(Collectors.toList());
+
+        assertEquals(20, keys.size());
+        assertEquals(20, keys.stream().distinct().count());
+
+        store.close();
+    }
+
     @Test
     public void testRename(final S3Client s3) {
         AmazonS3Bucket store = new AmazonS3Bucket(
@@ -162,4 +239,182 @@ public class AmazonS3BucketTest extends AbstractStoreTest {
         assertEquals(1, result);
     }
 
+    @Test
+    public void testCopyAndDelete(final S3Client s3) {
+        AmazonS3Bucket store = new AmazonS3Bucket(
+            getAwsBucketName(),
+            1000,
+            getAwsMaxPartSize(),
+            getAwsMultipartThreshold(),
+            getAwsSkipMultipart(),
+            endpointOverride
+        );
+
+        List<S3Object> originalObjects = store.iterator().next();
+
+        List<String> expectedCopiedKeys = new ArrayList<>();
+
+        for (S3Object object : originalObjects) {
+            String[] parts = object.key().split(Pattern.quote("."));
+            String destinationKey = parts[0] + "_copied." + parts[1];
+            assertEquals(0, store.copy(object, destinationKey));
+            expectedCopiedKeys.add(destinationKey);
+        }
+
+        List<S3Object> deletes = new ArrayList<>(originalObjects);
+        deletes.add(S3Object.builder()
+            .key("missing/v1/content/data/missing.png")
+            .build());
+
+        assertTrue(store.delete(deletes).isEmpty());
+
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+            .bucket(getAwsBucketName())
+            .build();
+
+        List<S3Object> copiedObjects = s3.listObjectsV2Paginator(request).contents()
+            .stream()
+            .collect(Collectors.toList());
+
+        assertEquals(originalObjects.size(), copiedObjects.size());
+
+        for (int i = 0; i < copiedObjects.size(); ++i) {
+            assertEquals(expectedCopiedKeys.get(i), copiedObjects.get(i).key());
+            assertEquals(originalObjects.get(i).eTag(), copiedObjects.get(i).eTag());
+        }
+
+        store.close();
+    }
+
+    @Test
+    public void testCopyRequests() {
+        AmazonS3Bucket store = new AmazonS3Bucket(mock(S3Client.class), getAwsBucketName(), getAwsMaxKeys(),
+            5 * MIB, 5 * MIB, false, null);
+
+        assertEquals(1, store.copyRequests(S3Object.builder().key("foo").size(MIB).eTag("\"etag\"").build()));
+        assertEquals(new PartPlanner(5 * MIB, getAwsTargetPartCount()).requests(10 * MIB),
+            store.copyRequests(S3Object.builder().key("foo").size(10 * MIB).eTag("\"etag\"").build()));
+        assertTrue(store.copyRequests(S3Object.builder().key("foo").size(10 * MIB).eTag("\"etag\"").build()) > 1);
+
+        store.close();
+    }
+
+    @Test
+    public void testSweep() {
+        S3Client client = uploadsClient(upload("foo", "1"), upload("bar", "2"));
+
+        AmazonS3Bucket store = new AmazonS3Bucket(client, getAwsBucketName(), getAwsMaxKeys(), MIB, MIB, false,
+            null);
+
+        // uploads initiated before cutoff are not swept
+        assertEquals(0L, store.sweep(Instant.now().minusSeconds(3600)));
+
+        verify(client, never())
+            .abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        assertEquals(10 * MIB, store.sweep(Instant.now()));
+
+        verify(client, times(2))
+            .abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        store.close();
+    }
+
+    @Test
+    public void testSweepResume(@TempDir Path directory) {
+        S3Client client = uploadsClient(upload("foo", "1"), upload("bar", "2"));
+
+        UploadJournal journal = new UploadJournal(directory.resolve("journal.txt").toString());
+
+        journal.started("foo", "\"source\"", "1");
+        journal.copied("foo", 1, "part");
+
+        AmazonS3Bucket store = new AmazonS3Bucket(client, getAwsBucketName(), getAwsMaxKeys(), 5 * MIB, 5 * MIB,
+            false, journal);
+
+        // journaled uploads are left to resume
+        assertEquals(5 * MIB, store.sweep(Instant.now()));
+
+        verify(client, times(1))
+            .abortMultipartUpload(AbortMultipartUploadRequest.builder()
+                .bucket(getAwsBucketName())
+                .key("bar")
+                .uploadId("2")
+                .build());
+        verify(client, times(1))
+            .abortMultipartUpload(any(AbortMultipartUploadRequest.class));
+
+        S3Object source = S3Object.builder()
+            .key("source")
+            .size(10 * MIB)
+            .eTag("\"source\"")
+            .build();
+
+        doReturn(UploadPartCopyResponse.builder()
+            .copyPartResult(CopyPartResult.builder()
+                .eTag("\"part\"")
+                .build())
+            .build())
+            .when(client)
+            .uploadPartCopy(any(UploadPartCopyRequest.class));
+
+        doReturn(CompleteMultipartUploadResponse.builder()
+            .eTag("\"destination-2\"")
+            .build())
+            .when(client)
+            .completeMultipartUpload(any(CompleteMultipartUploadRequest.class));
+
+        assertEquals(0, store.copy(source, "foo"));
+
+        // only the part missing from the journaled upload is copied
+        verify(client, never())
+            .createMultipartUpload(any(CreateMultipartUploadRequest.class));
+        verify(client, times(1))
+            .uploadPartCopy(any(UploadPartCopyRequest.class));
+
+        assertTrue(journal.uploads().isEmpty());
+
+        store.close();
+    }
+
+    private S3Client uploadsClient(MultipartUpload... uploads) {
+        S3Client client = mock(S3Client.class);
+
+        doAnswer(invocation -> new ListMultipartUploadsIterable(client, invocation.getArgument(0)))
+            .when(client)
+            .listMultipartUploadsPaginator(any(ListMultipartUploadsRequest.class));
+
+        doReturn(ListMultipartUploadsResponse.builder()
+            .uploads(uploads)
+            .isTruncated(false)
+            .build())
+            .when(client)
+            .listMultipartUploads(any(ListMultipartUploadsRequest.class));
+
+        doAnswer(invocation -> new ListPartsIterable(client, invocation.getArgument(0)))
+            .when(client)
+            .listPartsPaginator(any(ListPartsRequest.class));
+
+        doReturn(ListPartsResponse.builder()
+            .parts(Part.builder()
+                .partNumber(1)
+                .size(5 * MIB)
+                .eTag("\"part\"")
+                .build())
+            .isTruncated(false)
+            .build())
+            .when(client)
+            .listParts(any(ListPartsRequest.class));
+
+        return client;
+    }
+
+    private MultipartUpload upload(String key, String uploadId) {
+        return MultipartUpload.builder()
+            .key(key)
+            .uploadId(uploadId)
+            .initiated(Instant.now().minusSeconds(60))
+            .build();
+    }
+
 }
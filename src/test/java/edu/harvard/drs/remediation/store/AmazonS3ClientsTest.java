@@ -0,0 +1,94 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsBucketName;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxKeys;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMaxPartSize;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsMultipartThreshold;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsSkipMultipart;
+import static edu.harvard.drs.remediation.utility.RuntimeUtils.availableProcessors;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Instant;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.S3Client;
+
+/**
+ * Amazon S3 clients tests.
+ */
+public class AmazonS3ClientsTest extends AbstractStoreTest {
+
+    @Test
+    public void testMaxConnections() {
+        assertEquals(12 + availableProcessors() + 2, AmazonS3Clients.maxConnections());
+    }
+
+    @Test
+    public void testSharedClient() {
+        S3Client client = AmazonS3Clients.client(endpointOverride);
+
+        for (int i = 0; i < 3; i++) {
+            AmazonS3Bucket store = new AmazonS3Bucket(
+                client,
+                getAwsBucketName(),
+                getAwsMaxKeys(),
+                getAwsMaxPartSize(),
+                getAwsMultipartThreshold(),
+                getAwsSkipMultipart()
+            );
+
+            assertEquals(20, store.count());
+
+            // part copy threads are stopped, shared client remains open
+            store.close();
+
+            assertThrows(IllegalStateException.class, () -> store.sweep(Instant.now()));
+        }
+
+        client.close();
+    }
+
+    @Test
+    public void testSharedAsyncClient() {
+        S3AsyncClient client = AmazonS3Clients.asyncClient(endpointOverride, 4);
+
+        InFlightLimiter limiter = new InFlightLimiter(4);
+
+        for (int i = 0; i < 3; i++) {
+            AmazonS3AsyncBucket store = new AmazonS3AsyncBucket(
+                client,
+                getAwsBucketName(),
+                getAwsMaxKeys(),
+                getAwsMaxPartSize(),
+                getAwsMultipartThreshold(),
+                getAwsSkipMultipart(),
+                limiter
+            );
+
+            assertEquals(20, store.count());
+
+            // shared client remains open
+            store.close();
+        }
+
+        client.close();
+    }
+
+}
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Amazon S3 Inventory object store tests.
+ */
+public class AmazonS3InventoryTest {
+
+    private static final String SCHEMA = "Bucket, Key, Size, LastModifiedDate, ETag";
+
+    private static final String CURRENT = "src/test/resources/inventory/current";
+
+    private static final String VERSIONED = "src/test/resources/inventory/versioned/data.csv";
+
+    @Test
+    public void testCount() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(CURRENT, SCHEMA, 2, mock(ObjectStore.class));
+
+        assertEquals(9, inventory.count());
+    }
+
+    @Test
+    public void testIterator() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(CURRENT + "/data-0.csv", SCHEMA, 2,
+            mock(ObjectStore.class));
+
+        List<List<S3Object>> partitions = new ArrayList<>();
+        inventory.iterator().forEachRemaining(partitions::add);
+
+        assertEquals(3, partitions.size());
+        assertEquals(Arrays.asList(2, 2, 1), partitions.stream()
+            .map(List::size)
+            .collect(Collectors.toList()));
+
+        S3Object object = partitions.get(0).get(0);
+
+        assertEquals("12887296/v1/content/data/400171120.png", object.key());
+        assertEquals(12290L, object.size());
+        assertEquals("\"e3f5bd0e3c09ccf8a25b8edc0a4f9ab1\"", object.eTag());
+        assertEquals(Instant.parse("2021-08-10T14:41:38.000Z"), object.lastModified());
+    }
+
+    @Test
+    public void testIteratorGzip() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(CURRENT + "/data-1.csv.gz", SCHEMA, 1000,
+            mock(ObjectStore.class));
+
+        List<S3Object> objects = inventory.iterator().next();
+
+        assertEquals(Arrays.asList(
+            "12887298/v1/content/data/400171122.png",
+            "12887298/v1/content/descriptor/400171122_mets.xml",
+            "12887299/v1/content/data/400171123 copy.png",
+            "12887299/v1/content/descriptor/400171123,mets.xml"
+        ), objects.stream()
+            .map(S3Object::key)
+            .collect(Collectors.toList()));
+
+        assertTrue(objects.get(0).eTag().contains("-"));
+    }
+
+    @Test
+    public void testIteratorMultipleFiles() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(
+            CURRENT + "/data-0.csv, " + CURRENT + "/data-1.csv.gz", SCHEMA, 3, mock(ObjectStore.class));
+
+        List<String> keys = new ArrayList<>();
+        Iterator<List<S3Object>> iterator = inventory.iterator();
+        while (iterator.hasNext()) {
+            List<S3Object> partition = iterator.next();
+            assertTrue(partition.size() <= 3);
+            partition.forEach(o -> keys.add(o.key()));
+        }
+
+        assertEquals(9, keys.size());
+        assertEquals(9, keys.stream().distinct().count());
+    }
+
+    @Test
+    public void testIteratorVersioned() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(VERSIONED,
+            SCHEMA + ", IsLatest, IsDeleteMarker", 1000, mock(ObjectStore.class));
+
+        List<S3Object> objects = inventory.iterator().next();
+
+        assertEquals(2, objects.size());
+        assertEquals("12887296/v1/content/data/400171120.png", objects.get(0).key());
+        assertEquals(12290L, objects.get(0).size());
+        assertEquals("12887297/v1/content/descriptor/400171121_mets.xml", objects.get(1).key());
+    }
+
+    @Test
+    public void testIteratorInvalidSchema() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(VERSIONED, "Bucket, Key, Size", 1000,
+            mock(ObjectStore.class));
+
+        assertThrows(IllegalArgumentException.class, () -> inventory.iterator());
+    }
+
+    @Test
+    public void testIteratorMissingFile() {
+        AmazonS3Inventory inventory = new AmazonS3Inventory(CURRENT + "/missing.csv", SCHEMA, 1000,
+            mock(ObjectStore.class));
+
+        assertThrows(RuntimeException.class, () -> inventory.iterator().hasNext());
+    }
+
+    @Test
+    public void testIteratorRejected() {
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        InventoryIterator iterator = new InventoryIterator(Paths.get(CURRENT, "data-0.csv"), SCHEMA, 2, executor, 1);
+
+        assertThrows(RuntimeException.class, () -> iterator.hasNext());
+    }
+
+    @Test
+    public void testRenameAndClose() {
+        ObjectStore store = mock(ObjectStore.class);
+        when(store.rename(any(S3Object.class), anyString())).thenReturn(0);
+
+        AmazonS3Inventory inventory = new AmazonS3Inventory(CURRENT, SCHEMA, 1000, store);
+
+        S3Object object = S3Object.builder()
+            .key("12887296/v1/content/data/400171120.png")
+            .build();
+
+        assertEquals(0, inventory.rename(object, "6927/8821/12887296/v1/content/data/400171120.png"));
+
+        inventory.close();
+
+        verify(store, times(1)).rename(object, "6927/8821/12887296/v1/content/data/400171120.png");
+        verify(store, times(1)).close();
+    }
+
+    @Test
+    public void testSplit() {
+        assertEquals(Arrays.asList("a", "b,c", "d\"e", ""), InventoryIterator.split("\"a\",\"b,c\",\"d\"\"e\","));
+        assertEquals(Arrays.asList("a", "1"), InventoryIterator.split("a,1"));
+    }
+
+}
@@ -0,0 +1,149 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.model.UploadPartCopyRequest;
+
+/**
+ * Amazon S3 requests tests.
+ */
+public class AmazonS3RequestsTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    private static final String ETAG = "d41d8cd98f00b204e9800998ecf8427e";
+
+    private final AmazonS3Requests requests = new AmazonS3Requests("bucket", 8 * MIB, 16 * MIB, false);
+
+    @Test
+    public void testCopyRequests() {
+        S3Object small = object("12887301/v1/content/data/400171130.txt", "\"" + ETAG + "\"", MIB);
+        S3Object uploaded = object("12887301/v1/content/data/400171130.pdf", "\"" + ETAG + "-2\"", MIB);
+        S3Object large = object("12887301/v1/content/data/400171130.tif", "\"" + ETAG + "\"", 20 * MIB);
+
+        assertFalse(requests.multipart(small));
+        assertTrue(requests.multipart(uploaded));
+        assertTrue(requests.multipart(large));
+
+        assertEquals(1, requests.copyRequests(small));
+        assertEquals(5, requests.copyRequests(large));
+        assertEquals(1, new AmazonS3Requests("bucket", 8 * MIB, 16 * MIB, true).copyRequests(large));
+    }
+
+    @Test
+    public void testUploadPartCopy() {
+        S3Object source = object("12887301/v1/content/data/400171130.tif", ETAG, 20 * MIB);
+
+        UploadPartCopyRequest request = requests.uploadPartCopy(source, "3037/8821/12887301/v1", "upload",
+            new ObjectPart(2, 8 * MIB, 8 * MIB));
+
+        assertEquals("bucket", request.sourceBucket());
+        assertEquals("bytes=8388608-16777215", request.copySourceRange());
+        assertEquals(2, request.partNumber());
+        assertEquals("upload", request.uploadId());
+
+        assertEquals(ETAG, requests.completedPart(new ObjectPart(2, 8 * MIB, 8 * MIB), "\"" + ETAG + "\"").eTag());
+    }
+
+    @Test
+    public void testDeleteBatches() {
+        List<S3Object> objects = IntStream.range(0, 2500)
+            .mapToObj(i -> object("12887301/v1/content/data/" + i + ".txt", ETAG, MIB))
+            .collect(Collectors.toList());
+
+        List<List<S3Object>> batches = requests.deleteBatches(objects);
+
+        assertEquals(3, batches.size());
+        assertEquals(AmazonS3Requests.MAX_DELETE_KEYS, batches.get(0).size());
+        assertEquals(500, batches.get(2).size());
+        assertEquals(AmazonS3Requests.MAX_DELETE_KEYS, requests.deleteObjects(batches.get(1))
+            .delete()
+            .objects()
+            .size());
+
+        assertTrue(requests.deleteBatches(List.of()).isEmpty());
+    }
+
+    @Test
+    public void testVerify() {
+        S3Object source = object("12887301/v1/content/data/400171130.txt", "\"" + ETAG + "\"", MIB);
+
+        assertEquals(0, AmazonS3Requests.verifyEtag(source, ETAG));
+        assertEquals(-2, AmazonS3Requests.verifyEtag(source, "\"" + ETAG + "-1\""));
+
+        assertEquals(0, AmazonS3Requests.verifyPartCount("\"" + ETAG + "-3\"", 3));
+        assertEquals(-2, AmazonS3Requests.verifyPartCount(ETAG + "-2", 3));
+
+        assertEquals(ETAG, AmazonS3Requests.normalizeEtag("\"" + ETAG + "\""));
+    }
+
+    @Test
+    public void testSourceParts() {
+        final S3Object uniform = object("12887301/v1/content/data/400171130.tif", ETAG + "-3", 20 * MIB + 7);
+        final S3Object varied = object("12887301/v1/content/data/400171130.pdf", ETAG + "-3", 17 * MIB);
+
+        List<List<Integer>> retrieved = new ArrayList<>();
+
+        // sizes of first and last parts only for a uniform layout, resolved once
+        List<ObjectPart> parts = requests.sourceParts(uniform, numbers -> {
+            retrieved.add(numbers);
+            return completedFuture(numbers.stream()
+                .map(number -> number == 3 ? 4 * MIB + 7 : 8 * MIB)
+                .collect(Collectors.toList()));
+        }).join();
+
+        assertEquals(List.of(List.of(1, 3)), retrieved);
+        assertEquals(new ObjectPart(3, 16 * MIB, 4 * MIB + 7), parts.get(2));
+        assertSame(parts, requests.sourceParts(uniform, numbers -> {
+            throw new IllegalStateException();
+        }).join());
+
+        retrieved.clear();
+
+        // size of every part when not uniform
+        parts = requests.sourceParts(varied, numbers -> {
+            retrieved.add(numbers);
+            return completedFuture(numbers.stream()
+                .map(number -> number == 2 ? 10 * MIB : number == 1 ? 5 * MIB : 2 * MIB)
+                .collect(Collectors.toList()));
+        }).join();
+
+        assertEquals(List.of(List.of(1, 3), List.of(1, 2, 3)), retrieved);
+        assertEquals(new ObjectPart(2, 5 * MIB, 10 * MIB), parts.get(1));
+    }
+
+    private static S3Object object(String key, String etag, long size) {
+        return S3Object.builder()
+            .key(key)
+            .eTag(etag)
+            .size(size)
+            .build();
+    }
+
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Count cache tests.
+ */
+public class CountCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testCount() throws IOException {
+        Path path = directory.resolve("count.txt");
+
+        ObjectStore store = mock(ObjectStore.class);
+        when(store.count(any(IntConsumer.class))).thenReturn(42);
+
+        CountCache cache = new CountCache(path.toString(), 60000);
+
+        AtomicInteger total = new AtomicInteger();
+
+        assertEquals(42, cache.count(store, total::set));
+        assertTrue(Files.readAllLines(path, UTF_8).get(0).startsWith("42\t"));
+
+        // cached count reported without counting store
+        assertEquals(42, cache.count(store, total::set));
+        assertEquals(42, total.get());
+
+        verify(store, times(1)).count(any(IntConsumer.class));
+    }
+
+    @Test
+    public void testCountExpired() throws IOException {
+        Path path = directory.resolve("count.txt");
+
+        long expired = System.currentTimeMillis() - 120000;
+        Files.write(path, Arrays.asList("7\t" + expired), UTF_8);
+
+        ObjectStore store = mock(ObjectStore.class);
+        when(store.count(any(IntConsumer.class))).thenReturn(42);
+
+        CountCache cache = new CountCache(path.toString(), 60000);
+
+        assertEquals(42, cache.count(store, total -> { }));
+
+        verify(store, times(1)).count(any(IntConsumer.class));
+    }
+
+    @Test
+    public void testCountMalformed() throws IOException {
+        Path path = directory.resolve("count.txt");
+
+        Files.write(path, Arrays.asList("fubar"), UTF_8);
+
+        ObjectStore store = mock(ObjectStore.class);
+        when(store.count(any(IntConsumer.class))).thenReturn(42);
+
+        CountCache cache = new CountCache(path.toString(), 60000);
+
+        assertEquals(42, cache.count(store, total -> { }));
+        assertEquals(42, cache.count(store, total -> { }));
+
+        verify(store, times(1)).count(any(IntConsumer.class));
+    }
+
+}
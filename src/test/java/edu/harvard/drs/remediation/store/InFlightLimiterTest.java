@@ -0,0 +1,108 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * In flight limiter tests.
+ */
+public class InFlightLimiterTest {
+
+    @Test
+    public void testLimit() {
+        InFlightLimiter limiter = new InFlightLimiter(2);
+
+        List<CompletableFuture<Integer>> requests = new ArrayList<>();
+        List<CompletableFuture<Integer>> responses = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            CompletableFuture<Integer> request = new CompletableFuture<>();
+            requests.add(request);
+            responses.add(limiter.submit(() -> {
+                started.incrementAndGet();
+                return request;
+            }));
+        }
+
+        assertEquals(2, started.get());
+        assertEquals(2, limiter.inFlight());
+
+        requests.get(0).complete(0);
+
+        assertEquals(3, started.get());
+        assertEquals(0, responses.get(0).join());
+        assertFalse(responses.get(2).isDone());
+
+        for (int i = 1; i < 5; i++) {
+            requests.get(i).complete(i);
+        }
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i, responses.get(i).join());
+        }
+        assertEquals(5, started.get());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void testFailure() {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+
+        CompletableFuture<Integer> failed = limiter.submit(() -> {
+            throw new IllegalStateException("fubar");
+        });
+        CompletableFuture<Integer> next = limiter.submit(() -> CompletableFuture.completedFuture(1));
+
+        CompletionException exception = assertThrows(CompletionException.class, () -> failed.join());
+        assertTrue(exception.getCause() instanceof IllegalStateException);
+        assertEquals(1, next.join());
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    public void testImmediateCompletion() {
+        InFlightLimiter limiter = new InFlightLimiter(1);
+
+        CompletableFuture<Integer> first = new CompletableFuture<>();
+        limiter.submit(() -> first);
+
+        List<CompletableFuture<Integer>> responses = new ArrayList<>();
+        for (int i = 0; i < 100000; i++) {
+            final int value = i;
+            responses.add(limiter.submit(() -> CompletableFuture.completedFuture(value)));
+        }
+
+        // releasing through many immediately completing requests does not overflow the stack
+        first.complete(-1);
+
+        assertEquals(99999, responses.get(99999).join());
+        assertEquals(0, limiter.inFlight());
+    }
+
+}
@@ -0,0 +1,87 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Key range tests.
+ */
+public class KeyRangeTest {
+
+    @Test
+    public void testContains() {
+        KeyRange range = new KeyRange("2", "5");
+
+        assertFalse(range.contains("12887296/v1/content/data/400171120.png"));
+        assertFalse(range.contains("2"));
+        assertTrue(range.contains("2/v1"));
+        assertTrue(range.contains("5"));
+        assertFalse(range.contains("5/v1"));
+        assertTrue(range.before("1"));
+        assertTrue(range.after("6927/8821/12887296"));
+
+        KeyRange all = new KeyRange(null, null);
+
+        assertTrue(all.contains(""));
+        assertTrue(all.contains("12887296/v1/content/data/400171120.png"));
+    }
+
+    @Test
+    public void testShards() {
+        List<KeyRange> single = KeyRange.shards(1);
+
+        assertEquals(1, single.size());
+        assertNull(single.get(0).getStartAfter());
+        assertNull(single.get(0).getEnd());
+
+        List<KeyRange> ranges = KeyRange.shards(4);
+
+        assertEquals(4, ranges.size());
+        assertEquals(new KeyRange(null, "2"), ranges.get(0));
+        assertEquals(new KeyRange("2", "5"), ranges.get(1));
+        assertEquals(new KeyRange("5", "7"), ranges.get(2));
+        assertEquals(new KeyRange("7", null), ranges.get(3));
+
+        List<KeyRange> many = KeyRange.shards(16);
+
+        assertEquals(16, many.size());
+        assertEquals("06", many.get(0).getEnd());
+        assertEquals("93", many.get(15).getStartAfter());
+
+        String[] keys = new String[] {
+            "",
+            "0492131461/v1/content/data/492131461.png",
+            "12887296/v1/content/data/400171120.png",
+            "6927/8821/12887296/v1/content/data/400171120.png",
+            "93",
+            "99999999/v1",
+            "foo/bar"
+        };
+
+        for (String key : keys) {
+            assertEquals(1, many.stream().filter(r -> r.contains(key)).count());
+        }
+    }
+
+}
@@ -0,0 +1,200 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.lang.String.format;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Lane splitter tests.
+ */
+public class LaneSplitterTest {
+
+    @Test
+    public void testLanes() {
+        List<List<S3Object>> pages = Arrays.asList(
+            Arrays.asList(object(0, 10), object(1, 200), object(2, 10)),
+            Arrays.asList(object(3, 500), object(4, 10), object(5, 100))
+        );
+
+        LaneSplitter lanes = new LaneSplitter(pages.iterator(), 100, 2, 10);
+
+        Iterator<List<S3Object>> small = lanes.small();
+        Iterator<List<S3Object>> large = lanes.large();
+
+        List<List<Integer>> smallPartitions = new ArrayList<>();
+        small.forEachRemaining(p -> smallPartitions.add(indexes(p)));
+
+        List<List<Integer>> largePartitions = new ArrayList<>();
+        large.forEachRemaining(p -> largePartitions.add(indexes(p)));
+
+        // small objects in listing order
+        assertEquals(Arrays.asList(Arrays.asList(0, 2), Arrays.asList(4)), smallPartitions);
+
+        // large objects one per partition, largest first
+        assertEquals(Arrays.asList(Arrays.asList(3), Arrays.asList(1), Arrays.asList(5)), largePartitions);
+
+        assertEquals(3, lanes.smallObjects());
+        assertEquals(3, lanes.largeObjects());
+
+        assertFalse(small.hasNext());
+        assertFalse(large.hasNext());
+        assertThrows(NoSuchElementException.class, () -> large.next());
+    }
+
+    @Test
+    public void testLanesConcurrent() throws InterruptedException {
+        List<List<S3Object>> pages = new ArrayList<>();
+        for (int p = 0; p < 100; p++) {
+            List<S3Object> page = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int index = p * 10 + i;
+                page.add(object(index, index % 5 == 0 ? 1000 + index : 1));
+            }
+            pages.add(page);
+        }
+
+        // lookahead smaller than large objects, each lane waits on the other to drain
+        LaneSplitter lanes = new LaneSplitter(pages.iterator(), 1000, 10, 5);
+
+        List<Integer> large = Collections.synchronizedList(new ArrayList<>());
+        Thread consumer = new Thread(() -> lanes.large().forEachRemaining(p -> large.addAll(indexes(p))));
+        consumer.start();
+
+        List<Integer> small = new ArrayList<>();
+        lanes.small().forEachRemaining(p -> small.addAll(indexes(p)));
+
+        consumer.join(5000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(800, small.size());
+        assertEquals(200, large.size());
+        assertEquals(small.stream().sorted().collect(Collectors.toList()), small);
+    }
+
+    @Test
+    public void testSmallLaneSpills() {
+        List<List<S3Object>> pages = new ArrayList<>();
+        for (int p = 0; p < 10; p++) {
+            List<S3Object> page = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int index = p * 10 + i;
+                page.add(object(index, index % 2 == 0 ? 1000 + index : 1));
+            }
+            pages.add(page);
+        }
+
+        // large objects beyond lookahead are spilled, the small lane completes without the large lane
+        LaneSplitter lanes = new LaneSplitter(pages.iterator(), 1000, 10, 5);
+
+        List<Integer> small = new ArrayList<>();
+        lanes.small().forEachRemaining(p -> small.addAll(indexes(p)));
+
+        assertEquals(50, small.size());
+
+        List<Integer> large = new ArrayList<>();
+        lanes.large().forEachRemaining(p -> large.addAll(indexes(p)));
+
+        // largest first among lookahead buffered, spilled objects buffered as it drains
+        assertEquals(50, large.size());
+        assertEquals(Arrays.asList(8, 10, 12), large.subList(0, 3));
+        assertEquals(Arrays.asList(6, 4, 2, 0), large.subList(46, 50));
+    }
+
+    @Test
+    public void testListOutsideLock() throws InterruptedException {
+        CountDownLatch listing = new CountDownLatch(1);
+        CountDownLatch listed = new CountDownLatch(1);
+
+        Iterator<List<S3Object>> pages = new Iterator<>() {
+
+            private int page = 0;
+
+            @Override
+            public boolean hasNext() {
+                return page < 2;
+            }
+
+            @Override
+            public List<S3Object> next() {
+                if (page++ == 0) {
+                    return Arrays.asList(object(0, 1000), object(1, 1000), object(2, 1));
+                }
+                listing.countDown();
+                try {
+                    listed.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                return Arrays.asList(object(3, 1));
+            }
+
+        };
+
+        LaneSplitter lanes = new LaneSplitter(pages, 1000, 2, 10);
+
+        Iterator<List<S3Object>> small = lanes.small();
+        Iterator<List<S3Object>> large = lanes.large();
+
+        // small lane lists the second page, blocking in the source
+        List<Integer> smallPartitions = new ArrayList<>();
+        Thread consumer = new Thread(() -> smallPartitions.addAll(indexes(small.next())));
+        consumer.start();
+
+        assertTrue(listing.await(5, SECONDS));
+
+        // large lane takes buffered objects while the page is listed
+        assertEquals(Arrays.asList(0), indexes(large.next()));
+        assertEquals(Arrays.asList(1), indexes(large.next()));
+
+        listed.countDown();
+        consumer.join(5000);
+
+        assertFalse(consumer.isAlive());
+        assertEquals(Arrays.asList(2, 3), smallPartitions);
+    }
+
+    private static List<Integer> indexes(List<S3Object> partition) {
+        return partition.stream()
+            .map(o -> Integer.parseInt(o.key().substring(o.key().lastIndexOf('/') + 1)))
+            .collect(Collectors.toList());
+    }
+
+    private static S3Object object(int index, long size) {
+        return S3Object.builder()
+            .key(format("12887301/v1/content/data/%d", index))
+            .size(size)
+            .build();
+    }
+
+}
@@ -0,0 +1,143 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Merging iterator tests.
+ */
+public class MergingIteratorTest {
+
+    @Test
+    public void testMerge() {
+        List<Iterator<Integer>> iterators = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            iterators.add(IntStream.range(i * 100, i * 100 + 100).boxed().iterator());
+        }
+
+        MergingIterator<Integer> iterator = new MergingIterator<>(iterators, 2);
+
+        List<Integer> values = new ArrayList<>();
+        iterator.forEachRemaining(values::add);
+
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+
+        Collections.sort(values);
+
+        assertEquals(IntStream.range(0, 400).boxed().collect(Collectors.toList()), values);
+    }
+
+    @Test
+    public void testMergeEmpty() {
+        MergingIterator<Integer> iterator = new MergingIterator<>(Arrays.asList(
+            Collections.emptyIterator(),
+            Collections.emptyIterator()
+        ), 1);
+
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testMergeError() {
+        Iterator<Integer> failing = new Iterator<Integer>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                throw new IllegalStateException("fubar");
+            }
+
+        };
+
+        MergingIterator<Integer> iterator = new MergingIterator<>(Arrays.asList(failing), 1);
+
+        assertThrows(RuntimeException.class, () -> iterator.hasNext());
+    }
+
+    @Test
+    public void testMergeErrorInterruptsSources() throws InterruptedException {
+        Iterator<Integer> endless = IntStream.iterate(0, i -> i + 1).boxed().iterator();
+        Iterator<Integer> failing = new Iterator<Integer>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public Integer next() {
+                try {
+                    // endless source fills the queue first
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IllegalStateException("fubar");
+            }
+
+        };
+
+        MergingIterator<Integer> iterator = new MergingIterator<>(Arrays.asList(endless, failing), 1);
+
+        assertThrows(RuntimeException.class, () -> iterator.forEachRemaining(value -> { }));
+
+        assertMergeThreadsExited();
+    }
+
+    @Test
+    public void testClose() throws InterruptedException {
+        Iterator<Integer> endless = IntStream.iterate(0, i -> i + 1).boxed().iterator();
+
+        MergingIterator<Integer> iterator = new MergingIterator<>(Arrays.asList(endless), 1);
+
+        assertTrue(iterator.hasNext());
+
+        iterator.close();
+
+        assertMergeThreadsExited();
+    }
+
+    private static void assertMergeThreadsExited() throws InterruptedException {
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.getName().startsWith("merge-")) {
+                assertTrue(thread.isDaemon());
+                thread.join(1000);
+                assertFalse(thread.isAlive());
+            }
+        }
+    }
+
+}
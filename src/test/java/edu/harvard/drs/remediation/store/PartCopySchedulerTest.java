@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Part copy scheduler tests.
+ */
+public class PartCopySchedulerTest {
+
+    @Test
+    public void testCopy() {
+        PartCopyScheduler scheduler = new PartCopyScheduler(3);
+
+        AtomicInteger copying = new AtomicInteger();
+        AtomicInteger maxCopying = new AtomicInteger();
+
+        List<Callable<Integer>> parts = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            final int number = i + 1;
+            parts.add(() -> {
+                maxCopying.accumulateAndGet(copying.incrementAndGet(), Math::max);
+                Thread.sleep(20);
+                copying.decrementAndGet();
+                return number;
+            });
+        }
+
+        List<Integer> copied = scheduler.copy(parts);
+
+        assertEquals(12, copied.size());
+        for (int i = 0; i < 12; i++) {
+            assertEquals(i + 1, copied.get(i));
+        }
+        assertEquals(3, maxCopying.get());
+        assertEquals(3, scheduler.limit());
+
+        scheduler.close();
+    }
+
+    @Test
+    public void testFairness() throws InterruptedException {
+        PartCopyScheduler scheduler = new PartCopyScheduler(1);
+
+        CountDownLatch latch = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        List<Callable<String>> large = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            final String part = "large-" + i;
+            large.add(() -> {
+                if (part.equals("large-1")) {
+                    latch.await();
+                }
+                order.add(part);
+                return part;
+            });
+        }
+
+        List<Callable<String>> small = new ArrayList<>();
+        for (int i = 1; i <= 2; i++) {
+            final String part = "small-" + i;
+            small.add(() -> {
+                order.add(part);
+                return part;
+            });
+        }
+
+        Thread largeCopy = new Thread(() -> scheduler.copy(large));
+        largeCopy.start();
+        Thread.sleep(100);
+
+        Thread smallCopy = new Thread(() -> scheduler.copy(small));
+        smallCopy.start();
+        Thread.sleep(100);
+
+        latch.countDown();
+
+        largeCopy.join();
+        smallCopy.join();
+
+        // objects take turns once the first part of the large object completes
+        assertEquals(List.of("large-1", "large-2", "small-1", "large-3", "small-2"), order);
+
+        scheduler.close();
+    }
+
+    @Test
+    public void testFailure() {
+        PartCopyScheduler scheduler = new PartCopyScheduler(1);
+
+        AtomicInteger copied = new AtomicInteger();
+
+        List<Callable<Integer>> parts = new ArrayList<>();
+        parts.add(() -> {
+            throw new IllegalStateException("fubar");
+        });
+        for (int i = 0; i < 100; i++) {
+            parts.add(() -> {
+                Thread.sleep(10);
+                return copied.incrementAndGet();
+            });
+        }
+
+        assertThrows(IllegalStateException.class, () -> scheduler.copy(parts));
+
+        // remaining parts are cancelled
+        assertTrue(copied.get() < 100);
+
+        scheduler.close();
+
+        assertThrows(IllegalStateException.class, () -> scheduler.copy(parts));
+    }
+
+}
@@ -0,0 +1,101 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Part layout tests.
+ */
+public class PartLayoutTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    @Test
+    public void testPartCount() {
+        assertEquals(0, PartLayout.partCount("\"d41d8cd98f00b204e9800998ecf8427e\""));
+        assertEquals(3, PartLayout.partCount("\"d41d8cd98f00b204e9800998ecf8427e-3\""));
+        assertEquals(1200, PartLayout.partCount("d41d8cd98f00b204e9800998ecf8427e-1200"));
+        assertEquals(0, PartLayout.partCount("d41d8cd98f00b204e9800998ecf8427e-"));
+    }
+
+    @Test
+    public void testUniform() {
+        List<ObjectPart> parts = PartLayout.uniform(20 * MIB + 7, 8 * MIB, 4 * MIB + 7, 3);
+
+        assertEquals(3, parts.size());
+        assertEquals(new ObjectPart(1, 0L, 8 * MIB), parts.get(0));
+        assertEquals(new ObjectPart(2, 8 * MIB, 8 * MIB), parts.get(1));
+        assertEquals(new ObjectPart(3, 16 * MIB, 4 * MIB + 7), parts.get(2));
+
+        assertEquals(Arrays.asList(new ObjectPart(1, 0L, 100L)), PartLayout.uniform(100L, 100L, 100L, 1));
+
+        // sizes not of a uniform layout
+        assertTrue(PartLayout.uniform(20 * MIB, 8 * MIB, 2 * MIB, 3).isEmpty());
+        assertTrue(PartLayout.uniform(20 * MIB, 5 * MIB, 10 * MIB, 3).isEmpty());
+    }
+
+    @Test
+    public void testOf() {
+        List<ObjectPart> parts = PartLayout.of(17 * MIB, Arrays.asList(5 * MIB, 10 * MIB, 2 * MIB));
+
+        assertEquals(3, parts.size());
+        assertEquals(new ObjectPart(1, 0L, 5 * MIB), parts.get(0));
+        assertEquals(new ObjectPart(2, 5 * MIB, 10 * MIB), parts.get(1));
+        assertEquals(new ObjectPart(3, 15 * MIB, 2 * MIB), parts.get(2));
+
+        // sizes not adding up to object size
+        assertTrue(PartLayout.of(18 * MIB, Arrays.asList(5 * MIB, 10 * MIB, 2 * MIB)).isEmpty());
+    }
+
+    @Test
+    public void testCache() {
+        PartLayout layout = new PartLayout();
+
+        S3Object source = S3Object.builder()
+            .key("12887301/v1/content/data/400171130.lfs")
+            .eTag("\"d41d8cd98f00b204e9800998ecf8427e-2\"")
+            .size(10 * MIB)
+            .build();
+
+        assertNull(layout.cached(source));
+
+        List<ObjectPart> parts = PartLayout.uniform(10 * MIB, 5 * MIB, 5 * MIB, 2);
+
+        assertSame(parts, layout.cache(source, parts));
+        assertSame(parts, layout.cached(source));
+
+        assertNull(layout.cached(source.toBuilder()
+            .eTag("\"0cc175b9c0f1b6a831c399e269772661-2\"")
+            .build()));
+
+        for (int i = 0; i < PartLayout.MAX_CACHED; i++) {
+            layout.cache(source.toBuilder().key("key" + i).build(), parts);
+        }
+
+        assertNull(layout.cached(source));
+    }
+
+}
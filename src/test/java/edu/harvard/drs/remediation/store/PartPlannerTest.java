@@ -0,0 +1,85 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Part planner tests.
+ */
+public class PartPlannerTest {
+
+    private static final long MIB = 1024 * 1024;
+
+    private static final long GIB = 1024 * MIB;
+
+    @Test
+    public void testPartSize() {
+        PartPlanner planner = new PartPlanner(50 * MIB, 100);
+
+        assertEquals(50 * MIB, planner.partSize(150 * MIB));
+        assertEquals(50 * MIB, planner.partSize(4 * GIB));
+        assertEquals(52 * MIB, planner.partSize(5 * GIB));
+        assertEquals(3815 * MIB, planner.partSize(400000000000L));
+
+        assertEquals(100, planner.partCount(400000000000L));
+        assertEquals(102, planner.requests(400000000000L));
+
+        assertEquals(3, planner.partCount(150 * MIB));
+        assertEquals(5, planner.requests(150 * MIB));
+    }
+
+    @Test
+    public void testPartLimits() {
+        PartPlanner planner = new PartPlanner(MIB, 0);
+
+        // minimum part size
+        assertEquals(PartPlanner.MIN_PART_SIZE, planner.partSize(100 * MIB));
+
+        // grown only to the part count limit
+        long size = 5000L * GIB;
+        assertTrue(planner.partCount(size) <= PartPlanner.MAX_PARTS);
+        assertEquals(512 * MIB, planner.partSize(size));
+
+        // part size limit
+        assertEquals(PartPlanner.MAX_PART_SIZE, new PartPlanner(10 * GIB, 100).partSize(100 * MIB));
+        assertEquals(PartPlanner.MAX_PART_SIZE, new PartPlanner(50 * MIB, 1).partSize(50 * GIB));
+    }
+
+    @Test
+    public void testPlan() {
+        PartPlanner planner = new PartPlanner(50 * MIB, 100);
+
+        List<ObjectPart> parts = planner.plan(120 * MIB + 1);
+
+        assertEquals(3, parts.size());
+        assertEquals(new ObjectPart(1, 0L, 50 * MIB), parts.get(0));
+        assertEquals(new ObjectPart(2, 50 * MIB, 50 * MIB), parts.get(1));
+        assertEquals(new ObjectPart(3, 100 * MIB, 20 * MIB + 1), parts.get(2));
+
+        long length = parts.stream()
+            .mapToLong(ObjectPart::getLength)
+            .sum();
+
+        assertEquals(120 * MIB + 1, length);
+    }
+
+}
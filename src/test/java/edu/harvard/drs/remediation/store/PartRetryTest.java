@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+
+/**
+ * Part retry tests.
+ */
+public class PartRetryTest {
+
+    @Test
+    public void testRetrying() throws Exception {
+        PartRetry retry = new PartRetry(3, 1);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        String part = retry.<String>retrying(() -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw SdkClientException.create("connection reset");
+            }
+            return "part";
+        }).call();
+
+        assertEquals("part", part);
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testRetriesExhausted() {
+        PartRetry retry = new PartRetry(2, 1);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(S3Exception.class, () -> retry.<String>retrying(() -> {
+            attempts.incrementAndGet();
+            throw S3Exception.builder().statusCode(503).build();
+        }).call());
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    public void testNotRetryable() {
+        PartRetry retry = new PartRetry(3, 1);
+
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(S3Exception.class, () -> retry.<String>retrying(() -> {
+            attempts.incrementAndGet();
+            throw S3Exception.builder().statusCode(403).build();
+        }).call());
+
+        assertEquals(1, attempts.get());
+
+        assertTrue(PartRetry.retryable(S3Exception.builder().statusCode(429).build()));
+        assertTrue(PartRetry.retryable(S3Exception.builder().statusCode(500).build()));
+        assertFalse(PartRetry.retryable(S3Exception.builder().statusCode(404).build()));
+    }
+
+    @Test
+    public void testDelay() {
+        PartRetry retry = new PartRetry(3, 1000);
+
+        assertTrue(retry.delay(1) >= 500 && retry.delay(1) <= 1000);
+        assertTrue(retry.delay(3) >= 2000 && retry.delay(3) <= 4000);
+        assertTrue(retry.delay(30) <= PartRetry.MAX_BACKOFF);
+    }
+
+}
@@ -0,0 +1,152 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Prefetching iterator tests.
+ */
+public class PrefetchingIteratorTest {
+
+    @Test
+    public void testPrefetch() {
+        List<List<S3Object>> pages = pages(10, 100);
+
+        PrefetchingIterator iterator = new PrefetchingIterator(pages.iterator(), 2, 1000, Long.MAX_VALUE);
+
+        List<List<S3Object>> actual = new ArrayList<>();
+        iterator.forEachRemaining(actual::add);
+
+        assertEquals(pages, actual);
+        assertFalse(iterator.hasNext());
+        assertEquals(0, iterator.queued());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+    }
+
+    @Test
+    public void testPrefetchBounded() throws InterruptedException {
+        List<List<S3Object>> pages = pages(10, 100);
+        AtomicInteger fetched = new AtomicInteger();
+
+        Iterator<List<S3Object>> source = new Iterator<List<S3Object>>() {
+
+            private final Iterator<List<S3Object>> iterator = pages.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return iterator.hasNext();
+            }
+
+            @Override
+            public List<S3Object> next() {
+                fetched.incrementAndGet();
+                return iterator.next();
+            }
+
+        };
+
+        long pageBytes = PrefetchingIterator.estimate(pages.get(0));
+
+        PrefetchingIterator iterator = new PrefetchingIterator(source, 5, 1000, pageBytes * 3);
+
+        Thread.sleep(500);
+
+        // three pages queued within byte budget and one fetched awaiting room
+        assertEquals(300, iterator.queued());
+        assertEquals(4, fetched.get());
+
+        iterator.next();
+
+        Thread.sleep(500);
+
+        assertEquals(300, iterator.queued());
+        assertEquals(5, fetched.get());
+    }
+
+    @Test
+    public void testPrefetchOversizedPage() {
+        List<List<S3Object>> pages = pages(3, 100);
+
+        PrefetchingIterator iterator = new PrefetchingIterator(pages.iterator(), 1, 10, 10);
+
+        int count = 0;
+        while (iterator.hasNext()) {
+            assertEquals(100, iterator.next().size());
+            count++;
+        }
+
+        assertEquals(3, count);
+    }
+
+    @Test
+    public void testPrefetchError() {
+        Iterator<List<S3Object>> failing = new Iterator<List<S3Object>>() {
+
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public List<S3Object> next() {
+                throw new IllegalStateException("fubar");
+            }
+
+        };
+
+        PrefetchingIterator iterator = new PrefetchingIterator(failing, 2, 1000, Long.MAX_VALUE);
+
+        assertThrows(RuntimeException.class, () -> iterator.hasNext());
+    }
+
+    @Test
+    public void testEstimate() {
+        List<S3Object> page = pages(1, 2).get(0);
+
+        assertTrue(PrefetchingIterator.estimate(page) > 2 * PrefetchingIterator.OBJECT_OVERHEAD);
+    }
+
+    private List<List<S3Object>> pages(int count, int size) {
+        List<List<S3Object>> pages = new ArrayList<>();
+        for (int p = 0; p < count; p++) {
+            List<S3Object> page = new ArrayList<>();
+            for (int o = 0; o < size; o++) {
+                page.add(S3Object.builder()
+                    .key(format("%08d/v1/content/data/%d.png", p, o))
+                    .eTag("\"7a4e2e1cbd9e1a4f4fbdbc6b8e8f6c35\"")
+                    .build());
+            }
+            pages.add(page);
+        }
+
+        return pages;
+    }
+
+}
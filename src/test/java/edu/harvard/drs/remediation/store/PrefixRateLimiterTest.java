@@ -0,0 +1,172 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Optional;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.interceptor.Context;
+import software.amazon.awssdk.core.interceptor.ExecutionAttributes;
+import software.amazon.awssdk.http.SdkHttpResponse;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+
+/**
+ * Prefix rate limiter tests.
+ */
+public class PrefixRateLimiterTest {
+
+    @Test
+    public void testPrefix() {
+        assertEquals("12887301/", PrefixRateLimiter.prefix("12887301/v1/content/data/400171130.png", 1));
+        assertEquals("1037/8821/", PrefixRateLimiter.prefix("1037/8821/12887301/v1/content/data/400171130.png", 2));
+        assertEquals("12887301", PrefixRateLimiter.prefix("12887301", 2));
+    }
+
+    @Test
+    public void testReserve() {
+        PrefixRateLimiter limiter = new PrefixRateLimiter(10);
+
+        long now = 0;
+
+        // one second of burst
+        for (int i = 0; i < 10; i++) {
+            assertEquals(0, limiter.reserve("12887301/", 1, now));
+        }
+
+        assertEquals(MILLISECONDS.toNanos(100), limiter.reserve("12887301/", 1, now));
+        assertEquals(MILLISECONDS.toNanos(200), limiter.reserve("12887301/", 1, now));
+
+        // prefixes limited independently
+        assertEquals(0, limiter.reserve("12887302/", 1, now));
+
+        // tokens accrue at rate
+        assertEquals(0, limiter.reserve("12887301/", 1, now + SECONDS.toNanos(1)));
+    }
+
+    @Test
+    public void testThrottled() {
+        PrefixRateLimiter limiter = new PrefixRateLimiter(64);
+
+        limiter.throttled("1037/8821/", 0);
+        assertEquals(32, limiter.rate("1037/8821/"));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.throttled("1037/8821/", 0);
+        }
+        assertEquals(2, limiter.rate("1037/8821/"));
+
+        // recovers linearly over recovery period
+        limiter.reserve("1037/8821/", 1, PrefixRateLimiter.RECOVERY / 2);
+        assertEquals(33, limiter.rate("1037/8821/"));
+
+        limiter.reserve("1037/8821/", 1, PrefixRateLimiter.RECOVERY * 2);
+        assertEquals(64, limiter.rate("1037/8821/"));
+
+        assertEquals(64, limiter.rate("2037/8821/"));
+    }
+
+    @Test
+    public void testThrottleInterceptorPrefixes() {
+        assertEquals(Set.of("1037/8821/"), ThrottleInterceptor.prefixes(CopyObjectRequest.builder()
+            .sourceBucket("bucket")
+            .sourceKey("12887301/v1/content/data/400171130.png")
+            .destinationBucket("bucket")
+            .destinationKey("1037/8821/12887301/v1/content/data/400171130.png")
+            .build()));
+
+        assertEquals(Set.of("12887301/"), ThrottleInterceptor.prefixes(DeleteObjectRequest.builder()
+            .bucket("bucket")
+            .key("12887301/v1/content/data/400171130.png")
+            .build()));
+
+        assertEquals(Set.of("12887301/", "12887302/"), ThrottleInterceptor.prefixes(DeleteObjectsRequest.builder()
+            .bucket("bucket")
+            .delete(Delete.builder()
+                .objects(
+                    ObjectIdentifier.builder().key("12887301/v1/content/data/400171130.png").build(),
+                    ObjectIdentifier.builder().key("12887301/v1/content/data/400171131.png").build(),
+                    ObjectIdentifier.builder().key("12887302/v1/content/data/400171132.png").build()
+                )
+                .build())
+            .build()));
+
+        assertTrue(ThrottleInterceptor.prefixes(HeadObjectRequest.builder()
+            .bucket("bucket")
+            .key("12887301/v1/content/data/400171130.png")
+            .build()).isEmpty());
+    }
+
+    @Test
+    public void testThrottleInterceptorSlowDown() throws Exception {
+        PrefixRateLimiter limiter = new PrefixRateLimiter(64);
+        ThrottleInterceptor interceptor = new ThrottleInterceptor(limiter);
+
+        CopyObjectRequest request = CopyObjectRequest.builder()
+            .sourceBucket("bucket")
+            .sourceKey("12887301/v1/content/data/400171130.png")
+            .destinationBucket("bucket")
+            .destinationKey("1037/8821/12887301/v1/content/data/400171130.png")
+            .build();
+
+        String slowDown = "<Error><Code>SlowDown</Code><Message>Please reduce your request rate.</Message></Error>";
+        String unavailable = "<Error><Code>ServiceUnavailable</Code><Message>Service is unable to handle request."
+            + "</Message></Error>";
+
+        assertEquals("SlowDown", ThrottleInterceptor.errorCode(slowDown.getBytes(StandardCharsets.UTF_8)));
+
+        // other service unavailable errors are not throttling
+        interceptor.modifyHttpResponseContent(context(request, 503, unavailable), new ExecutionAttributes());
+        assertEquals(64, limiter.rate("1037/8821/"));
+
+        interceptor.modifyHttpResponseContent(context(request, 500, slowDown), new ExecutionAttributes());
+        assertEquals(64, limiter.rate("1037/8821/"));
+
+        // body remains readable by the client
+        Optional<InputStream> body = interceptor.modifyHttpResponseContent(context(request, 503, slowDown),
+            new ExecutionAttributes());
+        assertEquals(32, limiter.rate("1037/8821/"));
+        assertEquals(slowDown, new String(body.orElseThrow().readAllBytes(), StandardCharsets.UTF_8));
+    }
+
+    private Context.ModifyHttpResponse context(CopyObjectRequest request, int statusCode, String body) {
+        Context.ModifyHttpResponse context = mock(Context.ModifyHttpResponse.class);
+        when(context.request()).thenReturn(request);
+        when(context.httpResponse()).thenReturn(SdkHttpResponse.builder()
+            .statusCode(statusCode)
+            .build());
+        when(context.responseBody()).thenReturn(Optional.of(new ByteArrayInputStream(
+            body.getBytes(StandardCharsets.UTF_8))));
+
+        return context;
+    }
+
+}
@@ -0,0 +1,125 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Rate limited object store tests.
+ */
+public class RateLimitedObjectStoreTest {
+
+    private final S3Object object = S3Object.builder()
+        .key("12887301/v1/content/data/400171130.png")
+        .build();
+
+    private final String destinationKey = "1037/8821/12887301/v1/content/data/400171130.png";
+
+    @Test
+    public void testRename() {
+        ObjectStore delegate = mock(ObjectStore.class);
+        when(delegate.rename(object, destinationKey)).thenReturn(0);
+
+        PrefixRateLimiter limiter = new PrefixRateLimiter(1);
+
+        ObjectStore store = new RateLimitedObjectStore(delegate, limiter, false);
+
+        assertEquals(0, store.renameAsync(object, destinationKey).join());
+
+        verify(delegate).rename(object, destinationKey);
+        verify(delegate, never()).renameAsync(object, destinationKey);
+
+        // copy and delete reserved against destination and source prefixes
+        assertTrue(limiter.reserve("1037/8821/") > 0);
+        assertTrue(limiter.reserve("12887301/") > 0);
+    }
+
+    @Test
+    public void testRenameAsync() {
+        ObjectStore delegate = mock(ObjectStore.class);
+        when(delegate.renameAsync(object, destinationKey)).thenReturn(CompletableFuture.completedFuture(0));
+
+        ObjectStore store = new RateLimitedObjectStore(delegate, new PrefixRateLimiter(2), true);
+
+        // renames within burst are not delayed
+        for (int i = 0; i < 2; i++) {
+            assertTrue(store.renameAsync(object, destinationKey).isDone());
+        }
+
+        // rename beyond burst waits for the prefix without blocking the caller
+        long start = System.nanoTime();
+        CompletableFuture<Integer> throttled = store.renameAsync(object, destinationKey);
+
+        assertFalse(throttled.isDone());
+        assertEquals(0, throttled.join());
+        assertTrue(System.nanoTime() - start >= 250000000L);
+    }
+
+    @Test
+    public void testCopyMultipart() {
+        ObjectStore delegate = mock(ObjectStore.class);
+        when(delegate.copyRequests(object)).thenReturn(10);
+        when(delegate.copy(object, destinationKey)).thenReturn(0);
+
+        PrefixRateLimiter limiter = new PrefixRateLimiter(10);
+
+        ObjectStore store = new RateLimitedObjectStore(delegate, limiter, false);
+
+        assertEquals(0, store.copy(object, destinationKey));
+
+        // every part copy reserved against destination prefix
+        assertTrue(limiter.reserve("1037/8821/") > 0);
+        assertEquals(0, limiter.reserve("12887301/"));
+    }
+
+    @Test
+    public void testDelete() {
+        List<S3Object> objects = List.of(
+            object,
+            S3Object.builder().key("12887301/v1/content/data/400171131.png").build(),
+            S3Object.builder().key("12887302/v1/content/data/400171132.png").build()
+        );
+
+        ObjectStore delegate = mock(ObjectStore.class);
+        when(delegate.delete(objects)).thenReturn(Set.of());
+
+        PrefixRateLimiter limiter = new PrefixRateLimiter(2);
+
+        ObjectStore store = new RateLimitedObjectStore(delegate, limiter, false);
+
+        assertEquals(Set.of(), store.delete(objects));
+
+        verify(delegate).delete(objects);
+
+        // each key reserved against its source prefix
+        assertTrue(limiter.reserve("12887301/") > 0);
+        assertEquals(0, limiter.reserve("12887302/"));
+    }
+
+}
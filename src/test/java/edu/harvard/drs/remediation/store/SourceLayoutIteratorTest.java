@@ -0,0 +1,136 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getAwsBucketName;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CopyObjectRequest;
+import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.S3Object;
+import software.amazon.awssdk.services.s3.paginators.ListObjectsV2Iterable;
+
+/**
+ * Source layout iterator tests.
+ */
+public class SourceLayoutIteratorTest extends AbstractStoreTest {
+
+    @Test
+    public void testSkipRemediated(final S3Client s3) {
+        List<String> remediatedKeys = Arrays.asList(
+            "6927/8821/12887296/v1/content/data/400171120.png",
+            "6927/8821/12887296/v1/content/descriptor/400171120_mets.xml",
+            "6927/8821/12887296/v1/content/metadata/400171120_mods.xml"
+        );
+
+        for (String remediatedKey : remediatedKeys) {
+            move(s3, remediatedKey.substring(10), remediatedKey);
+        }
+
+        // 4 digit NSS in source layout and object directly within 4 digit prefix
+        put(s3, "1234/v1/content/data/400171100.png");
+        put(s3, "6927/readme.txt");
+
+        List<String> expectedKeys = s3.listObjectsV2Paginator(ListObjectsV2Request.builder()
+            .bucket(getAwsBucketName())
+            .build())
+            .contents()
+            .stream()
+            .map(S3Object::key)
+            .filter(key -> !remediatedKeys.contains(key))
+            .collect(Collectors.toList());
+
+        assertEquals(19, expectedKeys.size());
+
+        SourceLayoutIterator iterator = new SourceLayoutIterator(s3, getAwsBucketName(), 3, new KeyRange(null, null));
+
+        List<String> keys = new ArrayList<>();
+        while (iterator.hasNext()) {
+            List<S3Object> partition = iterator.next();
+            assertTrue(partition.size() <= 3);
+            partition.forEach(o -> keys.add(o.key()));
+        }
+
+        assertEquals(expectedKeys, keys);
+
+        // source layout prefixes between remediated prefixes listed as a single run
+        S3Client client = mock(S3Client.class, delegatesTo(s3));
+
+        doAnswer(invocation -> new ListObjectsV2Iterable(client, invocation.getArgument(0)))
+            .when(client)
+            .listObjectsV2Paginator(any(ListObjectsV2Request.class));
+
+        iterator = new SourceLayoutIterator(client, getAwsBucketName(), 1000, new KeyRange(null, null));
+
+        keys.clear();
+        iterator.next().forEach(o -> keys.add(o.key()));
+
+        assertEquals(expectedKeys, keys);
+
+        verify(client, times(6))
+            .listObjectsV2(any(ListObjectsV2Request.class));
+
+        iterator = new SourceLayoutIterator(s3, getAwsBucketName(), 1000, new KeyRange("12887299", "12887302"));
+
+        List<String> rangeKeys = iterator.next()
+            .stream()
+            .map(S3Object::key)
+            .collect(Collectors.toList());
+
+        assertEquals(expectedKeys.stream()
+            .filter(key -> key.compareTo("12887299") > 0 && key.compareTo("12887302") <= 0)
+            .collect(Collectors.toList()), rangeKeys);
+    }
+
+    private void move(S3Client s3, String sourceKey, String destinationKey) {
+        s3.copyObject(CopyObjectRequest.builder()
+            .sourceBucket(getAwsBucketName())
+            .sourceKey(sourceKey)
+            .destinationBucket(getAwsBucketName())
+            .destinationKey(destinationKey)
+            .build());
+
+        s3.deleteObject(DeleteObjectRequest.builder()
+            .bucket(getAwsBucketName())
+            .key(sourceKey)
+            .build());
+    }
+
+    private void put(S3Client s3, String key) {
+        s3.putObject(PutObjectRequest.builder()
+            .bucket(getAwsBucketName())
+            .key(key)
+            .build(), RequestBody.fromString(key));
+    }
+
+}
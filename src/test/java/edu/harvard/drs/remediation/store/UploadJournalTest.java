@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Upload journal tests.
+ */
+public class UploadJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testJournal() throws IOException {
+        String path = directory.resolve("uploads.txt").toString();
+
+        UploadJournal journal = new UploadJournal(path);
+
+        String first = "6927/8821/12887296/v1/content/data/400171120.lfs";
+        String second = "9927/8821/12887299/v1/content/data/400171126.lfs";
+
+        journal.started(first, "\"0cc175b9c0f1b6a831c399e269772661-3\"", "upload-1");
+        journal.copied(first, 1, "92eb5ffee6ae2fec3ad71c777531578f");
+        journal.copied(first, 3, "4a8a08f09d37b73795649038408b5f33");
+
+        journal.started(second, "\"8277e0910d750195b448797616e091ad-2\"", "upload-2");
+        journal.copied(second, 1, "e1671797c52e15f763380b45e841ec32");
+        journal.ended(second);
+
+        UploadJournal resumed = new UploadJournal(path);
+
+        assertEquals(1, resumed.uploads().size());
+
+        UploadJournal.Upload upload = resumed.upload(first, "\"0cc175b9c0f1b6a831c399e269772661-3\"");
+
+        assertEquals("upload-1", upload.getUploadId());
+        assertEquals(2, upload.getParts().size());
+        assertEquals("4a8a08f09d37b73795649038408b5f33", upload.getParts().get(3));
+
+        // upload of a different source etag is not resumed
+        assertNull(resumed.upload(first, "\"0cc175b9c0f1b6a831c399e269772661-4\""));
+        assertNull(resumed.upload(second, "\"8277e0910d750195b448797616e091ad-2\""));
+
+        // compacted to open uploads when loaded
+        assertEquals(3, Files.readAllLines(directory.resolve("uploads.txt"), UTF_8).size());
+
+        resumed.ended(first);
+
+        assertTrue(new UploadJournal(path).uploads().isEmpty());
+    }
+
+}
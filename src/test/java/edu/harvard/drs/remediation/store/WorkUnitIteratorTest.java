@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.store;
+
+import static java.lang.String.format;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.s3.model.S3Object;
+
+/**
+ * Work unit iterator tests.
+ */
+public class WorkUnitIteratorTest {
+
+    @Test
+    public void testUnits() {
+        List<List<S3Object>> pages = Arrays.asList(
+            Arrays.asList(object(0, 10), object(1, 10), object(2, 10)),
+            Collections.emptyList(),
+            Arrays.asList(object(3, 500), object(4, 10), object(5, 60), object(6, 50)),
+            Arrays.asList(object(7, 10))
+        );
+
+        WorkUnitIterator iterator = new WorkUnitIterator(pages.iterator(), 100, 4);
+
+        List<List<S3Object>> units = new ArrayList<>();
+        iterator.forEachRemaining(units::add);
+
+        // objects in listing order, large object in a unit of its own
+        assertEquals(Arrays.asList(
+            Arrays.asList(0, 1, 2),
+            Arrays.asList(3),
+            Arrays.asList(4, 5),
+            Arrays.asList(6, 7)
+        ), units.stream().map(WorkUnitIteratorTest::indexes).collect(Collectors.toList()));
+
+        assertFalse(iterator.hasNext());
+        assertThrows(NoSuchElementException.class, () -> iterator.next());
+    }
+
+    @Test
+    public void testMaxObjects() {
+        List<S3Object> page = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            page.add(object(i, 1));
+        }
+
+        WorkUnitIterator iterator = new WorkUnitIterator(Arrays.asList(page, page).iterator(), 1000, 8);
+
+        List<Integer> sizes = new ArrayList<>();
+        iterator.forEachRemaining(unit -> sizes.add(unit.size()));
+
+        assertEquals(Arrays.asList(8, 8, 4), sizes);
+    }
+
+    private static List<Integer> indexes(List<S3Object> unit) {
+        return unit.stream()
+            .map(o -> Integer.parseInt(o.key().substring(o.key().lastIndexOf('/') + 1)))
+            .collect(Collectors.toList());
+    }
+
+    private static S3Object object(int index, long size) {
+        return S3Object.builder()
+            .key(format("12887301/v1/content/data/%d", index))
+            .size(size)
+            .build();
+    }
+
+}
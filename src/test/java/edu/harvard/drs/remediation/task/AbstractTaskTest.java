@@ -16,6 +16,9 @@
 
 package edu.harvard.drs.remediation.task;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doCallRealMethod;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doReturn;
 
@@ -98,6 +101,14 @@ public abstract class AbstractTaskTest {
                 .when(store)
                 .close();
 
+            doCallRealMethod()
+                .when(store)
+                .renameAsync(any(S3Object.class), anyString());
+
+            doCallRealMethod()
+                .when(store)
+                .copyAsync(any(S3Object.class), anyString());
+
             for (int k = 0; k < keys[0].length; ++k) {
                 int result = keys[i][0].equals("12887296/v1/content/data/400171120.png")
                     ? 1
@@ -109,7 +120,7 @@ public abstract class AbstractTaskTest {
 
             final Instant start = Instant.now();
 
-            this.remediationTasks.add(new AmazonS3RemediationTask(start, store, partition));
+            this.remediationTasks.add(AmazonS3RemediationTask.builder(start, store, partition).build());
         }
     }
 
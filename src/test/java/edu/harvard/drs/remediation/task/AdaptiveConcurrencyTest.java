@@ -0,0 +1,100 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Adaptive concurrency tests.
+ */
+public class AdaptiveConcurrencyTest {
+
+    @Test
+    public void testIncrease() {
+        AdaptiveConcurrency concurrency = new AdaptiveConcurrency(1, 12, 0);
+
+        assertEquals(1, concurrency.limit());
+
+        // not adjusted until window has min samples
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES - 1, 100, 0);
+        assertEquals(1, concurrency.limit());
+        concurrency.record(100, 0);
+        assertEquals(2, concurrency.limit());
+
+        // doubles until max
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        assertEquals(4, concurrency.limit());
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        assertEquals(8, concurrency.limit());
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        assertEquals(12, concurrency.limit());
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        assertEquals(12, concurrency.limit());
+    }
+
+    @Test
+    public void testDecrease() {
+        AdaptiveConcurrency concurrency = new AdaptiveConcurrency(1, 16, 0);
+
+        for (int i = 0; i < 4; i++) {
+            window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        }
+        assertEquals(16, concurrency.limit());
+
+        // error rate above threshold decreases multiplicatively
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 1);
+        assertEquals(11, concurrency.limit());
+
+        // increases additively once decreased
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, 0);
+        assertEquals(12, concurrency.limit());
+
+        // latency above baseline decreases multiplicatively
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 300, 0);
+        assertEquals(8, concurrency.limit());
+
+        // baseline drifts upward
+        window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 205, 0);
+        assertEquals(9, concurrency.limit());
+
+        // not decreased below min
+        for (int i = 0; i < 10; i++) {
+            window(concurrency, AdaptiveConcurrency.MIN_SAMPLES, 100, AdaptiveConcurrency.MIN_SAMPLES);
+        }
+        assertEquals(1, concurrency.limit());
+    }
+
+    @Test
+    public void testPercentile() {
+        List<Double> sorted = Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 7.0, 8.0, 9.0, 10.0);
+
+        assertEquals(5.0, AdaptiveConcurrency.percentile(sorted, 0.5));
+        assertEquals(9.0, AdaptiveConcurrency.percentile(sorted, 0.9));
+        assertEquals(1.0, AdaptiveConcurrency.percentile(Arrays.asList(1.0), 0.9));
+    }
+
+    private static void window(AdaptiveConcurrency concurrency, int samples, double elapsed, int errors) {
+        for (int i = 0; i < samples; i++) {
+            concurrency.record(elapsed, i < errors ? -1 : 0);
+        }
+    }
+
+}
@@ -20,11 +20,22 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
+import edu.harvard.drs.remediation.checkpoint.Checkpoint;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.junit.jupiter.api.Test;
 import software.amazon.awssdk.services.s3.model.S3Object;
 
@@ -49,10 +60,206 @@ public class AmazonS3RemediationTaskTest extends AbstractTaskTest {
         this.remediationTasks.get(0)
             .complete();
 
-        verify(this.store, times(1))
+        // shared object store remains open for other tasks
+        verify(this.store, never())
             .close();
     }
 
+    @Test
+    public void testCompleteCheckpoint() {
+        Checkpoint checkpoint = mock(Checkpoint.class);
+
+        AmazonS3RemediationTask task = AmazonS3RemediationTask.builder(now, this.store, partitions.get(1))
+            .checkpoint(checkpoint)
+            .build();
+
+        task.complete();
+
+        verify(checkpoint, never())
+            .completed(partitions.get(1));
+        verify(checkpoint, times(1))
+            .failed(partitions.get(1));
+
+        task.execute()
+            .complete();
+
+        verify(checkpoint, times(1))
+            .completed(partitions.get(1));
+        verify(checkpoint, times(1))
+            .failed(List.of());
+    }
+
+    @Test
+    public void testCompleteCheckpointFailed() {
+        Checkpoint checkpoint = mock(Checkpoint.class);
+
+        List<S3Object> partition = partitions.get(1);
+
+        doReturn(-1)
+            .when(this.store)
+            .rename(partition.get(1), destinationKeys[1][1]);
+
+        AmazonS3RemediationTask.builder(now, this.store, partition)
+            .checkpoint(checkpoint)
+            .build()
+            .execute()
+            .complete();
+
+        verify(checkpoint, times(1))
+            .completed(List.of(partition.get(0), partition.get(2)));
+        verify(checkpoint, times(1))
+            .failed(List.of(partition.get(1)));
+    }
+
+    @Test
+    public void testCompleteCheckpointModifiedAfter() {
+        Checkpoint checkpoint = mock(Checkpoint.class);
+
+        S3Object object = S3Object.builder()
+            .key(keys[0][0])
+            .lastModified(Instant.now().plus(10, ChronoUnit.SECONDS))
+            .build();
+
+        AmazonS3RemediationTask.builder(now, this.store, List.of(object))
+            .checkpoint(checkpoint)
+            .build()
+            .execute()
+            .complete();
+
+        verify(checkpoint, times(1))
+            .completed(List.of());
+        verify(checkpoint, times(1))
+            .failed(List.of(object));
+    }
+
+    @Test
+    public void testCompletes() {
+        // renamed, key not mappable and already renamed complete
+        assertTrue(AmazonS3RemediationTask.completes(0));
+        assertTrue(AmazonS3RemediationTask.completes(2));
+        assertTrue(AmazonS3RemediationTask.completes(3));
+
+        // failed, skipped multipart, verify only and modified after start are retried
+        assertFalse(AmazonS3RemediationTask.completes(-1));
+        assertFalse(AmazonS3RemediationTask.completes(-2));
+        assertFalse(AmazonS3RemediationTask.completes(1));
+        assertFalse(AmazonS3RemediationTask.completes(4));
+        assertFalse(AmazonS3RemediationTask.completes(5));
+    }
+
+    @Test
+    public void testExecuteConcurrently() {
+        List<S3Object> partition = partitions.get(1);
+
+        AtomicInteger renaming = new AtomicInteger();
+        AtomicInteger maxRenaming = new AtomicInteger();
+
+        for (int k = 0; k < keys[1].length; ++k) {
+            doAnswer(invocation -> {
+                maxRenaming.accumulateAndGet(renaming.incrementAndGet(), Math::max);
+                Thread.sleep(100);
+                renaming.decrementAndGet();
+                return 0;
+            })
+                .when(this.store)
+                .rename(partition.get(k), destinationKeys[1][k]);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        AmazonS3RemediationTask.builder(now, this.store, partition)
+            .executor(executor)
+            .concurrency(2)
+            .build()
+            .execute();
+
+        executor.shutdown();
+
+        for (int k = 0; k < keys[1].length; ++k) {
+            verify(this.store, times(1))
+                .rename(partition.get(k), destinationKeys[1][k]);
+        }
+
+        assertEquals(2, maxRenaming.get());
+        assertEquals(0, renaming.get());
+    }
+
+    @Test
+    public void testExecuteException() {
+        Checkpoint checkpoint = mock(Checkpoint.class);
+
+        List<S3Object> partition = partitions.get(1);
+
+        doThrow(new IllegalStateException("fubar"))
+            .when(this.store)
+            .rename(partition.get(1), destinationKeys[1][1]);
+
+        AmazonS3RemediationTask.builder(now, this.store, partition)
+            .checkpoint(checkpoint)
+            .build()
+            .execute()
+            .complete();
+
+        verify(this.store, times(1))
+            .rename(partition.get(2), destinationKeys[1][2]);
+        verify(checkpoint, times(1))
+            .completed(List.of(partition.get(0), partition.get(2)));
+    }
+
+    @Test
+    public void testExecuteRejected() {
+        Checkpoint checkpoint = mock(Checkpoint.class);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        executor.shutdown();
+
+        List<S3Object> partition = partitions.get(1);
+
+        AmazonS3RemediationTask.builder(now, this.store, partition)
+            .checkpoint(checkpoint)
+            .executor(executor)
+            .concurrency(2)
+            .build()
+            .execute()
+            .complete();
+
+        verify(this.store, never())
+            .rename(partition.get(0), destinationKeys[1][0]);
+        verify(checkpoint, times(1))
+            .completed(List.of());
+    }
+
+    @Test
+    public void testExecuteBatchDelete() {
+        List<S3Object> partition = partitions.get(1);
+
+        for (int k = 0; k < keys[1].length; ++k) {
+            doReturn(0)
+                .when(this.store)
+                .copy(partition.get(k), destinationKeys[1][k]);
+        }
+
+        doReturn(Set.of(keys[1][1]))
+            .when(this.store)
+            .delete(partition);
+
+        AmazonS3RemediationTask task = AmazonS3RemediationTask.builder(now, this.store, partition)
+            .batchDelete(true)
+            .build();
+
+        task.execute();
+
+        for (int k = 0; k < keys[1].length; ++k) {
+            verify(this.store, times(1))
+                .copy(partition.get(k), destinationKeys[1][k]);
+            verify(this.store, never())
+                .rename(partition.get(k), destinationKeys[1][k]);
+        }
+
+        verify(this.store, times(1))
+            .delete(partition);
+    }
+
     @Test
     public void testRemediate() {
         this.remediationTasks.get(0)
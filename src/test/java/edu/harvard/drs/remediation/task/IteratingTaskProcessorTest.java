@@ -16,11 +16,15 @@
 
 package edu.harvard.drs.remediation.task;
 
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 import edu.harvard.drs.remediation.store.ObjectStore;
+import java.util.Arrays;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -47,4 +51,52 @@ public class IteratingTaskProcessorTest extends AbstractTaskTest {
         }
     }
 
+    @Test
+    public void testProcessorProgress() {
+        Callback callback = mock(Callback.class);
+        Progress progress = mock(Progress.class);
+
+        new IteratingTaskProcessor<AmazonS3RemediationTask>(1, this.remediationTasks.iterator(), callback, progress)
+            .start();
+
+        verify(callback, timeout(1000).times(1))
+            .complete();
+
+        verify(progress, times(ids.length))
+            .processed(keys[0].length);
+    }
+
+    @Test
+    public void testProcessorFailedTask() {
+        ProcessTask failed = mock(ProcessTask.class);
+        doReturn("failed").when(failed).id();
+        doReturn(3).when(failed).size();
+        doThrow(new RuntimeException("failed")).when(failed).execute();
+
+        ProcessTask task = mock(ProcessTask.class);
+        doReturn("task").when(task).id();
+        doReturn(2).when(task).size();
+        doReturn(task).when(task).execute();
+
+        Callback callback = mock(Callback.class);
+        Progress progress = mock(Progress.class);
+
+        new IteratingTaskProcessor<ProcessTask>(1, Arrays.asList(failed, task).iterator(), callback, progress)
+            .start();
+
+        verify(callback, timeout(1000).times(1))
+            .complete();
+
+        // failed task is still completed once, and counted as processed
+        verify(failed, times(1))
+            .complete();
+        verify(task, times(1))
+            .complete();
+
+        verify(progress, times(1))
+            .processed(3);
+        verify(progress, times(1))
+            .processed(2);
+    }
+
 }
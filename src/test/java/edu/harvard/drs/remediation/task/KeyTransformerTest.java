@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.lang.String.format;
+import static org.apache.commons.lang3.StringUtils.isNumeric;
+import static org.apache.commons.lang3.StringUtils.leftPad;
+import static org.apache.commons.lang3.StringUtils.reverse;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Key transformer tests.
+ */
+public class KeyTransformerTest {
+
+    private static final List<String> KEYS = Arrays.asList(
+        "101062745/v00001/content/data/400094393.jp2",
+        "12887296/v1/content/data/400171120.png",
+        "1/v1/content/data/1.png",
+        "12887296",
+        "123456789012/v1/content/data/400171120.png",
+        "-5/v1/content/data/400171120.png",
+        "+12887296/v1/content/data/400171120.png",
+        "9223372036854775807/v1",
+        "9223372036854775808/v1",
+        "-9223372036854775808/v1",
+        "-/v1",
+        "+/v1",
+        "",
+        "/12887296/v1",
+        "abc/v1/content",
+        "1288a296/v1/content",
+        "\u0661\u0662\u0663/v1", // arabic-indic digits
+        "6927/8821/12887296/v1/content/data/400171120.png",
+        "5472/6010/101062745/v00001/content/data/400094393.jp2",
+        "1000/0000/1",
+        "1000/0000/1/",
+        "1000/0000/01",
+        "6927/8821/12887296",
+        "6927/8821/",
+        "6927/8821//",
+        "6927/8821",
+        "6927/8822/12887296/v1",
+        "692/8821/12887296/v1",
+        "69270/8821/12887296/v1",
+        "6927//8821/12887296",
+        "6927/8821/1288729a/v1",
+        "4321/0000/1234",
+        "7654/3210/1234567890123/v1"
+    );
+
+    @Test
+    public void testMapKey() {
+        KeyTransformer transformer = new KeyTransformer();
+
+        assertEquals("5472/6010/101062745/v00001/content/data/400094393.jp2",
+            transformer.mapKey("101062745/v00001/content/data/400094393.jp2"));
+        assertEquals("1000/0000/1", transformer.mapKey("1"));
+
+        assertThrows(NumberFormatException.class, () -> transformer.mapKey("abc/v1"));
+        assertThrows(NumberFormatException.class, () -> transformer.mapKey("/v1"));
+        assertThrows(NumberFormatException.class, () -> transformer.mapKey("9223372036854775808/v1"));
+    }
+
+    @Test
+    public void testMapKeyWithNss() {
+        KeyTransformer transformer = new KeyTransformer();
+
+        assertEquals("6927/8821/12887296/v1/content/data/400171120.png",
+            transformer.mapKey("400171120/v1/content/data/400171120.png", "12887296"));
+        assertEquals("6927/8821/12887296", transformer.mapKey("400171120", "12887296"));
+        assertEquals("1000/0000/1/v1", transformer.mapKey("abc/v1", "1"));
+
+        assertThrows(NumberFormatException.class, () -> transformer.mapKey("400171120/v1", "abc"));
+        assertThrows(NumberFormatException.class, () -> transformer.mapKey("400171120/v1", ""));
+    }
+
+    @Test
+    public void testVerifyRename() {
+        KeyTransformer transformer = new KeyTransformer();
+
+        assertTrue(transformer.verifyRename("5472/6010/101062745/v00001/content/data/400094393.jp2"));
+        assertTrue(transformer.verifyRename("1000/0000/1"));
+        assertFalse(transformer.verifyRename("101062745/v00001/content/data/400094393.jp2"));
+        assertFalse(transformer.verifyRename("5472/6010/"));
+    }
+
+    @Test
+    public void testEquivalence() {
+        KeyTransformer transformer = new KeyTransformer();
+
+        List<String> keys = new ArrayList<>(KEYS);
+        Random random = new Random(42);
+        String alphabet = "0123456789/-+a";
+        for (int i = 0; i < 10000; i++) {
+            StringBuilder key = new StringBuilder();
+            int length = random.nextInt(24);
+            for (int k = 0; k < length; k++) {
+                key.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            keys.add(key.toString());
+        }
+        for (String key : KEYS) {
+            // mapped keys verify as renamed
+            try {
+                keys.add(mapKey(key));
+            } catch (NumberFormatException e) {
+                // not a number
+            }
+        }
+
+        for (String key : keys) {
+            String expected;
+            try {
+                expected = mapKey(key);
+            } catch (NumberFormatException e) {
+                expected = null;
+            }
+            String actual;
+            try {
+                actual = transformer.mapKey(key);
+            } catch (NumberFormatException e) {
+                actual = null;
+            }
+            assertEquals(expected, actual, key);
+            assertEquals(verifyRename(key), transformer.verifyRename(key), key);
+        }
+    }
+
+    private static String mapKey(String key) throws NumberFormatException {
+        String nss = key.contains("/")
+            ? key.substring(0, key.indexOf("/"))
+            : key;
+
+        Long.parseLong(nss);
+
+        String reversedNss = reverse(leftPad(nss, 8, "0"));
+
+        return format("%s/%s/%s", reversedNss.substring(0, 4), reversedNss.substring(4, 8), key);
+    }
+
+    private static boolean verifyRename(String key) {
+        boolean verified = true;
+        String[] path = key.split("/");
+        if (path.length < 3) {
+            verified = false;
+        }
+        if (verified && !isNumeric(path[0]) && path[0].length() != 4) {
+            verified = false;
+        }
+        if (verified && !isNumeric(path[1]) && path[1].length() != 4) {
+            verified = false;
+        }
+        if (verified && !isNumeric(path[2])) {
+            verified = false;
+        }
+        if (verified) {
+            String reversedNss = reverse(leftPad(path[2], 8, "0"));
+            verified = reversedNss.substring(0, 4).equals(path[0])
+                && reversedNss.substring(4, 8).equals(path[1]);
+        }
+
+        return verified;
+    }
+
+}
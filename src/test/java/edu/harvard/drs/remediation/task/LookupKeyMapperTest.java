@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputPattern;
+import static edu.harvard.drs.remediation.utility.EnvUtils.getInputSkip;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.harvard.drs.remediation.loader.FileLoader;
+import edu.harvard.drs.remediation.lookup.InMemoryLookupTable;
+import edu.harvard.drs.remediation.lookup.PrimitiveLookupTable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Lookup key mapper tests.
+ */
+public class LookupKeyMapperTest {
+
+    private InMemoryLookupTable lookupTable;
+
+    private LookupKeyMapper mapper;
+
+    @BeforeEach
+    void setup() {
+        lookupTable = new InMemoryLookupTable(
+            new FileLoader("src/test/resources/dump.txt", getInputPattern(), getInputSkip())
+        );
+        lookupTable.load();
+
+        mapper = new LookupKeyMapper(lookupTable);
+    }
+
+    @AfterEach
+    void cleanup() {
+        lookupTable.unload();
+    }
+
+    @Test
+    public void testMapKey() {
+        assertEquals("6927/8821/12887296/v1/content/data/400171120.png",
+            mapper.mapKey("400171120/v1/content/data/400171120.png"));
+        assertEquals("5097/8821/12887905/v1/content/data/400171138.png",
+            mapper.mapKey("12887905/v1/content/data/400171138.png"));
+        assertEquals("5097/8821/12887905", mapper.mapKey("12887905"));
+
+        assertThrows(NumberFormatException.class, () -> mapper.mapKey("abc/v1"));
+
+        lookupTable.set("abc", "12887305");
+
+        assertEquals("5037/8821/12887305/v1", mapper.mapKey("abc/v1"));
+    }
+
+    @Test
+    public void testMapKeyPrimitive() {
+        PrimitiveLookupTable ids = new PrimitiveLookupTable(
+            new FileLoader("src/test/resources/dump.txt", getInputPattern(), getInputSkip()),
+            16,
+            true,
+            false
+        );
+        ids.load();
+
+        LookupKeyMapper primitive = new LookupKeyMapper(ids);
+
+        assertEquals("6927/8821/12887296/v1/content/data/400171120.png",
+            primitive.mapKey("400171120/v1/content/data/400171120.png"));
+        assertEquals("5037/8821/12887305", primitive.mapKey("400171138"));
+        assertEquals("5097/8821/12887905/v1/content/data/400171138.png",
+            primitive.mapKey("12887905/v1/content/data/400171138.png"));
+        assertEquals("0211/7100/0400171120/v1", primitive.mapKey("0400171120/v1"));
+
+        assertThrows(NumberFormatException.class, () -> primitive.mapKey("abc/v1"));
+        assertThrows(NumberFormatException.class, () -> primitive.mapKey("/v1"));
+
+        // root folder both a DRS object id and the URN NSS of another object is not remapped
+        ids.set(12887296L, 12887999L);
+
+        assertThrows(NumberFormatException.class, () -> primitive.mapKey("12887296/v1/content/data/400171120.png"));
+        assertEquals("9997/8821/12887999/v1", primitive.mapKey("12887999/v1"));
+    }
+
+    @Test
+    public void testMapKeyCollision() {
+        // URN NSS of object 400171120 is also the DRS object id of another object
+        lookupTable.set("12887296", "12887999");
+
+        assertThrows(NumberFormatException.class, () -> mapper.mapKey("12887296/v1/content/data/400171120.png"));
+        assertEquals("6927/8821/12887296/v1/content/data/400171120.png",
+            mapper.mapKey("400171120/v1/content/data/400171120.png"));
+
+        // DRS object id equal to its own URN NSS maps to the same key either way
+        lookupTable.set("12887301", "12887301");
+
+        assertEquals("1037/8821/12887301/v1", mapper.mapKey("12887301/v1"));
+    }
+
+    @Test
+    public void testVerifyRename() {
+        assertTrue(mapper.verifyRename(mapper.mapKey("400171126/v1/content/data/400171126.png")));
+        assertFalse(mapper.verifyRename("400171126/v1/content/data/400171126.png"));
+    }
+
+    @Test
+    public void testConcurrentMapKey() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < 1000; i++) {
+                String key = i % 2 == 0
+                    ? "400171132/v1/content/data/" + i + ".png"
+                    : "12887302/v1/content/data/" + i + ".png";
+                futures.add(executor.submit(() -> mapper.mapKey(key)));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                assertEquals("2037/8821/12887302/v1/content/data/" + i + ".png", futures.get(i).get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+}
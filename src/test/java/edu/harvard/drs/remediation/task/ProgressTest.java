@@ -0,0 +1,80 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static java.lang.System.nanoTime;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Progress tests.
+ */
+public class ProgressTest {
+
+    @Test
+    public void testMessageWithoutTotal() {
+        Progress progress = new Progress(0);
+
+        assertTrue(progress.message(10, nanoTime()).startsWith("processed 10 objects in"));
+    }
+
+    @Test
+    public void testMessageCounting() {
+        Progress progress = new Progress(0);
+        progress.counting(100);
+
+        String message = progress.message(25, nanoTime() + 10000000000L);
+
+        assertTrue(message.startsWith("processed 25 of at least 100 objects (25.0%)"));
+        assertTrue(message.endsWith("estimated 30 seconds remaining"));
+    }
+
+    @Test
+    public void testMessageCounted() {
+        Progress progress = new Progress(0);
+        progress.counting(100);
+        progress.counted(200);
+        progress.counting(150);
+
+        String message = progress.message(50, nanoTime() + 10000000000L);
+
+        assertTrue(message.startsWith("processed 50 of 200 objects (25.0%)"));
+    }
+
+    @Test
+    public void testMessageExceedsTotal() {
+        Progress progress = new Progress(0);
+        progress.counted(10);
+
+        String message = progress.message(20, nanoTime() + 10000000000L);
+
+        assertEquals("processed 20 of 10 objects (100.0%) in 10 seconds, estimated 0 seconds remaining", message);
+    }
+
+    @Test
+    public void testProcessed() {
+        Progress progress = new Progress(0);
+        progress.counted(10);
+        progress.processed(4);
+        progress.processed(6);
+
+        assertTrue(progress.message(10, nanoTime()).startsWith("processed 10 of 10 objects (100.0%)"));
+    }
+
+}
@@ -0,0 +1,89 @@
+/**
+ * Copyright (c) 2021 President and Fellows of Harvard College
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package edu.harvard.drs.remediation.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Stage tests.
+ */
+public class StageTest {
+
+    @Test
+    public void testDrain() throws InterruptedException {
+        Set<Integer> handled = Collections.synchronizedSet(new HashSet<>());
+
+        Stage<Integer> stage = new Stage<>("test", 4, 2, i -> {
+            if (i == 3) {
+                throw new RuntimeException("failed");
+            }
+            handled.add(i);
+        });
+        stage.start();
+
+        for (int i = 0; i < 100; i++) {
+            stage.put(i);
+            assertTrue(stage.depth() <= 2);
+        }
+
+        stage.close();
+        stage.await();
+
+        // every item queued is handled once closed, a failed item does not stop the stage
+        assertEquals(99, handled.size());
+        assertEquals(0, stage.depth());
+
+        assertThrows(IllegalStateException.class, () -> stage.put(100));
+    }
+
+    @Test
+    public void testLimit() throws InterruptedException {
+        AtomicInteger limit = new AtomicInteger(2);
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger max = new AtomicInteger();
+
+        Stage<Integer> stage = new Stage<>("test", 8, 8, i -> {
+            max.accumulateAndGet(active.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(5);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            active.decrementAndGet();
+        }, limit::get);
+        stage.start();
+
+        for (int i = 0; i < 50; i++) {
+            stage.put(i);
+        }
+
+        stage.close();
+        stage.await();
+
+        assertTrue(max.get() <= 2);
+        assertEquals(0, stage.active());
+    }
+
+}
@@ -40,11 +40,131 @@ public class EnvUtilsTest {
         assertEquals(12, EnvUtils.getParallelism());
     }
 
+    @Test
+    public void testGetTaskConcurrency() {
+        assertEquals(1, EnvUtils.getTaskConcurrency());
+    }
+
+    @Test
+    public void testGetAdaptiveConcurrency() {
+        assertEquals(false, EnvUtils.getAdaptiveConcurrency());
+    }
+
+    @Test
+    public void testGetAdaptiveInterval() {
+        assertEquals(10L, EnvUtils.getAdaptiveInterval());
+    }
+
+    @Test
+    public void testGetWorkUnitMaxBytes() {
+        assertEquals(0L, EnvUtils.getWorkUnitMaxBytes());
+    }
+
+    @Test
+    public void testGetWorkUnitMaxObjects() {
+        assertEquals(1000, EnvUtils.getWorkUnitMaxObjects());
+    }
+
+    @Test
+    public void testGetLargeLaneParallelism() {
+        assertEquals(0, EnvUtils.getLargeLaneParallelism());
+    }
+
+    @Test
+    public void testGetLargeLaneLookahead() {
+        assertEquals(10000, EnvUtils.getLargeLaneLookahead());
+    }
+
     @Test
     public void testGetVerifyOnly() {
         assertEquals(false, EnvUtils.getVerifyOnly());
     }
 
+    @Test
+    public void testGetAwsBatchDelete() {
+        assertEquals(false, EnvUtils.getAwsBatchDelete());
+    }
+
+    @Test
+    public void testGetCheckpointPath() {
+        assertEquals("", EnvUtils.getCheckpointPath());
+    }
+
+    @Test
+    public void testGetCheckpointInterval() {
+        assertEquals(60L, EnvUtils.getCheckpointInterval());
+    }
+
+    @Test
+    public void testGetUploadJournalPath() {
+        assertEquals("", EnvUtils.getUploadJournalPath());
+    }
+
+    @Test
+    public void testGetSweepUploads() {
+        assertEquals(false, EnvUtils.getSweepUploads());
+    }
+
+    @Test
+    public void testGetSweepUploadsAge() {
+        assertEquals(86400L, EnvUtils.getSweepUploadsAge());
+    }
+
+    @Test
+    public void testGetProgressInterval() {
+        assertEquals(0L, EnvUtils.getProgressInterval());
+    }
+
+    @Test
+    public void testGetCountCachePath() {
+        assertEquals("", EnvUtils.getCountCachePath());
+    }
+
+    @Test
+    public void testGetCountCacheTtl() {
+        assertEquals(86400L, EnvUtils.getCountCacheTtl());
+    }
+
+    @Test
+    public void testGetInventoryPath() {
+        assertEquals("", EnvUtils.getInventoryPath());
+    }
+
+    @Test
+    public void testGetInventorySchema() {
+        assertEquals("Bucket, Key, Size, LastModifiedDate, ETag", EnvUtils.getInventorySchema());
+    }
+
+    @Test
+    public void testGetKeyMapper() {
+        assertEquals("nss", EnvUtils.getKeyMapper());
+    }
+
+    @Test
+    public void testGetLookupTable() {
+        assertEquals("memory", EnvUtils.getLookupTable());
+    }
+
+    @Test
+    public void testGetLookupCapacity() {
+        assertEquals(65536, EnvUtils.getLookupCapacity());
+    }
+
+    @Test
+    public void testGetLookupOffHeap() {
+        assertEquals(false, EnvUtils.getLookupOffHeap());
+    }
+
+    @Test
+    public void testGetLookupIndexPath() {
+        assertEquals("./external/dump.idx", EnvUtils.getLookupIndexPath());
+    }
+
+    @Test
+    public void testGetBuildLookupIndex() {
+        assertEquals(false, EnvUtils.getBuildLookupIndex());
+    }
+
     @Test
     public void testGetInputPath() {
         assertEquals("./external/dump.txt", EnvUtils.getInputPath());
@@ -75,11 +195,46 @@ public class EnvUtilsTest {
         assertEquals(1000, EnvUtils.getAwsMaxKeys());
     }
 
+    @Test
+    public void testGetAwsListShards() {
+        assertEquals(1, EnvUtils.getAwsListShards());
+    }
+
+    @Test
+    public void testGetAwsListSkipRemediated() {
+        assertEquals(false, EnvUtils.getAwsListSkipRemediated());
+    }
+
+    @Test
+    public void testGetAwsListPrefetchPages() {
+        assertEquals(2, EnvUtils.getAwsListPrefetchPages());
+    }
+
+    @Test
+    public void testGetAwsListPrefetchMaxObjects() {
+        assertEquals(10000L, EnvUtils.getAwsListPrefetchMaxObjects());
+    }
+
+    @Test
+    public void testGetAwsListPrefetchMaxBytes() {
+        assertEquals(67108864L, EnvUtils.getAwsListPrefetchMaxBytes());
+    }
+
     @Test
     public void testGetAwsMaxPartSize() {
         assertEquals(52428800L, EnvUtils.getAwsMaxPartSize());
     }
 
+    @Test
+    public void testGetAwsTargetPartCount() {
+        assertEquals(100, EnvUtils.getAwsTargetPartCount());
+    }
+
+    @Test
+    public void testGetAwsPreserveEtag() {
+        assertEquals(false, EnvUtils.getAwsPreserveEtag());
+    }
+
     @Test
     public void testGetAwsMultipartThreshold() {
         assertEquals(104857600L, EnvUtils.getAwsMultipartThreshold());
@@ -90,4 +245,44 @@ public class EnvUtilsTest {
         assertEquals(false, EnvUtils.getAwsSkipMultipart());
     }
 
+    @Test
+    public void testGetAwsMaxPartsInFlight() {
+        assertEquals(0, EnvUtils.getAwsMaxPartsInFlight());
+    }
+
+    @Test
+    public void testGetAwsPartRetries() {
+        assertEquals(3, EnvUtils.getAwsPartRetries());
+    }
+
+    @Test
+    public void testGetAwsPartRetryBackoff() {
+        assertEquals(1000L, EnvUtils.getAwsPartRetryBackoff());
+    }
+
+    @Test
+    public void testGetAwsMaxConnections() {
+        assertEquals(0, EnvUtils.getAwsMaxConnections());
+    }
+
+    @Test
+    public void testGetAwsConnectionMaxIdle() {
+        assertEquals(60L, EnvUtils.getAwsConnectionMaxIdle());
+    }
+
+    @Test
+    public void testGetAwsAsync() {
+        assertEquals(false, EnvUtils.getAwsAsync());
+    }
+
+    @Test
+    public void testGetAwsMaxInFlight() {
+        assertEquals(1000, EnvUtils.getAwsMaxInFlight());
+    }
+
+    @Test
+    public void testGetAwsPrefixRate() {
+        assertEquals(0, EnvUtils.getAwsPrefixRate());
+    }
+
 }